@@ -191,7 +191,7 @@ public final class GradleProjectSources implements Sources, ProjectInitListener
         }
 
         hasScanned.set(true);
-        NbGradleProject.PROJECT_PROCESSOR.submit(new Runnable() {
+        NbGradleProject.PROJECT_PROCESSOR.execute(new Runnable() {
             @Override
             public void run() {
                 scanRequestId.compareAndSet(requestId, null);
@@ -6,6 +6,7 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
@@ -17,10 +18,13 @@ import javax.swing.event.ChangeListener;
 import org.netbeans.api.java.classpath.ClassPath;
 import org.netbeans.api.java.classpath.GlobalPathRegistry;
 import org.netbeans.api.project.Project;
+import org.netbeans.gradle.project.metrics.MeteredExecutor;
+import org.netbeans.gradle.project.model.BuildScriptWatcher;
 import org.netbeans.gradle.project.model.GradleModelLoader;
 import org.netbeans.gradle.project.model.ModelLoadListener;
 import org.netbeans.gradle.project.model.ModelRetrievedListener;
 import org.netbeans.gradle.project.model.NbGradleModel;
+import org.netbeans.gradle.project.persistent.CoalescingPropertiesPersister;
 import org.netbeans.gradle.project.properties.GradleCustomizer;
 import org.netbeans.gradle.project.properties.ProjectProperties;
 import org.netbeans.gradle.project.properties.ProjectPropertiesProxy;
@@ -50,8 +54,9 @@ import org.openide.windows.OutputWriter;
 public final class NbGradleProject implements Project {
     private static final Logger LOGGER = Logger.getLogger(NbGradleProject.class.getName());
 
-    public static final RequestProcessor PROJECT_PROCESSOR
-            = new RequestProcessor("Gradle-Project-Processor", 1, true);
+    public static final Executor PROJECT_PROCESSOR = new MeteredExecutor(
+            "queue.project-processor",
+            new RequestProcessor("Gradle-Project-Processor", 1, true));
 
     private final FileObject projectDir;
     private final ProjectState state;
@@ -66,6 +71,7 @@ public final class NbGradleProject implements Project {
     private final AtomicReference<NbGradleModel> currentModelRef;
     private final ProjectPropertiesProxy properties;
     private final ProjectInfoManager projectInfoManager;
+    private final BuildScriptWatcher buildScriptWatcher;
 
     private final AtomicReference<ProjectInfoRef> loadErrorRef;
 
@@ -84,6 +90,7 @@ public final class NbGradleProject implements Project {
         this.currentModelRef = new AtomicReference<NbGradleModel>(GradleModelLoader.createEmptyModel(projectDir));
 
         this.cpProvider = new GradleClassPathProvider(this);
+        this.buildScriptWatcher = new BuildScriptWatcher(this);
         this.loadedAtLeastOnce = false;
         this.name = projectDir.getNameExt();
         this.exceptionDisplayer = new ExceptionDisplayer(NbStrings.getProjectErrorTitle(name));
@@ -141,6 +148,7 @@ public final class NbGradleProject implements Project {
         try {
             loadedAtLeastOnce = true;
             modelChanges.fireChange();
+            buildScriptWatcher.updateWatchedFiles();
         } finally {
             GradleCacheSourceForBinaryQuery.notifyCacheChange();
             GradleCacheBinaryForSourceQuery.notifyCacheChange();
@@ -293,6 +301,7 @@ public final class NbGradleProject implements Project {
             reloadProject(true);
 
             cpProvider.addPropertyChangeListener(this);
+            buildScriptWatcher.start();
 
             SwingUtilities.invokeLater(new Runnable() {
                 @Override
@@ -315,6 +324,11 @@ public final class NbGradleProject implements Project {
 
             GradleModelLoader.removeModelLoadedListener(modelLoadListener);
             cpProvider.removePropertyChangeListener(this);
+            buildScriptWatcher.stop();
+
+            // Do not wait for the save delay to write the changes made to
+            // the properties of the closed project.
+            CoalescingPropertiesPersister.flushAllLater();
         }
 
         private void doUnregisterPaths() {
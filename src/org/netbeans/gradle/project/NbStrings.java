@@ -46,6 +46,10 @@ public final class NbStrings {
         return NbBundle.getMessage(NbStrings.class, "MSG_TaskJvmArguments", arguments);
     }
 
+    public static String getOutputLinkNotFound(String target) {
+        return NbBundle.getMessage(NbStrings.class, "MSG_OutputLinkNotFound", target);
+    }
+
     public static String getDependenciesNodeCaption() {
         return NbBundle.getMessage(NbStrings.class, "LBL_Dependencies");
     }
@@ -199,6 +203,83 @@ public final class NbStrings {
         return NbBundle.getMessage(NbStrings.class, "MSG_BUILD_FAILURE", tasks);
     }
 
+    public static String getOutputTruncated(int lineLimit, int lineCount, String file) {
+        return NbBundle.getMessage(NbStrings.class, "MSG_OutputTruncated", lineLimit, lineCount, file);
+    }
+
+    public static String getOutputTail(int firstLine, int lastLine) {
+        return NbBundle.getMessage(NbStrings.class, "MSG_OutputTail", firstLine, lastLine);
+    }
+
+    public static String getOutputFileDeleted() {
+        return NbBundle.getMessage(NbStrings.class, "MSG_OutputFileDeleted");
+    }
+
+    public static String getSearchFullOutput() {
+        return NbBundle.getMessage(NbStrings.class, "MSG_SearchFullOutput");
+    }
+
+    public static String getSearchOutputTitle() {
+        return NbBundle.getMessage(NbStrings.class, "LBL_SearchOutputTitle");
+    }
+
+    public static String getSearchOutputText() {
+        return NbBundle.getMessage(NbStrings.class, "LBL_SearchOutputText");
+    }
+
+    public static String getSearchOutputTabCaption(String caption) {
+        return NbBundle.getMessage(NbStrings.class, "LBL_SearchOutputTabCaption", caption);
+    }
+
+    public static String getSearchOutputHeader(String text, String file) {
+        return NbBundle.getMessage(NbStrings.class, "MSG_SearchOutputHeader", text, file);
+    }
+
+    public static String getSearchOutputNoResult(String text) {
+        return NbBundle.getMessage(NbStrings.class, "MSG_SearchOutputNoResult", text);
+    }
+
+    public static String getSearchOutputTooManyResults(int maxResults) {
+        return NbBundle.getMessage(NbStrings.class, "MSG_SearchOutputTooManyResults", maxResults);
+    }
+
+    public static String getSearchOutputContext(int firstLine, int lastLine) {
+        return NbBundle.getMessage(NbStrings.class, "MSG_SearchOutputContext", firstLine, lastLine);
+    }
+
+    public static String getBuildProfileSummary(
+            double configurationSeconds,
+            double executionSeconds,
+            int upToDateCount,
+            int taskCount) {
+        return NbBundle.getMessage(NbStrings.class, "MSG_BuildProfileSummary",
+                new Object[]{configurationSeconds, executionSeconds, upToDateCount, taskCount});
+    }
+
+    public static String getBuildProfileTabCaption(String caption) {
+        return NbBundle.getMessage(NbStrings.class, "LBL_BuildProfileTabCaption", caption);
+    }
+
+    public static String getBuildProfileSlowestTasks() {
+        return NbBundle.getMessage(NbStrings.class, "MSG_BuildProfileSlowestTasks");
+    }
+
+    public static String getBuildProfileTask(double seconds, String taskPath, String outcome) {
+        return NbBundle.getMessage(NbStrings.class, "MSG_BuildProfileTask", seconds, taskPath, outcome);
+    }
+
+    public static String getBuildProfileExport() {
+        return NbBundle.getMessage(NbStrings.class, "MSG_BuildProfileExport");
+    }
+
+    public static String getBuildProfileExported(String file) {
+        return NbBundle.getMessage(NbStrings.class, "MSG_BuildProfileExported", file);
+    }
+
+    public static String getBuildProfileExportFailed(String file) {
+        return NbBundle.getMessage(NbStrings.class, "MSG_BuildProfileExportFailed", file);
+    }
+
     private NbStrings() {
         throw new AssertionError();
     }
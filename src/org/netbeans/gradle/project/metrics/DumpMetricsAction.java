@@ -0,0 +1,30 @@
+package org.netbeans.gradle.project.metrics;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import org.openide.awt.ActionID;
+import org.openide.awt.ActionReference;
+import org.openide.awt.ActionRegistration;
+import org.openide.util.NbBundle;
+import org.openide.windows.IOProvider;
+import org.openide.windows.InputOutput;
+import org.openide.windows.OutputWriter;
+
+@ActionID(category = "Tools", id = "org.netbeans.gradle.project.metrics.DumpMetricsAction")
+@ActionRegistration(displayName = "#CTL_DumpMetricsAction")
+@ActionReference(path = "Menu/Tools", position = 1850)
+public final class DumpMetricsAction implements ActionListener {
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        String caption = NbBundle.getMessage(DumpMetricsAction.class, "LBL_MetricsTabCaption");
+        InputOutput io = IOProvider.getDefault().getIO(caption, false);
+        io.select();
+
+        OutputWriter output = io.getOut();
+        try {
+            output.println(GradleMetrics.dump());
+        } finally {
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.netbeans.gradle.project.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Contains the metrics collected by the plugin. Metrics are identified by
+ * their names, which are dot separated (e.g.: "model.load.connect") and
+ * requesting a metric with the same name always returns the same instance.
+ * <P>
+ * Metrics are expected to be retrieved once and stored in a static field,
+ * so updating them does not require a lookup.
+ * <P>
+ * The metrics are also exported through JMX, see
+ * {@link GradleMetricsMXBean}.
+ */
+public final class GradleMetrics {
+    private static final Logger LOGGER = Logger.getLogger(GradleMetrics.class.getName());
+
+    private static final String MBEAN_NAME = "org.netbeans.gradle.project:type=Metrics";
+
+    private static final ConcurrentMap<String, MetricCounter> COUNTERS
+            = new ConcurrentHashMap<String, MetricCounter>();
+    private static final ConcurrentMap<String, LatencyHistogram> HISTOGRAMS
+            = new ConcurrentHashMap<String, LatencyHistogram>();
+    private static final ConcurrentMap<String, MetricGauge> GAUGES
+            = new ConcurrentHashMap<String, MetricGauge>();
+
+    static {
+        registerMBean();
+    }
+
+    private static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new GradleMetricsBean(), name);
+            }
+        } catch (Exception ex) {
+            LOGGER.log(Level.INFO, "Failed to register the metrics MBean.", ex);
+        }
+    }
+
+    public static MetricCounter getCounter(String name) {
+        if (name == null) throw new NullPointerException("name");
+
+        MetricCounter result = COUNTERS.get(name);
+        if (result == null) {
+            MetricCounter newCounter = new MetricCounter(name);
+            result = COUNTERS.putIfAbsent(name, newCounter);
+            if (result == null) {
+                result = newCounter;
+            }
+        }
+        return result;
+    }
+
+    public static LatencyHistogram getHistogram(String name) {
+        if (name == null) throw new NullPointerException("name");
+
+        LatencyHistogram result = HISTOGRAMS.get(name);
+        if (result == null) {
+            LatencyHistogram newHistogram = new LatencyHistogram(name);
+            result = HISTOGRAMS.putIfAbsent(name, newHistogram);
+            if (result == null) {
+                result = newHistogram;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Registers a gauge with the given name, replacing the gauge previously
+     * registered with the same name. The gauge is referenced as long as it
+     * is not replaced, so it should not reference short lived objects.
+     */
+    public static void registerGauge(String name, MetricGauge gauge) {
+        if (name == null) throw new NullPointerException("name");
+        if (gauge == null) throw new NullPointerException("gauge");
+
+        GAUGES.put(name, gauge);
+    }
+
+    private static long getGaugeValue(MetricGauge gauge) {
+        try {
+            return gauge.getValue();
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Failed to read the value of a gauge.", ex);
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the current value of every metric ordered by name. Durations
+     * are in milliseconds.
+     */
+    public static Map<String, Long> getValues() {
+        Map<String, Long> result = new TreeMap<String, Long>();
+        TimeUnit unit = TimeUnit.MILLISECONDS;
+
+        for (MetricCounter counter: COUNTERS.values()) {
+            result.put(counter.getName(), counter.getValue());
+        }
+        for (Map.Entry<String, MetricGauge> entry: GAUGES.entrySet()) {
+            result.put(entry.getKey(), getGaugeValue(entry.getValue()));
+        }
+        for (LatencyHistogram histogram: HISTOGRAMS.values()) {
+            String name = histogram.getName();
+            result.put(name + ".count", histogram.getCount());
+            result.put(name + ".meanMs", histogram.getMean(unit));
+            result.put(name + ".p95Ms", histogram.getPercentile(95.0, unit));
+            result.put(name + ".maxMs", histogram.getMax(unit));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the current value of every metric as text, one metric per line
+     * ordered by name. Durations are in milliseconds.
+     */
+    public static String dump() {
+        StringBuilder result = new StringBuilder(1024);
+
+        Map<String, MetricCounter> counters = new TreeMap<String, MetricCounter>(COUNTERS);
+        for (MetricCounter counter: counters.values()) {
+            result.append(counter.getName());
+            result.append(": count=");
+            result.append(counter.getValue());
+            result.append('\n');
+        }
+
+        Map<String, MetricGauge> gauges = new TreeMap<String, MetricGauge>(GAUGES);
+        for (Map.Entry<String, MetricGauge> entry: gauges.entrySet()) {
+            result.append(entry.getKey());
+            result.append(": value=");
+            result.append(getGaugeValue(entry.getValue()));
+            result.append('\n');
+        }
+
+        Map<String, LatencyHistogram> histograms = new TreeMap<String, LatencyHistogram>(HISTOGRAMS);
+        for (LatencyHistogram histogram: histograms.values()) {
+            TimeUnit unit = TimeUnit.MILLISECONDS;
+
+            result.append(histogram.getName());
+            result.append(": count=");
+            result.append(histogram.getCount());
+            result.append(", totalMs=");
+            result.append(histogram.getTotal(unit));
+            result.append(", meanMs=");
+            result.append(histogram.getMean(unit));
+            result.append(", p50Ms=");
+            result.append(histogram.getPercentile(50.0, unit));
+            result.append(", p95Ms=");
+            result.append(histogram.getPercentile(95.0, unit));
+            result.append(", maxMs=");
+            result.append(histogram.getMax(unit));
+            result.append('\n');
+        }
+
+        return result.toString();
+    }
+
+    private static final class GradleMetricsBean implements GradleMetricsMXBean {
+        @Override
+        public Map<String, Long> getValues() {
+            return GradleMetrics.getValues();
+        }
+
+        @Override
+        public String getDump() {
+            return GradleMetrics.dump();
+        }
+    }
+
+    private GradleMetrics() {
+        throw new AssertionError();
+    }
+}
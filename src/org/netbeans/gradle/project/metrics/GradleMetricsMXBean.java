@@ -0,0 +1,18 @@
+package org.netbeans.gradle.project.metrics;
+
+import java.util.Map;
+
+/**
+ * Exports the metrics of the plugin through JMX as
+ * {@code org.netbeans.gradle.project:type=Metrics}.
+ */
+public interface GradleMetricsMXBean {
+    /**
+     * Returns the current value of every metric. Histograms are exported as
+     * several values with the suffixes ".count", ".meanMs", ".p95Ms" and
+     * ".maxMs".
+     */
+    public Map<String, Long> getValues();
+
+    public String getDump();
+}
@@ -0,0 +1,116 @@
+package org.netbeans.gradle.project.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the distribution of durations. The durations are counted in
+ * buckets whose upper bounds are powers of two (in nanoseconds), so recording
+ * a value requires only a few atomic operations and no allocation, while
+ * percentiles can still be estimated within a factor of two.
+ */
+public final class LatencyHistogram {
+    private static final int BUCKET_COUNT = 64;
+
+    private final String name;
+    private final AtomicLongArray buckets;
+    private final AtomicLong count;
+    private final AtomicLong totalNanos;
+    private final AtomicLong maxNanos;
+
+    public LatencyHistogram(String name) {
+        if (name == null) throw new NullPointerException("name");
+
+        this.name = name;
+        this.buckets = new AtomicLongArray(BUCKET_COUNT);
+        this.count = new AtomicLong(0);
+        this.totalNanos = new AtomicLong(0);
+        this.maxNanos = new AtomicLong(0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private static int getBucketIndex(long nanos) {
+        return BUCKET_COUNT - Long.numberOfLeadingZeros(nanos);
+    }
+
+    public void record(long nanos) {
+        long value = nanos > 0 ? nanos : 0;
+
+        buckets.incrementAndGet(Math.min(getBucketIndex(value), BUCKET_COUNT - 1));
+        count.incrementAndGet();
+        totalNanos.addAndGet(value);
+
+        while (true) {
+            long currentMax = maxNanos.get();
+            if (currentMax >= value || maxNanos.compareAndSet(currentMax, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Records the time elapsed since the given value of
+     * {@code System.nanoTime()} and returns the current time.
+     */
+    public long recordSince(long startTime) {
+        long now = System.nanoTime();
+        record(now - startTime);
+        return now;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotal(TimeUnit unit) {
+        return unit.convert(totalNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getMax(TimeUnit unit) {
+        return unit.convert(maxNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getMean(TimeUnit unit) {
+        long currentCount = count.get();
+        return currentCount > 0
+                ? unit.convert(totalNanos.get() / currentCount, TimeUnit.NANOSECONDS)
+                : 0;
+    }
+
+    /**
+     * Returns an upper estimate of the given percentile (between 0 and 100)
+     * of the recorded durations.
+     */
+    public long getPercentile(double percentile, TimeUnit unit) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("Illegal percentile: " + percentile);
+        }
+
+        long[] currentBuckets = new long[BUCKET_COUNT];
+        long currentCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            currentBuckets[i] = buckets.get(i);
+            currentCount += currentBuckets[i];
+        }
+
+        if (currentCount == 0) {
+            return 0;
+        }
+
+        long limit = (long)Math.ceil(currentCount * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += currentBuckets[i];
+            if (seen >= limit && currentBuckets[i] > 0) {
+                long upperBound = i < BUCKET_COUNT - 1 ? (1L << i) - 1 : Long.MAX_VALUE;
+                long result = Math.min(upperBound, maxNanos.get());
+                return unit.convert(result, TimeUnit.NANOSECONDS);
+            }
+        }
+        return getMax(unit);
+    }
+}
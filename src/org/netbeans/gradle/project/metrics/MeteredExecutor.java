@@ -0,0 +1,61 @@
+package org.netbeans.gradle.project.metrics;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Forwards tasks to another executor while measuring how long the tasks
+ * wait in the queue of the executor and how long they run. The number of
+ * tasks submitted but not yet completed is available as a gauge.
+ * <P>
+ * The metrics are named by appending ".wait", ".run" and ".pending" to the
+ * name of the executor.
+ */
+public final class MeteredExecutor implements Executor {
+    private final Executor wrapped;
+    private final LatencyHistogram waitTime;
+    private final LatencyHistogram runTime;
+    private final AtomicInteger pendingCount;
+
+    public MeteredExecutor(String name, Executor wrapped) {
+        if (name == null) throw new NullPointerException("name");
+        if (wrapped == null) throw new NullPointerException("wrapped");
+
+        this.wrapped = wrapped;
+        this.waitTime = GradleMetrics.getHistogram(name + ".wait");
+        this.runTime = GradleMetrics.getHistogram(name + ".run");
+        this.pendingCount = new AtomicInteger(0);
+
+        GradleMetrics.registerGauge(name + ".pending", new MetricGauge() {
+            @Override
+            public long getValue() {
+                return pendingCount.get();
+            }
+        });
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        if (command == null) throw new NullPointerException("command");
+
+        final long submitTime = System.nanoTime();
+        pendingCount.incrementAndGet();
+        try {
+            wrapped.execute(new Runnable() {
+                @Override
+                public void run() {
+                    long startTime = waitTime.recordSince(submitTime);
+                    try {
+                        command.run();
+                    } finally {
+                        runTime.recordSince(startTime);
+                        pendingCount.decrementAndGet();
+                    }
+                }
+            });
+        } catch (RuntimeException ex) {
+            pendingCount.decrementAndGet();
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.netbeans.gradle.project.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class MetricCounter {
+    private final String name;
+    private final AtomicLong value;
+
+    public MetricCounter(String name) {
+        if (name == null) throw new NullPointerException("name");
+
+        this.name = name;
+        this.value = new AtomicLong(0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        value.incrementAndGet();
+    }
+
+    public void add(long delta) {
+        value.addAndGet(delta);
+    }
+
+    public long getValue() {
+        return value.get();
+    }
+}
@@ -0,0 +1,10 @@
+package org.netbeans.gradle.project.metrics;
+
+/**
+ * Defines a metric whose value is read when the metrics are dumped (e.g.:
+ * the size of a cache). Implementations must be thread-safe and cheap to
+ * evaluate.
+ */
+public interface MetricGauge {
+    public long getValue();
+}
@@ -0,0 +1,286 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.netbeans.gradle.project.GradleProjectConstants;
+import org.netbeans.gradle.project.NbGradleProject;
+import org.openide.filesystems.FileAttributeEvent;
+import org.openide.filesystems.FileChangeAdapter;
+import org.openide.filesystems.FileChangeListener;
+import org.openide.filesystems.FileEvent;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileRenameEvent;
+import org.openide.filesystems.FileUtil;
+import org.openide.util.RequestProcessor;
+
+/**
+ * Watches the build scripts referenced by the current model of a project and
+ * reloads the project after they have been edited.
+ * <P>
+ * Reloads are scheduled per build root (the directory of the settings file)
+ * and are only executed after no build script of the same build has changed
+ * for {@link #QUIET_PERIOD_MS} milliseconds. Since loading any project of a
+ * multi-project build loads the models of every project in the build, a burst
+ * of changes affecting many projects of the same build will only cause a
+ * single model load.
+ */
+public final class BuildScriptWatcher {
+    private static final Logger LOGGER = Logger.getLogger(BuildScriptWatcher.class.getName());
+
+    private static final int QUIET_PERIOD_MS = 1500;
+
+    private static final RequestProcessor RELOAD_SCHEDULER
+            = new RequestProcessor("Gradle-Reload-Scheduler", 1, true);
+
+    private static final Lock PENDING_LOCK = new ReentrantLock();
+    private static final Map<File, PendingReload> PENDING_RELOADS = new HashMap<File, PendingReload>();
+
+    private final NbGradleProject project;
+    private final FileChangeListener changeListener;
+
+    private final Lock mainLock;
+    private Set<File> watchedFiles;
+    private File buildRoot;
+    private boolean started;
+
+    public BuildScriptWatcher(NbGradleProject project) {
+        if (project == null) throw new NullPointerException("project");
+
+        this.project = project;
+        this.mainLock = new ReentrantLock();
+        this.watchedFiles = Collections.emptySet();
+        this.buildRoot = null;
+        this.started = false;
+        this.changeListener = new FileChangeAdapter() {
+            @Override
+            public void fileChanged(FileEvent fe) {
+                scheduleReload();
+            }
+
+            @Override
+            public void fileDataCreated(FileEvent fe) {
+                scheduleReload();
+            }
+
+            @Override
+            public void fileDeleted(FileEvent fe) {
+                scheduleReload();
+            }
+
+            @Override
+            public void fileRenamed(FileRenameEvent fe) {
+                scheduleReload();
+            }
+
+            @Override
+            public void fileAttributeChanged(FileAttributeEvent fe) {
+            }
+        };
+    }
+
+    public void start() {
+        mainLock.lock();
+        try {
+            started = true;
+        } finally {
+            mainLock.unlock();
+        }
+        updateWatchedFiles();
+    }
+
+    public void stop() {
+        Set<File> toUnwatch;
+        mainLock.lock();
+        try {
+            started = false;
+            toUnwatch = watchedFiles;
+            watchedFiles = Collections.emptySet();
+            buildRoot = null;
+        } finally {
+            mainLock.unlock();
+        }
+
+        for (File file: toUnwatch) {
+            removeListener(file);
+        }
+    }
+
+    /**
+     * Updates the set of watched build scripts to the build scripts of the
+     * currently available model of the project. This method should be called
+     * after the model of the project has changed.
+     */
+    public void updateWatchedFiles() {
+        NbGradleModel model = project.getAvailableModel();
+        Set<File> newFiles = getBuildScripts(model);
+        File newBuildRoot = getBuildRoot(model);
+
+        Set<File> toWatch = new HashSet<File>(newFiles);
+        Set<File> toUnwatch;
+
+        mainLock.lock();
+        try {
+            if (!started) {
+                return;
+            }
+
+            toUnwatch = new HashSet<File>(watchedFiles);
+            toUnwatch.removeAll(newFiles);
+            toWatch.removeAll(watchedFiles);
+
+            watchedFiles = newFiles;
+            buildRoot = newBuildRoot;
+        } finally {
+            mainLock.unlock();
+        }
+
+        for (File file: toUnwatch) {
+            removeListener(file);
+        }
+        for (File file: toWatch) {
+            addListener(file);
+        }
+    }
+
+    private void addListener(File file) {
+        try {
+            FileUtil.addFileChangeListener(changeListener, file);
+        } catch (IllegalArgumentException ex) {
+            LOGGER.log(Level.INFO, "Build script is already being watched: " + file, ex);
+        }
+    }
+
+    private void removeListener(File file) {
+        try {
+            FileUtil.removeFileChangeListener(changeListener, file);
+        } catch (IllegalArgumentException ex) {
+            LOGGER.log(Level.INFO, "Build script was not being watched: " + file, ex);
+        }
+    }
+
+    private void scheduleReload() {
+        File currentBuildRoot;
+        mainLock.lock();
+        try {
+            if (!started) {
+                return;
+            }
+            currentBuildRoot = buildRoot;
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (currentBuildRoot != null) {
+            scheduleReload(currentBuildRoot, project);
+        }
+    }
+
+    private static void scheduleReload(File buildRoot, NbGradleProject project) {
+        PendingReload pending;
+
+        PENDING_LOCK.lock();
+        try {
+            pending = PENDING_RELOADS.get(buildRoot);
+            if (pending == null) {
+                pending = new PendingReload(buildRoot);
+                PENDING_RELOADS.put(buildRoot, pending);
+            }
+            pending.project = project;
+        } finally {
+            PENDING_LOCK.unlock();
+        }
+
+        // Rescheduling a task which has not been started yet delays it, so
+        // the reload will only be done after the build scripts are quiet.
+        pending.task.schedule(QUIET_PERIOD_MS);
+    }
+
+    private static File getBuildRoot(NbGradleModel model) {
+        FileObject settingsFile = model.getSettingsFile();
+        FileObject rootDir = settingsFile != null
+                ? settingsFile.getParent()
+                : model.getProjectDir();
+        if (rootDir == null) {
+            rootDir = model.getProjectDir();
+        }
+
+        return FileUtil.toFile(rootDir);
+    }
+
+    private static Set<File> getBuildScripts(NbGradleModel model) {
+        Set<File> result = new HashSet<File>();
+
+        FileObject settingsFile = model.getSettingsFile();
+        if (settingsFile != null) {
+            File settingsFileAsFile = FileUtil.toFile(settingsFile);
+            if (settingsFileAsFile != null) {
+                result.add(settingsFileAsFile);
+            }
+        }
+
+        File projectDir = FileUtil.toFile(model.getProjectDir());
+        if (projectDir != null) {
+            result.add(new File(projectDir, GradleProjectConstants.BUILD_FILE_NAME));
+        }
+
+        addModuleBuildScripts(model.getMainModule(), result, new HashSet<String>());
+        return result;
+    }
+
+    private static void addModuleBuildScripts(
+            NbGradleModule module,
+            Set<File> buildScripts,
+            Set<String> visited) {
+        if (!visited.add(module.getUniqueName())) {
+            return;
+        }
+
+        buildScripts.add(new File(module.getModuleDir(), GradleProjectConstants.BUILD_FILE_NAME));
+        for (NbGradleModule child: module.getChildren()) {
+            addModuleBuildScripts(child, buildScripts, visited);
+        }
+    }
+
+    private static final class PendingReload implements Runnable {
+        private final File buildRoot;
+        private final RequestProcessor.Task task;
+        // Guarded by PENDING_LOCK
+        private NbGradleProject project;
+
+        public PendingReload(File buildRoot) {
+            this.buildRoot = buildRoot;
+            this.task = RELOAD_SCHEDULER.create(this);
+            this.project = null;
+        }
+
+        @Override
+        public void run() {
+            NbGradleProject toReload;
+            PENDING_LOCK.lock();
+            try {
+                toReload = project;
+                project = null;
+                if (PENDING_RELOADS.get(buildRoot) == this) {
+                    PENDING_RELOADS.remove(buildRoot);
+                }
+            } finally {
+                PENDING_LOCK.unlock();
+            }
+
+            if (toReload != null) {
+                LOGGER.log(Level.INFO, "Build scripts have changed, reloading build: {0}", buildRoot);
+                // Loading any of the projects of a build will notify all the
+                // other projects of the same build via the ModelLoadListener.
+                toReload.reloadProject();
+            }
+        }
+    }
+}
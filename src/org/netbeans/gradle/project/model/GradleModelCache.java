@@ -5,10 +5,15 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
+import org.netbeans.gradle.project.metrics.GradleMetrics;
+import org.netbeans.gradle.project.metrics.MetricCounter;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
 
 public final class GradleModelCache {
+    private static final MetricCounter CACHE_HITS = GradleMetrics.getCounter("cache.model.hits");
+    private static final MetricCounter CACHE_MISSES = GradleMetrics.getCounter("cache.model.misses");
+
     private final ReentrantLock cacheLock;
     private final Map<CacheKey, NbGradleModel> cache;
     private volatile int maxCapacity;
@@ -77,9 +82,27 @@ public final class GradleModelCache {
 
     public NbGradleModel tryGet(File projectDir, File settingsFile) {
         CacheKey key = new CacheKey(projectDir, settingsFile);
+        NbGradleModel result;
+        cacheLock.lock();
+        try {
+            result = cache.get(key);
+        } finally {
+            cacheLock.unlock();
+        }
+
+        if (result != null) {
+            CACHE_HITS.increment();
+        }
+        else {
+            CACHE_MISSES.increment();
+        }
+        return result;
+    }
+
+    public int size() {
         cacheLock.lock();
         try {
-            return cache.get(key);
+            return cache.size();
         } finally {
             cacheLock.unlock();
         }
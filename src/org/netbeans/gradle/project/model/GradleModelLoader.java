@@ -13,6 +13,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.event.ChangeEvent;
@@ -37,6 +39,11 @@ import org.gradle.tooling.model.idea.IdeaProject;
 import org.gradle.tooling.model.idea.IdeaSourceDirectory;
 import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.gradle.project.NbStrings;
+import org.netbeans.gradle.project.metrics.GradleMetrics;
+import org.netbeans.gradle.project.metrics.LatencyHistogram;
+import org.netbeans.gradle.project.metrics.MeteredExecutor;
+import org.netbeans.gradle.project.metrics.MetricCounter;
+import org.netbeans.gradle.project.metrics.MetricGauge;
 import org.netbeans.gradle.project.properties.GlobalGradleSettings;
 import org.netbeans.gradle.project.tasks.DaemonTask;
 import org.netbeans.gradle.project.tasks.GradleDaemonManager;
@@ -50,10 +57,20 @@ public final class GradleModelLoader {
 
     private static final RequestProcessor PROJECT_LOADER
             = new RequestProcessor("Gradle-Project-Loader", 1, true);
+    private static final Executor PROJECT_LOADER_EXECUTOR
+            = new MeteredExecutor("queue.project-loader", PROJECT_LOADER);
 
     private static GradleModelCache CACHE = new GradleModelCache(100);
     private static ModelLoadSupport LISTENERS = new ModelLoadSupport();
 
+    private static final LatencyHistogram CONNECT_TIME = GradleMetrics.getHistogram("model.load.connect");
+    private static final LatencyHistogram FETCH_TIME = GradleMetrics.getHistogram("model.load.fetch");
+    private static final LatencyHistogram PARSE_TIME = GradleMetrics.getHistogram("model.load.parse");
+    private static final LatencyHistogram CACHE_INSERT_TIME = GradleMetrics.getHistogram("model.load.cache-insert");
+    private static final LatencyHistogram LISTENERS_TIME = GradleMetrics.getHistogram("model.load.listeners");
+    private static final LatencyHistogram TOTAL_TIME = GradleMetrics.getHistogram("model.load.total");
+    private static final MetricCounter LOAD_FAILURES = GradleMetrics.getCounter("model.load.failures");
+
     static {
         GlobalGradleSettings.getProjectCacheSize().addChangeListener(new ChangeListener() {
             @Override
@@ -61,6 +78,13 @@ public final class GradleModelLoader {
                 CACHE.setMaxCapacity(GlobalGradleSettings.getProjectCacheSize().getValue());
             }
         });
+
+        GradleMetrics.registerGauge("cache.model.size", new MetricGauge() {
+            @Override
+            public long getValue() {
+                return CACHE.size();
+            }
+        });
     }
 
     public static void addModelLoadedListener(ModelLoadListener listener) {
@@ -113,7 +137,7 @@ public final class GradleModelLoader {
         if (listener == null) throw new NullPointerException("listener");
 
         String caption = NbStrings.getLoadingProjectText(projectDir.getNameExt());
-        GradleDaemonManager.submitGradleTask(PROJECT_LOADER, caption, new DaemonTask() {
+        GradleDaemonManager.submitGradleTask(PROJECT_LOADER_EXECUTOR, caption, new DaemonTask() {
             @Override
             public void run(ProgressHandle progress) {
                 NbGradleModel model = null;
@@ -132,6 +156,9 @@ public final class GradleModelLoader {
                 } catch (GradleConnectionException ex) {
                     error = ex;
                 } finally {
+                    if (error != null) {
+                        LOAD_FAILURES.increment();
+                    }
                     listener.onComplete(model, error);
                 }
             }
@@ -402,13 +429,21 @@ public final class GradleModelLoader {
         return result;
     }
 
-    private static void introduceLoadedModel(NbGradleModel model) {
+    private static void introduceLoadedModel(NbGradleModel model, LoadTimes times) {
+        long startTime = System.nanoTime();
         CACHE.addToCache(model);
+        long cacheTime = CACHE_INSERT_TIME.recordSince(startTime);
+
         LISTENERS.fireEvent(model);
+        long endTime = LISTENERS_TIME.recordSince(cacheTime);
+
+        times.cacheInsertNanos += cacheTime - startTime;
+        times.listenersNanos += endTime - cacheTime;
+        times.modelCount++;
     }
 
     private static NbGradleModel parseFromIdeaModel(
-            FileObject projectDir, IdeaProject ideaModel) throws IOException {
+            FileObject projectDir, IdeaProject ideaModel, LoadTimes times) throws IOException {
         IdeaModule mainModule = tryFindMainModule(projectDir, ideaModel);
         if (mainModule == null) {
             throw new IOException("Unable to find the main project in the model.");
@@ -437,12 +472,12 @@ public final class GradleModelLoader {
                 FileObject moduleDir = FileUtil.toFileObject(module.getModuleDir());
                 if (moduleDir != null) {
                     NbGradleModel model = new NbGradleModel(moduleDir, settings, module);
-                    introduceLoadedModel(model);
+                    introduceLoadedModel(model, times);
                 }
             }
         }
 
-        introduceLoadedModel(mainModel);
+        introduceLoadedModel(mainModel, times);
 
         return mainModel;
     }
@@ -452,15 +487,22 @@ public final class GradleModelLoader {
             ProgressHandle progress) throws IOException {
         LOGGER.log(Level.INFO, "Loading Gradle project from directory: {0}", projectDir);
 
+        long startTime = System.nanoTime();
+        LoadTimes times = new LoadTimes();
+
         IdeaProject ideaModel;
 
         GradleConnector gradleConnector = createGradleConnector();
         gradleConnector.forProjectDirectory(FileUtil.toFile(projectDir));
         ProjectConnection projectConnection = null;
         try {
+            long connectStart = System.nanoTime();
             projectConnection = gradleConnector.connect();
+            long fetchStart = CONNECT_TIME.recordSince(connectStart);
+            times.connectNanos = fetchStart - connectStart;
 
             ideaModel = getModelWithProgress(progress, projectConnection, IdeaProject.class);
+            times.fetchNanos = FETCH_TIME.recordSince(fetchStart) - fetchStart;
         } finally {
             if (projectConnection != null) {
                 projectConnection.close();
@@ -468,7 +510,55 @@ public final class GradleModelLoader {
         }
 
         progress.progress(NbStrings.getParsingModel());
-        return parseFromIdeaModel(projectDir, ideaModel);
+
+        long parseStart = System.nanoTime();
+        NbGradleModel result = parseFromIdeaModel(projectDir, ideaModel, times);
+        long endTime = System.nanoTime();
+
+        // The time spent in introducing the models is measured separately.
+        times.parseNanos = endTime - parseStart - times.cacheInsertNanos - times.listenersNanos;
+        PARSE_TIME.record(times.parseNanos);
+        TOTAL_TIME.record(endTime - startTime);
+
+        if (LOGGER.isLoggable(Level.INFO)) {
+            LOGGER.log(Level.INFO,
+                    "Gradle project loaded: project={0}, models={1}, connectMs={2}, fetchMs={3}, parseMs={4}, cacheInsertMs={5}, listenersMs={6}, totalMs={7}",
+                    new Object[]{
+                        projectDir.getPath(),
+                        times.modelCount,
+                        toMillisStr(times.connectNanos),
+                        toMillisStr(times.fetchNanos),
+                        toMillisStr(times.parseNanos),
+                        toMillisStr(times.cacheInsertNanos),
+                        toMillisStr(times.listenersNanos),
+                        toMillisStr(endTime - startTime)});
+        }
+
+        return result;
+    }
+
+    private static String toMillisStr(long nanos) {
+        // Avoid the number formatting of MessageFormat, so that the log
+        // remains easy to parse.
+        return Long.toString(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    private static final class LoadTimes {
+        private long connectNanos;
+        private long fetchNanos;
+        private long parseNanos;
+        private long cacheInsertNanos;
+        private long listenersNanos;
+        private int modelCount;
+
+        public LoadTimes() {
+            this.connectNanos = 0;
+            this.fetchNanos = 0;
+            this.parseNanos = 0;
+            this.cacheInsertNanos = 0;
+            this.listenersNanos = 0;
+            this.modelCount = 0;
+        }
     }
 
     private static class DependencyBuilder {
@@ -0,0 +1,249 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.openide.util.RequestProcessor;
+
+/**
+ * Decouples the thread writing the output of a build (which is a thread of
+ * the Tooling API) from the analysis of the lines by the
+ * {@link SmartOutputHandler}.
+ * <P>
+ * Lines are stored in a bounded ring buffer and are processed in batches by
+ * a background task. If the processing falls behind and the number of queued
+ * lines exceeds a threshold, lines are printed without trying to find
+ * hyperlinks in them until the queue becomes short again. The writer is only
+ * blocked if the buffer is completely full.
+ * <P>
+ * Failures of the wrapped handler happen on the background task, so they are
+ * logged instead of being rethrown to the writer.
+ * <P>
+ * Visitors which need to know when a line was written (rather than when it
+ * was processed) can be passed as immediate visitors. They see the lines on
+ * the writing thread, so they must be cheap.
+ */
+public final class AsyncOutputHandler implements LineOutputWriter.Handler {
+    private static final Logger LOGGER = Logger.getLogger(AsyncOutputHandler.class.getName());
+
+    private static final RequestProcessor OUTPUT_PROCESSOR
+            = new RequestProcessor("Gradle-Output-Processor", 10, true);
+
+    private static final int DEFAULT_CAPACITY = 8 * 1024;
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final SmartOutputHandler wrapped;
+    private final SmartOutputHandler.Visitor[] immediateVisitors;
+    private final RequestProcessor.Task drainTask;
+
+    private final Lock mainLock;
+    private final Condition notFull;
+    private final Condition drained;
+
+    private final String[] queue;
+    private final int degradeThreshold;
+    private final int recoverThreshold;
+    private int head;
+    private int size;
+    private boolean processing;
+    private boolean flushRequested;
+    private boolean degraded;
+
+    public AsyncOutputHandler(SmartOutputHandler wrapped) {
+        this(wrapped, Collections.<SmartOutputHandler.Visitor>emptyList());
+    }
+
+    public AsyncOutputHandler(SmartOutputHandler wrapped, List<SmartOutputHandler.Visitor> immediateVisitors) {
+        this(wrapped, immediateVisitors, DEFAULT_CAPACITY);
+    }
+
+    public AsyncOutputHandler(
+            SmartOutputHandler wrapped,
+            List<SmartOutputHandler.Visitor> immediateVisitors,
+            int capacity) {
+        if (wrapped == null) throw new NullPointerException("wrapped");
+        if (immediateVisitors == null) throw new NullPointerException("immediateVisitors");
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+
+        this.wrapped = wrapped;
+        this.immediateVisitors = immediateVisitors.toArray(new SmartOutputHandler.Visitor[0]);
+        for (SmartOutputHandler.Visitor visitor: this.immediateVisitors) {
+            if (visitor == null) throw new NullPointerException("visitor");
+        }
+        this.queue = new String[capacity];
+        this.degradeThreshold = Math.max(1, capacity / 2);
+        this.recoverThreshold = capacity / 8;
+        this.mainLock = new ReentrantLock();
+        this.notFull = mainLock.newCondition();
+        this.drained = mainLock.newCondition();
+        this.head = 0;
+        this.size = 0;
+        this.processing = false;
+        this.flushRequested = false;
+        this.degraded = false;
+        this.drainTask = OUTPUT_PROCESSOR.create(new Runnable() {
+            @Override
+            public void run() {
+                drainQueue();
+            }
+        });
+    }
+
+    @Override
+    public void writeLine(String line) throws IOException {
+        if (line == null) throw new NullPointerException("line");
+
+        for (SmartOutputHandler.Visitor visitor: immediateVisitors) {
+            try {
+                visitor.visitLine(line);
+            } catch (Throwable ex) {
+                LOGGER.log(Level.SEVERE, "Unexpected failure while checking a line of the output.", ex);
+            }
+        }
+
+        boolean startDrain;
+
+        mainLock.lock();
+        try {
+            while (size == queue.length) {
+                try {
+                    notFull.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the output to be processed.");
+                }
+            }
+
+            queue[(head + size) % queue.length] = line;
+            size++;
+
+            startDrain = !processing;
+            processing = true;
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (startDrain) {
+            drainTask.schedule(0);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        boolean flushNow;
+
+        mainLock.lock();
+        try {
+            flushNow = !processing;
+            if (!flushNow) {
+                flushRequested = true;
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (flushNow) {
+            wrapped.flush();
+        }
+    }
+
+    /**
+     * Waits until every line written to this handler has been forwarded to
+     * the wrapped handler and flushes the wrapped handler. This method must
+     * be called before closing the output window's writer.
+     */
+    @Override
+    public void close() throws IOException {
+        mainLock.lock();
+        try {
+            while (processing) {
+                try {
+                    drained.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the output to be processed.");
+                }
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        wrapped.close();
+    }
+
+    private void drainQueue() {
+        String[] batch = new String[Math.min(MAX_BATCH_SIZE, queue.length)];
+
+        while (true) {
+            int batchSize;
+            boolean plain;
+            boolean flushOutput;
+
+            mainLock.lock();
+            try {
+                if (size == 0) {
+                    flushOutput = flushRequested;
+                    flushRequested = false;
+                    if (!flushOutput) {
+                        processing = false;
+                        drained.signalAll();
+                        return;
+                    }
+                    batchSize = 0;
+                    plain = degraded;
+                }
+                else {
+                    if (degraded) {
+                        degraded = size > recoverThreshold;
+                    }
+                    else {
+                        degraded = size > degradeThreshold;
+                    }
+                    plain = degraded;
+
+                    batchSize = Math.min(size, batch.length);
+                    for (int i = 0; i < batchSize; i++) {
+                        batch[i] = queue[head];
+                        queue[head] = null;
+                        head = (head + 1) % queue.length;
+                    }
+                    size -= batchSize;
+                    notFull.signalAll();
+                    flushOutput = false;
+                }
+            } finally {
+                mainLock.unlock();
+            }
+
+            for (int i = 0; i < batchSize; i++) {
+                try {
+                    if (plain) {
+                        wrapped.writePlainLine(batch[i]);
+                    }
+                    else {
+                        wrapped.writeLine(batch[i]);
+                    }
+                } catch (Throwable ex) {
+                    LOGGER.log(Level.WARNING, "Failure while processing a line of the output.", ex);
+                }
+                batch[i] = null;
+            }
+
+            if (flushOutput) {
+                try {
+                    wrapped.flush();
+                } catch (Throwable ex) {
+                    LOGGER.log(Level.WARNING, "Failure while flushing the output.", ex);
+                }
+            }
+        }
+    }
+}
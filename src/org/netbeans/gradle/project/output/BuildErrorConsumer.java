@@ -3,7 +3,7 @@ package org.netbeans.gradle.project.output;
 import java.io.IOException;
 import org.openide.windows.OutputWriter;
 
-public final class BuildErrorConsumer implements SmartOutputHandler.Consumer {
+public final class BuildErrorConsumer implements SmartOutputHandler.Filter {
     private static final String EXCEPTION_CAPTION = "* Exception is:";
 
     private volatile boolean consume;
@@ -12,6 +12,11 @@ public final class BuildErrorConsumer implements SmartOutputHandler.Consumer {
         this.consume = false;
     }
 
+    @Override
+    public int getRequiredLineFeatures() {
+        return 0;
+    }
+
     @Override
     public boolean tryConsumeLine(String line, OutputWriter output) throws IOException {
         if (consume) {
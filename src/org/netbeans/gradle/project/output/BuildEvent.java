@@ -0,0 +1,134 @@
+package org.netbeans.gradle.project.output;
+
+/**
+ * Defines something which happened during a build, recognized from the
+ * output or the progress events of the build. Instances of this class are
+ * created by {@link BuildEventStream} and are immutable.
+ */
+public final class BuildEvent {
+    public enum Kind {
+        /**
+         * The task {@link #getTaskPath()} has been started.
+         */
+        TASK_STARTED,
+        /**
+         * The task {@link #getTaskPath()} has completed in
+         * {@link #getDurationNanos()} nanoseconds. The outcome of the task
+         * (e.g.: "UP-TO-DATE") is {@link #getOutcome()}, which is
+         * {@code null} if the task was actually executed.
+         */
+        TASK_FINISHED,
+        /**
+         * The outcome {@link #getOutcome()} of the task {@link #getTaskPath()}
+         * was printed after the task had been assumed to be completed. The
+         * {@link #TASK_FINISHED} event of the task has already been
+         * published without an outcome.
+         */
+        TASK_OUTCOME,
+        /**
+         * Gradle has reported a new progress: {@link #getMessage()}.
+         */
+        PROGRESS,
+        /**
+         * The build has completed. The build has failed if
+         * {@link #getOutcome()} is not {@code null}.
+         */
+        BUILD_FINISHED
+    }
+
+    private final Kind kind;
+    private final long time;
+    private final String taskPath;
+    private final String outcome;
+    private final long durationNanos;
+    private final String message;
+
+    private BuildEvent(
+            Kind kind,
+            long time,
+            String taskPath,
+            String outcome,
+            long durationNanos,
+            String message) {
+        if (kind == null) throw new NullPointerException("kind");
+
+        this.kind = kind;
+        this.time = time;
+        this.taskPath = taskPath;
+        this.outcome = outcome;
+        this.durationNanos = durationNanos;
+        this.message = message;
+    }
+
+    public static BuildEvent taskStarted(long time, String taskPath) {
+        if (taskPath == null) throw new NullPointerException("taskPath");
+        return new BuildEvent(Kind.TASK_STARTED, time, taskPath, null, 0, null);
+    }
+
+    public static BuildEvent taskFinished(long time, String taskPath, String outcome, long durationNanos) {
+        if (taskPath == null) throw new NullPointerException("taskPath");
+        return new BuildEvent(Kind.TASK_FINISHED, time, taskPath, outcome, durationNanos, null);
+    }
+
+    public static BuildEvent taskOutcome(long time, String taskPath, String outcome) {
+        if (taskPath == null) throw new NullPointerException("taskPath");
+        if (outcome == null) throw new NullPointerException("outcome");
+        return new BuildEvent(Kind.TASK_OUTCOME, time, taskPath, outcome, 0, null);
+    }
+
+    public static BuildEvent progress(long time, String description) {
+        if (description == null) throw new NullPointerException("description");
+        return new BuildEvent(Kind.PROGRESS, time, null, null, 0, description);
+    }
+
+    public static BuildEvent buildFinished(long time, String failure, long durationNanos) {
+        return new BuildEvent(Kind.BUILD_FINISHED, time, null, failure, durationNanos, null);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the value of {@code System.nanoTime()} when this event was
+     * recognized.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public String getTaskPath() {
+        return taskPath;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(128);
+        result.append(kind);
+        if (taskPath != null) {
+            result.append(' ');
+            result.append(taskPath);
+        }
+        if (outcome != null) {
+            result.append(' ');
+            result.append(outcome);
+        }
+        if (message != null) {
+            result.append(' ');
+            result.append(message);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,11 @@
+package org.netbeans.gradle.project.output;
+
+public interface BuildEventListener {
+    /**
+     * Called when a new event has been recognized. This method might be
+     * called concurrently from different threads (the standard output, the
+     * standard error and the progress events are processed separately), so
+     * implementations must be thread-safe and should return quickly.
+     */
+    public void onBuildEvent(BuildEvent event);
+}
@@ -0,0 +1,297 @@
+package org.netbeans.gradle.project.output;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recognizes the {@link BuildEvent events} of a single build and publishes
+ * them to the registered {@link BuildEventListener listeners}. This way the
+ * output and the progress events of the build are parsed only once,
+ * regardless how many features are interested in them.
+ * <P>
+ * The lines of the output are passed to this object by adding it as an
+ * immediate {@link SmartOutputHandler.Visitor visitor} to the
+ * {@link AsyncOutputHandler output handlers} of the build, the progress
+ * events are passed through {@link #progress(String)}. The lines must be
+ * passed when they are written and not when they are processed, otherwise
+ * the time of the events would be wrong.
+ * <P>
+ * Gradle does not report when a task completes, so the end of a task is
+ * assumed when the next task is started, when the status of the task is
+ * printed (e.g.: ":compileJava UP-TO-DATE") or when the build completes.
+ * If the status is printed after the next task was reported to be started,
+ * a {@link BuildEvent.Kind#TASK_OUTCOME} event is published for the already
+ * completed task.
+ */
+public final class BuildEventStream implements SmartOutputHandler.Visitor {
+    private static final Logger LOGGER = Logger.getLogger(BuildEventStream.class.getName());
+
+    private static final String TASK_PATH_REGEX = ":[^\\s:]+(?::[^\\s:]+)*";
+
+    private static final Pattern TASK_LINE
+            = Pattern.compile("(" + TASK_PATH_REGEX + ")(?:\\s+([A-Z][A-Z\\-]*))?");
+    private static final Pattern TASK_PROGRESS
+            = Pattern.compile("(?:Execute\\s+)?(" + TASK_PATH_REGEX + ")");
+
+    private final long startTime;
+
+    private final Lock listenersLock;
+    private final List<BuildEventListener> listeners;
+
+    // Only one thread may publish events at a time, see dispatchEvents.
+    private final ReentrantLock dispatchLock;
+
+    private final ReentrantLock mainLock;
+    // The events recognized but not yet published, in the order they were
+    // recognized.
+    private final Queue<BuildEvent> pendingEvents;
+    // Maps the path of the completed tasks to their outcome (may be null).
+    private final Map<String, String> finishedTasks;
+    private String runningTask;
+    private long runningTaskStart;
+    private long lastTaskBoundary;
+    private boolean finished;
+
+    public BuildEventStream() {
+        this.startTime = System.nanoTime();
+        this.listenersLock = new ReentrantLock();
+        this.listeners = new LinkedList<BuildEventListener>();
+        this.dispatchLock = new ReentrantLock();
+        this.mainLock = new ReentrantLock();
+        this.pendingEvents = new LinkedList<BuildEvent>();
+        this.finishedTasks = new HashMap<String, String>();
+        this.runningTask = null;
+        this.runningTaskStart = startTime;
+        this.lastTaskBoundary = startTime;
+        this.finished = false;
+    }
+
+    /**
+     * Returns the value of {@code System.nanoTime()} when this stream was
+     * created, which is considered to be the start of the build.
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void addListener(BuildEventListener listener) {
+        if (listener == null) throw new NullPointerException("listener");
+
+        listenersLock.lock();
+        try {
+            listeners.add(listener);
+        } finally {
+            listenersLock.unlock();
+        }
+    }
+
+    public void removeListener(BuildEventListener listener) {
+        if (listener == null) throw new NullPointerException("listener");
+
+        listenersLock.lock();
+        try {
+            listeners.remove(listener);
+        } finally {
+            listenersLock.unlock();
+        }
+    }
+
+    private void enqueueEvent(BuildEvent event) {
+        assert mainLock.isHeldByCurrentThread();
+        pendingEvents.add(event);
+    }
+
+    private BuildEvent pollEvent() {
+        mainLock.lock();
+        try {
+            return pendingEvents.poll();
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Publishes the queued events in the order they were queued. Events are
+     * queued by multiple threads (the progress events and the lines of the
+     * standard output and error are reported on different threads), so the
+     * events are delivered by one thread at a time. Otherwise an event could
+     * overtake an event it depends on (e.g.: the {@code TASK_OUTCOME} event
+     * of a task could be delivered before its {@code TASK_FINISHED} event).
+     */
+    private void dispatchEvents() {
+        dispatchLock.lock();
+        try {
+            BuildEvent event = pollEvent();
+            while (event != null) {
+                fireEvent(event);
+                event = pollEvent();
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    private void fireEvent(BuildEvent event) {
+        BuildEventListener[] currentListeners;
+        listenersLock.lock();
+        try {
+            currentListeners = listeners.toArray(new BuildEventListener[listeners.size()]);
+        } finally {
+            listenersLock.unlock();
+        }
+
+        for (BuildEventListener listener: currentListeners) {
+            // The events are fired from the threads processing the
+            // output, so an exception must not stop processing it.
+            try {
+                listener.onBuildEvent(event);
+            } catch (Throwable ex) {
+                LOGGER.log(Level.SEVERE, "Listener has thrown an unexpected exception", ex);
+            }
+        }
+    }
+
+    private void finishRunningTask(long now, String outcome) {
+        assert mainLock.isHeldByCurrentThread();
+
+        if (runningTask != null) {
+            enqueueEvent(BuildEvent.taskFinished(now, runningTask, outcome, now - runningTaskStart));
+            finishedTasks.put(runningTask, outcome);
+            runningTask = null;
+            lastTaskBoundary = now;
+        }
+    }
+
+    private void taskSeen(long now, boolean exactStart, String taskPath, String outcome) {
+        assert mainLock.isHeldByCurrentThread();
+
+        if (finished) {
+            return;
+        }
+
+        if (finishedTasks.containsKey(taskPath)) {
+            if (outcome != null && finishedTasks.get(taskPath) == null) {
+                finishedTasks.put(taskPath, outcome);
+                enqueueEvent(BuildEvent.taskOutcome(now, taskPath, outcome));
+            }
+            return;
+        }
+
+        if (!taskPath.equals(runningTask)) {
+            finishRunningTask(now, null);
+
+            // The line of the task is not necessarily printed when the task
+            // starts, so assume that it started when the previous one
+            // completed. This cannot be done for the first task because
+            // the build scripts are evaluated before it.
+            long taskStart = exactStart || finishedTasks.isEmpty() ? now : lastTaskBoundary;
+
+            runningTask = taskPath;
+            runningTaskStart = taskStart;
+            enqueueEvent(BuildEvent.taskStarted(taskStart, taskPath));
+        }
+
+        if (outcome != null) {
+            finishRunningTask(now, outcome);
+        }
+    }
+
+    /**
+     * Notifies this stream that Gradle has reported a progress.
+     */
+    public void progress(String description) {
+        if (description == null) throw new NullPointerException("description");
+
+        Matcher taskMatcher = TASK_PROGRESS.matcher(description.trim());
+
+        mainLock.lock();
+        try {
+            // The time is read while holding the lock, so that the times of
+            // the events are in the same order as the events.
+            long now = System.nanoTime();
+            if (taskMatcher.matches()) {
+                taskSeen(now, true, taskMatcher.group(1), null);
+            }
+            enqueueEvent(BuildEvent.progress(now, description));
+        } finally {
+            mainLock.unlock();
+        }
+
+        dispatchEvents();
+    }
+
+    @Override
+    public void visitLine(String line) {
+        String trimmedLine = line.trim();
+        if (trimmedLine.isEmpty()) {
+            return;
+        }
+
+        // This method is called on the thread writing the output, so only
+        // the task boundaries are recognized and the first character is
+        // checked before the regular expression because most lines are not
+        // interesting. Errors are recognized by the consumers of the output
+        // on the background thread processing it.
+        char firstChar = trimmedLine.charAt(0);
+        if (firstChar == ':') {
+            Matcher matcher = TASK_LINE.matcher(trimmedLine);
+            if (!matcher.matches()) {
+                return;
+            }
+
+            mainLock.lock();
+            try {
+                taskSeen(System.nanoTime(), false, matcher.group(1), matcher.group(2));
+            } finally {
+                mainLock.unlock();
+            }
+        }
+        else if (trimmedLine.startsWith("BUILD SUCCESSFUL") || trimmedLine.startsWith("BUILD FAILED")) {
+            mainLock.lock();
+            try {
+                finishRunningTask(System.nanoTime(), null);
+            } finally {
+                mainLock.unlock();
+            }
+        }
+        else {
+            return;
+        }
+
+        dispatchEvents();
+    }
+
+    /**
+     * Notifies this stream that the build has completed. Every subsequent
+     * event of the build is ignored.
+     *
+     * @param failure the description of the failure of the build or
+     *   {@code null} if the build was successful
+     */
+    public void finish(String failure) {
+        mainLock.lock();
+        try {
+            if (finished) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            finishRunningTask(now, null);
+            finished = true;
+            enqueueEvent(BuildEvent.buildFinished(now, failure, now - startTime));
+        } finally {
+            mainLock.unlock();
+        }
+
+        dispatchEvents();
+    }
+}
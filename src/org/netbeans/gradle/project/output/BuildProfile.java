@@ -0,0 +1,212 @@
+package org.netbeans.gradle.project.output;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contains the time spent in the phases and the tasks of a completed build.
+ * Instances of this class are created by {@link BuildProfiler} and are
+ * immutable.
+ */
+public final class BuildProfile {
+    public static final String OUTCOME_UP_TO_DATE = "UP-TO-DATE";
+
+    private final String command;
+    private final long configurationNanos;
+    private final long executionNanos;
+    private final String failure;
+    private final List<TaskTiming> tasks;
+
+    public BuildProfile(
+            String command,
+            long configurationNanos,
+            long executionNanos,
+            String failure,
+            List<TaskTiming> tasks) {
+        if (command == null) throw new NullPointerException("command");
+        if (tasks == null) throw new NullPointerException("tasks");
+
+        this.command = command;
+        this.configurationNanos = configurationNanos;
+        this.executionNanos = executionNanos;
+        this.failure = failure;
+        this.tasks = Collections.unmodifiableList(new ArrayList<TaskTiming>(tasks));
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    /**
+     * Returns the time elapsed from the start of the build until the first
+     * task was started. This includes starting the daemon and evaluating the
+     * build scripts.
+     */
+    public long getConfigurationNanos() {
+        return configurationNanos;
+    }
+
+    public long getExecutionNanos() {
+        return executionNanos;
+    }
+
+    public long getTotalNanos() {
+        return configurationNanos + executionNanos;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    /**
+     * Returns the tasks of the build in the order they were executed.
+     */
+    public List<TaskTiming> getTasks() {
+        return tasks;
+    }
+
+    public List<TaskTiming> getSlowestTasks(int maxCount) {
+        List<TaskTiming> result = new ArrayList<TaskTiming>(tasks);
+        Collections.sort(result, new Comparator<TaskTiming>() {
+            @Override
+            public int compare(TaskTiming o1, TaskTiming o2) {
+                long duration1 = o1.getDurationNanos();
+                long duration2 = o2.getDurationNanos();
+                if (duration1 == duration2) {
+                    return 0;
+                }
+                return duration1 > duration2 ? -1 : 1;
+            }
+        });
+
+        return result.size() > maxCount
+                ? new ArrayList<TaskTiming>(result.subList(0, maxCount))
+                : result;
+    }
+
+    public int getUpToDateCount() {
+        int result = 0;
+        for (TaskTiming task: tasks) {
+            if (OUTCOME_UP_TO_DATE.equals(task.getOutcome())) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    public double getUpToDateRatio() {
+        return tasks.isEmpty() ? 0.0 : (double)getUpToDateCount() / (double)tasks.size();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static void appendJsonString(String str, StringBuilder result) {
+        if (str == null) {
+            result.append("null");
+            return;
+        }
+
+        result.append('"');
+        int length = str.length();
+        for (int i = 0; i < length; i++) {
+            char ch = str.charAt(i);
+            switch (ch) {
+                case '"':
+                    result.append("\\\"");
+                    break;
+                case '\\':
+                    result.append("\\\\");
+                    break;
+                case '\n':
+                    result.append("\\n");
+                    break;
+                case '\r':
+                    result.append("\\r");
+                    break;
+                case '\t':
+                    result.append("\\t");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        result.append(String.format(Locale.US, "\\u%04x", (int)ch));
+                    }
+                    else {
+                        result.append(ch);
+                    }
+                    break;
+            }
+        }
+        result.append('"');
+    }
+
+    /**
+     * Returns this profile as a JSON document. The durations are in
+     * milliseconds.
+     */
+    public String toJson() {
+        StringBuilder result = new StringBuilder(256 + 96 * tasks.size());
+        result.append("{\n");
+        result.append("  \"command\": ");
+        appendJsonString(command, result);
+        result.append(",\n  \"failure\": ");
+        appendJsonString(failure, result);
+        result.append(",\n  \"configurationMillis\": ").append(toMillis(configurationNanos));
+        result.append(",\n  \"executionMillis\": ").append(toMillis(executionNanos));
+        result.append(",\n  \"totalMillis\": ").append(toMillis(getTotalNanos()));
+        result.append(",\n  \"upToDateRatio\": ").append(String.format(Locale.US, "%.4f", getUpToDateRatio()));
+        result.append(",\n  \"tasks\": [");
+
+        boolean first = true;
+        for (TaskTiming task: tasks) {
+            result.append(first ? "\n" : ",\n");
+            first = false;
+
+            result.append("    {\"path\": ");
+            appendJsonString(task.getPath(), result);
+            result.append(", \"outcome\": ");
+            appendJsonString(task.getOutcome(), result);
+            result.append(", \"durationMillis\": ").append(toMillis(task.getDurationNanos()));
+            result.append('}');
+        }
+
+        result.append(first ? "]\n" : "\n  ]\n");
+        result.append("}\n");
+        return result.toString();
+    }
+
+    public static final class TaskTiming {
+        private final String path;
+        private final String outcome;
+        private final long durationNanos;
+
+        public TaskTiming(String path, String outcome, long durationNanos) {
+            if (path == null) throw new NullPointerException("path");
+
+            this.path = path;
+            this.outcome = outcome;
+            this.durationNanos = durationNanos;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Returns the status printed by Gradle for the task (e.g.:
+         * "UP-TO-DATE") or {@code null} if the task was actually executed.
+         */
+        public String getOutcome() {
+            return outcome;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+    }
+}
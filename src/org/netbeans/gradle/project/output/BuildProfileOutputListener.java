@@ -0,0 +1,135 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.netbeans.gradle.project.NbStrings;
+import org.openide.awt.StatusDisplayer;
+import org.openide.filesystems.FileChooserBuilder;
+import org.openide.util.RequestProcessor;
+import org.openide.windows.IOProvider;
+import org.openide.windows.InputOutput;
+import org.openide.windows.OutputEvent;
+import org.openide.windows.OutputListener;
+import org.openide.windows.OutputWriter;
+
+/**
+ * Prints the details of a {@link BuildProfile} to a separate tab of the
+ * output window when the summary line of the profile is clicked. The details
+ * contain a link to export the profile as JSON.
+ */
+public final class BuildProfileOutputListener implements OutputListener {
+    private static final Logger LOGGER = Logger.getLogger(BuildProfileOutputListener.class.getName());
+
+    private static final RequestProcessor PROFILE_PROCESSOR
+            = new RequestProcessor("Gradle-Build-Profile", 1, true);
+
+    private static final int MAX_TASKS_TO_SHOW = 20;
+
+    private final BuildProfile profile;
+    private final String caption;
+
+    public BuildProfileOutputListener(BuildProfile profile, String caption) {
+        if (profile == null) throw new NullPointerException("profile");
+        if (caption == null) throw new NullPointerException("caption");
+
+        this.profile = profile;
+        this.caption = caption;
+    }
+
+    private static double toSeconds(long nanos) {
+        return (double)nanos / (double)TimeUnit.SECONDS.toNanos(1);
+    }
+
+    public static String getSummary(BuildProfile profile) {
+        return NbStrings.getBuildProfileSummary(
+                toSeconds(profile.getConfigurationNanos()),
+                toSeconds(profile.getExecutionNanos()),
+                profile.getUpToDateCount(),
+                profile.getTasks().size());
+    }
+
+    @Override
+    public void outputLineSelected(OutputEvent ev) {
+    }
+
+    @Override
+    public void outputLineAction(OutputEvent ev) {
+        InputOutput io = IOProvider.getDefault().getIO(NbStrings.getBuildProfileTabCaption(caption), false);
+        io.select();
+
+        OutputWriter output = io.getOut();
+        try {
+            output.println(profile.getCommand());
+            output.println(getSummary(profile));
+            output.println(NbStrings.getBuildProfileSlowestTasks());
+            for (BuildProfile.TaskTiming task: profile.getSlowestTasks(MAX_TASKS_TO_SHOW)) {
+                String outcome = task.getOutcome();
+                output.println(NbStrings.getBuildProfileTask(
+                        toSeconds(task.getDurationNanos()),
+                        task.getPath(),
+                        outcome != null ? outcome : ""));
+            }
+            output.println(NbStrings.getBuildProfileExport(), new ExportListener());
+            output.println();
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Error while printing line.", ex);
+        } finally {
+            output.close();
+        }
+    }
+
+    @Override
+    public void outputLineCleared(OutputEvent ev) {
+    }
+
+    private void exportProfile(File file) {
+        try {
+            OutputStream fileOutput = new FileOutputStream(file);
+            try {
+                Writer writer = new OutputStreamWriter(fileOutput, "UTF-8");
+                writer.write(profile.toJson());
+                writer.flush();
+            } finally {
+                fileOutput.close();
+            }
+
+            StatusDisplayer.getDefault().setStatusText(NbStrings.getBuildProfileExported(file.getPath()));
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to export the profile of the build to " + file, ex);
+            StatusDisplayer.getDefault().setStatusText(NbStrings.getBuildProfileExportFailed(file.getPath()));
+        }
+    }
+
+    private class ExportListener implements OutputListener {
+        @Override
+        public void outputLineSelected(OutputEvent ev) {
+        }
+
+        @Override
+        public void outputLineAction(OutputEvent ev) {
+            FileChooserBuilder dlgChooser = new FileChooserBuilder(BuildProfileOutputListener.class);
+            final File file = dlgChooser.showSaveDialog();
+            if (file == null) {
+                return;
+            }
+
+            PROFILE_PROCESSOR.execute(new Runnable() {
+                @Override
+                public void run() {
+                    exportProfile(file);
+                }
+            });
+        }
+
+        @Override
+        public void outputLineCleared(OutputEvent ev) {
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.netbeans.gradle.project.output;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects the timing of the tasks of a build from the events of a
+ * {@link BuildEventStream}.
+ */
+public final class BuildProfiler implements BuildEventListener {
+    private final String command;
+    private final long buildStartTime;
+
+    private final ReentrantLock mainLock;
+    private final List<BuildProfile.TaskTiming> tasks;
+    private boolean taskStarted;
+    private long firstTaskStartTime;
+    private BuildProfile profile;
+
+    public BuildProfiler(String command, long buildStartTime) {
+        if (command == null) throw new NullPointerException("command");
+
+        this.command = command;
+        this.buildStartTime = buildStartTime;
+        this.mainLock = new ReentrantLock();
+        this.tasks = new LinkedList<BuildProfile.TaskTiming>();
+        this.taskStarted = false;
+        this.firstTaskStartTime = 0;
+        this.profile = null;
+    }
+
+    @Override
+    public void onBuildEvent(BuildEvent event) {
+        switch (event.getKind()) {
+            case TASK_STARTED:
+                mainLock.lock();
+                try {
+                    if (!taskStarted) {
+                        taskStarted = true;
+                        firstTaskStartTime = event.getTime();
+                    }
+                } finally {
+                    mainLock.unlock();
+                }
+                break;
+            case TASK_FINISHED:
+                BuildProfile.TaskTiming timing = new BuildProfile.TaskTiming(
+                        event.getTaskPath(), event.getOutcome(), event.getDurationNanos());
+                mainLock.lock();
+                try {
+                    tasks.add(timing);
+                } finally {
+                    mainLock.unlock();
+                }
+                break;
+            case TASK_OUTCOME:
+                mainLock.lock();
+                try {
+                    setOutcome(event.getTaskPath(), event.getOutcome());
+                } finally {
+                    mainLock.unlock();
+                }
+                break;
+            case BUILD_FINISHED:
+                mainLock.lock();
+                try {
+                    long endTime = event.getTime();
+                    long executionStart = taskStarted ? firstTaskStartTime : endTime;
+                    profile = new BuildProfile(
+                            command,
+                            executionStart - buildStartTime,
+                            endTime - executionStart,
+                            event.getOutcome(),
+                            tasks);
+                } finally {
+                    mainLock.unlock();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void setOutcome(String taskPath, String outcome) {
+        assert mainLock.isHeldByCurrentThread();
+
+        ListIterator<BuildProfile.TaskTiming> itr = tasks.listIterator(tasks.size());
+        while (itr.hasPrevious()) {
+            BuildProfile.TaskTiming timing = itr.previous();
+            if (timing.getPath().equals(taskPath)) {
+                itr.set(new BuildProfile.TaskTiming(taskPath, outcome, timing.getDurationNanos()));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the profile of the build or {@code null} if the build has not
+     * completed yet.
+     */
+    public BuildProfile getProfile() {
+        mainLock.lock();
+        try {
+            return profile;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+}
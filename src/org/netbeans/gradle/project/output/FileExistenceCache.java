@@ -0,0 +1,115 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.netbeans.gradle.project.metrics.GradleMetrics;
+import org.netbeans.gradle.project.metrics.MetricCounter;
+
+/**
+ * Remembers for a short time if a file referenced in the output of a build
+ * exists. The hyperlinks of the output are resolved when the user selects or
+ * clicks them, and moving along the lines of the output (e.g.: the compile
+ * errors of the same source file) resolves the same file repeatedly, so
+ * caching avoids checking the file system again each time. This matters on
+ * network drives, where checking for the existence of a file is expensive.
+ * <P>
+ * The number of cached paths is bounded, the least recently used paths are
+ * removed first. The hits and misses of every instance are counted in the
+ * {@link GradleMetrics metrics registry}.
+ */
+public final class FileExistenceCache {
+    private static final int DEFAULT_MAX_SIZE = 1024;
+    private static final long DEFAULT_TIME_TO_LIVE_MS = 10 * 1000;
+
+    private static final MetricCounter CACHE_HITS = GradleMetrics.getCounter("cache.output-file-existence.hits");
+    private static final MetricCounter CACHE_MISSES = GradleMetrics.getCounter("cache.output-file-existence.misses");
+
+    private final ReentrantLock cacheLock;
+    private final Map<File, CachedExistence> cache;
+    private final int maxSize;
+    private final long timeToLiveNanos;
+
+    public FileExistenceCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public FileExistenceCache(int maxSize, long timeToLive, TimeUnit unit) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Illegal max. size value: " + maxSize);
+        }
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("Illegal time to live value: " + timeToLive);
+        }
+        if (unit == null) throw new NullPointerException("unit");
+
+        this.cacheLock = new ReentrantLock();
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+
+        float loadFactor = 0.75f;
+        int capacity = (int)Math.floor((float)(maxSize + 1) / loadFactor);
+        this.cache = new LinkedHashMap<File, CachedExistence>(capacity, loadFactor, true);
+    }
+
+    private void cleanupCache() {
+        assert cacheLock.isHeldByCurrentThread();
+
+        while (cache.size() > maxSize) {
+            Iterator<?> itr = cache.entrySet().iterator();
+            itr.next();
+            itr.remove();
+        }
+    }
+
+    public boolean isFile(File file) {
+        if (file == null) throw new NullPointerException("file");
+
+        long now = System.nanoTime();
+
+        cacheLock.lock();
+        try {
+            CachedExistence cached = cache.get(file);
+            if (cached != null && now - cached.getCheckTime() < timeToLiveNanos) {
+                CACHE_HITS.increment();
+                return cached.isFile();
+            }
+        } finally {
+            cacheLock.unlock();
+        }
+
+        CACHE_MISSES.increment();
+        // Do not hold the lock while accessing the file system.
+        boolean result = file.isFile();
+
+        cacheLock.lock();
+        try {
+            cache.put(file, new CachedExistence(result, now));
+            cleanupCache();
+        } finally {
+            cacheLock.unlock();
+        }
+        return result;
+    }
+
+    private static final class CachedExistence {
+        private final boolean file;
+        private final long checkTime;
+
+        public CachedExistence(boolean file, long checkTime) {
+            this.file = file;
+            this.checkTime = checkTime;
+        }
+
+        public boolean isFile() {
+            return file;
+        }
+
+        public long getCheckTime() {
+            return checkTime;
+        }
+    }
+}
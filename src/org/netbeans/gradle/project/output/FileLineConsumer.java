@@ -10,7 +10,14 @@ import org.openide.windows.OutputWriter;
 public final class FileLineConsumer implements SmartOutputHandler.Consumer {
     private static final Logger LOGGER = Logger.getLogger(FileLineConsumer.class.getName());
 
-    private static boolean printLink(String line, File file, String otherInfo, OutputWriter output) {
+    private final FileExistenceCache fileCache;
+
+    public FileLineConsumer(FileExistenceCache fileCache) {
+        if (fileCache == null) throw new NullPointerException("fileCache");
+        this.fileCache = fileCache;
+    }
+
+    private static int parseLineNumber(String otherInfo) {
         int lineIndexSep = otherInfo.indexOf(':');
         int lineNumber = -1;
         if (lineIndexSep > 0) {
@@ -19,12 +26,29 @@ public final class FileLineConsumer implements SmartOutputHandler.Consumer {
             } catch (NumberFormatException ex) {
             }
         }
+        return lineNumber;
+    }
 
-        OutputListener listener = OpenEditorOutputListener.tryCreateListener(file, lineNumber);
-        if (listener == null) {
-            LOGGER.log(Level.WARNING, "File displayed in the output disapeared: {0}", file);
-            return false;
-        }
+    private boolean printLink(String line, final File file, String otherInfo, OutputWriter output) {
+        final int lineNumber = parseLineNumber(otherInfo);
+
+        // Checking if the file exists is deferred until the user clicks on
+        // the line, so that the output is not slowed down by file system
+        // accesses.
+        OutputListener listener = new LazyOutputListener(file.getPath(), new LazyOutputListener.ListenerFactory() {
+            @Override
+            public OutputListener tryCreateListener() {
+                if (!fileCache.isFile(file)) {
+                    return null;
+                }
+
+                OutputListener result = OpenEditorOutputListener.tryCreateListener(file, lineNumber);
+                if (result == null) {
+                    LOGGER.log(Level.WARNING, "File displayed in the output disapeared: {0}", file);
+                }
+                return result;
+            }
+        });
 
         try {
             output.println(line, listener, false);
@@ -35,14 +59,21 @@ public final class FileLineConsumer implements SmartOutputHandler.Consumer {
         return true;
     }
 
-    private static boolean tryPrintLink(String line, int sepIndex, OutputWriter output) {
+    private boolean tryPrintLink(String line, int sepIndex, OutputWriter output) {
+        // Only absolute paths are considered because relative paths would be
+        // resolved against the working directory of the IDE.
         File file = new File(line.substring(0, sepIndex).trim());
-        if (file.isFile()) {
+        if (file.isAbsolute()) {
             return printLink(line, file, line.substring(sepIndex + 1, line.length()), output);
         }
         return false;
     }
 
+    @Override
+    public int getRequiredLineFeatures() {
+        return OutputLineClassifier.PATH | OutputLineClassifier.COLON;
+    }
+
     @Override
     public boolean tryConsumeLine(String line, OutputWriter output) throws IOException {
         int sepIndex = line.indexOf(':');
@@ -60,6 +91,6 @@ public final class FileLineConsumer implements SmartOutputHandler.Consumer {
 
             return tryPrintLink(line, sepIndex, output);
         }
-        return false;
+        return true;
     }
 }
@@ -1,17 +1,25 @@
 package org.netbeans.gradle.project.output;
 
 import java.io.Closeable;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.openide.windows.IOProvider;
 import org.openide.windows.InputOutput;
 
 public final class InputOutputManager {
+    private static final Logger LOGGER = Logger.getLogger(InputOutputManager.class.getName());
+
     private static final Lock MAIN_LOCK = new ReentrantLock();
     private static final Map<String, Integer> USE_COUNTS = new HashMap<String, Integer>();
+    private static final Map<InputOutput, OutputSpillFile> SPILL_FILES
+            = new WeakHashMap<InputOutput, OutputSpillFile>();
 
     public static IORef getInputOutput(String name, boolean mayReuse, boolean mayClean) {
         String caption;
@@ -40,7 +48,11 @@ public final class InputOutputManager {
         }
 
         try {
-            return new IORef(name, IOProvider.getDefault().getIO(caption, createNew));
+            InputOutput io = IOProvider.getDefault().getIO(caption, createNew);
+            // The tab is reused by a new build, so the complete output of
+            // the previous build is no longer needed.
+            setSpillFile(io, null);
+            return new IORef(name, io);
         } catch (Throwable ex) {
             decUseCount(caption);
             if (ex instanceof RuntimeException) {
@@ -70,6 +82,27 @@ public final class InputOutputManager {
         }
     }
 
+    private static void setSpillFile(InputOutput io, OutputSpillFile spillFile) {
+        OutputSpillFile prevSpillFile;
+
+        MAIN_LOCK.lock();
+        try {
+            prevSpillFile = spillFile != null
+                    ? SPILL_FILES.put(io, spillFile)
+                    : SPILL_FILES.remove(io);
+        } finally {
+            MAIN_LOCK.unlock();
+        }
+
+        if (prevSpillFile != null && prevSpillFile != spillFile) {
+            try {
+                prevSpillFile.delete();
+            } catch (IOException ex) {
+                LOGGER.log(Level.INFO, "Failed to delete the output file: " + prevSpillFile.getFile(), ex);
+            }
+        }
+    }
+
     public static class IORef implements Closeable {
         private final String name;
         private final InputOutput io;
@@ -88,6 +121,16 @@ public final class InputOutputManager {
             return io;
         }
 
+        /**
+         * Keeps the given file storing the complete output until the tab of
+         * this reference is reused by another build. The file is deleted
+         * then, or when the tab is closed.
+         */
+        public void setSpillFile(OutputSpillFile spillFile) {
+            if (spillFile == null) throw new NullPointerException("spillFile");
+            InputOutputManager.setSpillFile(io, spillFile);
+        }
+
         @Override
         public void close() {
             if (closed.compareAndSet(false, true)) {
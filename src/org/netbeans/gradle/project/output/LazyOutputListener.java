@@ -0,0 +1,113 @@
+package org.netbeans.gradle.project.output;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.netbeans.gradle.project.NbStrings;
+import org.openide.awt.StatusDisplayer;
+import org.openide.util.RequestProcessor;
+import org.openide.windows.OutputEvent;
+import org.openide.windows.OutputListener;
+
+/**
+ * Defines an {@code OutputListener} which only looks up the target of the
+ * hyperlink when the user actually selects or clicks the line. This allows
+ * the output consumers to avoid accessing the file system and the class
+ * paths while the output is being printed.
+ * <P>
+ * The target is looked up at most once and never on the EDT.
+ */
+public final class LazyOutputListener implements OutputListener {
+    private static final Logger LOGGER = Logger.getLogger(LazyOutputListener.class.getName());
+
+    private static final RequestProcessor LINK_RESOLVER
+            = new RequestProcessor("Gradle-Output-Link-Resolver", 1, true);
+
+    public static interface ListenerFactory {
+        /**
+         * Returns the listener to handle the events of the line or
+         * {@code null} if the target of the hyperlink does not exist.
+         */
+        public OutputListener tryCreateListener();
+    }
+
+    private final String targetName;
+    private final ListenerFactory listenerFactory;
+
+    private final Lock resolveLock;
+    private volatile boolean resolved;
+    private volatile OutputListener resolvedListener;
+
+    public LazyOutputListener(String targetName, ListenerFactory listenerFactory) {
+        if (targetName == null) throw new NullPointerException("targetName");
+        if (listenerFactory == null) throw new NullPointerException("listenerFactory");
+
+        this.targetName = targetName;
+        this.listenerFactory = listenerFactory;
+        this.resolveLock = new ReentrantLock();
+        this.resolved = false;
+        this.resolvedListener = null;
+    }
+
+    private OutputListener resolve() {
+        if (resolved) {
+            return resolvedListener;
+        }
+
+        resolveLock.lock();
+        try {
+            if (!resolved) {
+                try {
+                    resolvedListener = listenerFactory.tryCreateListener();
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "Failed to find the target of a link in the output: " + targetName, ex);
+                }
+                resolved = true;
+            }
+        } finally {
+            resolveLock.unlock();
+        }
+        return resolvedListener;
+    }
+
+    @Override
+    public void outputLineSelected(OutputEvent ev) {
+        if (resolved) {
+            return;
+        }
+
+        // Start looking up the target, so that it is likely to be available
+        // by the time the user clicks on the line.
+        LINK_RESOLVER.execute(new Runnable() {
+            @Override
+            public void run() {
+                resolve();
+            }
+        });
+    }
+
+    @Override
+    public void outputLineAction(final OutputEvent ev) {
+        LINK_RESOLVER.execute(new Runnable() {
+            @Override
+            public void run() {
+                OutputListener listener = resolve();
+                if (listener != null) {
+                    listener.outputLineAction(ev);
+                }
+                else {
+                    StatusDisplayer.getDefault().setStatusText(NbStrings.getOutputLinkNotFound(targetName));
+                }
+            }
+        });
+    }
+
+    @Override
+    public void outputLineCleared(OutputEvent ev) {
+        OutputListener listener = resolved ? resolvedListener : null;
+        if (listener != null) {
+            listener.outputLineCleared(ev);
+        }
+    }
+}
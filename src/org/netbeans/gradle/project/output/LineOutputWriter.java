@@ -2,6 +2,8 @@ package org.netbeans.gradle.project.output;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -10,6 +12,7 @@ public final class LineOutputWriter extends Writer {
     public static interface Handler {
         public void writeLine(String line) throws IOException;
         public void flush() throws IOException;
+        public void close() throws IOException;
     }
 
     private final Handler handler;
@@ -39,40 +42,60 @@ public final class LineOutputWriter extends Writer {
             throw new IndexOutOfBoundsException();
         }
 
-        int currentOffset = off;
-        int currentLength = len;
-
-        while (currentLength > 0) {
-            String line = null;
-
-            mainLock.lock();
-            try {
-                while (currentLength > 0) {
-                    char currentChar = cbuf[currentOffset];
-                    char prevChar = lastChar;
-                    lastChar = currentChar;
-
-                    currentOffset++;
-                    currentLength--;
-
-                    if (prevChar == '\r' && currentChar == '\n') {
-                        continue;
-                    }
-
-                    if (currentChar == '\n' || currentChar == '\r') {
-                        line = lineBuffer.toString();
-                        lineBuffer.setLength(0);
-                        break;
-                    }
-                    else {
-                        lineBuffer.append(currentChar);
-                    }
+        List<String> lines = null;
+
+        mainLock.lock();
+        try {
+            int lineStart = off;
+            int index = off;
+
+            if (index < endOffset && lastChar == '\r' && cbuf[index] == '\n') {
+                // The "\r\n" line separator was split between two calls.
+                index++;
+                lineStart = index;
+            }
+
+            while (index < endOffset) {
+                char currentChar = cbuf[index];
+                if (currentChar != '\n' && currentChar != '\r') {
+                    index++;
+                    continue;
+                }
+
+                String line;
+                if (lineBuffer.length() == 0) {
+                    line = new String(cbuf, lineStart, index - lineStart);
+                }
+                else {
+                    lineBuffer.append(cbuf, lineStart, index - lineStart);
+                    line = lineBuffer.toString();
+                    lineBuffer.setLength(0);
+                }
+
+                if (lines == null) {
+                    lines = new ArrayList<String>();
+                }
+                lines.add(line);
+
+                index++;
+                if (currentChar == '\r' && index < endOffset && cbuf[index] == '\n') {
+                    index++;
                 }
-            } finally {
-                mainLock.unlock();
+                lineStart = index;
+            }
+
+            if (lineStart < endOffset) {
+                lineBuffer.append(cbuf, lineStart, endOffset - lineStart);
             }
+            if (len > 0) {
+                lastChar = cbuf[endOffset - 1];
+            }
+        } finally {
+            mainLock.unlock();
+        }
 
-            if (line != null) {
+        if (lines != null) {
+            for (String line: lines) {
                 handler.writeLine(line);
             }
         }
@@ -99,6 +122,6 @@ public final class LineOutputWriter extends Writer {
         }
 
         handler.writeLine(line);
-        handler.flush();
+        handler.close();
     }
 }
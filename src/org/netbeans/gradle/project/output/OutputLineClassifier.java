@@ -0,0 +1,81 @@
+package org.netbeans.gradle.project.output;
+
+/**
+ * Determines with a single scan of a line of the output, which
+ * {@link SmartOutputHandler.Consumer consumers} might be able to process the
+ * line. The features are stored as bits of an {@code int}, so that
+ * classifying a line does not need to allocate any object.
+ */
+public final class OutputLineClassifier {
+    /**
+     * The line contains "at " after a whitespace, ".java:" and ends with ")",
+     * so it might be a line of a stack trace.
+     */
+    public static final int STACK_TRACE = 1;
+
+    /**
+     * The line contains "://", so it might contain a URL.
+     */
+    public static final int URL = 2;
+
+    /**
+     * The line contains "/" or "\", so it might contain a path.
+     */
+    public static final int PATH = 4;
+
+    /**
+     * The line contains ":".
+     */
+    public static final int COLON = 8;
+
+    private static final String JAVA_EXT = ".java";
+
+    public static boolean hasFeatures(int lineFeatures, int requiredFeatures) {
+        return (lineFeatures & requiredFeatures) == requiredFeatures;
+    }
+
+    public static int classify(String line) {
+        int features = 0;
+        boolean hasAt = false;
+        boolean hasJavaLine = false;
+
+        int length = line.length();
+        char prevChar = ' ';
+        for (int i = 0; i < length; i++) {
+            char ch = line.charAt(i);
+            switch (ch) {
+                case '/':
+                case '\\':
+                    features |= PATH;
+                    break;
+                case ':':
+                    features |= COLON;
+                    if (i + 2 < length && line.charAt(i + 1) == '/' && line.charAt(i + 2) == '/') {
+                        features |= URL;
+                    }
+                    if (!hasJavaLine && i >= JAVA_EXT.length()) {
+                        hasJavaLine = line.regionMatches(i - JAVA_EXT.length(), JAVA_EXT, 0, JAVA_EXT.length());
+                    }
+                    break;
+                case 'a':
+                    if (!hasAt && Character.isWhitespace(prevChar)
+                            && i + 2 < length && line.charAt(i + 1) == 't' && line.charAt(i + 2) == ' ') {
+                        hasAt = true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            prevChar = ch;
+        }
+
+        if (hasAt && hasJavaLine && prevChar == ')') {
+            features |= STACK_TRACE;
+        }
+        return features;
+    }
+
+    private OutputLineClassifier() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,380 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stores the lines of the output of a build in a temporary file, so that the
+ * output can be searched and browsed without keeping all of it in the heap.
+ * <P>
+ * The lines are stored as UTF-8 encoded text separated by '\n' characters.
+ * The offset of every {@link #LINES_PER_INDEX_ENTRY}th line is kept in memory,
+ * so any line can be found by reading at most that many lines from the
+ * file. Reading is done through memory-mapped regions of the file.
+ * <P>
+ * Methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+public final class OutputSpillFile implements Closeable {
+    private static final Charset ENCODING = Charset.forName("UTF-8");
+    private static final int LINES_PER_INDEX_ENTRY = 64;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long MAX_MAPPED_BYTES = 32L * 1024L * 1024L;
+
+    private final File file;
+
+    private final ReentrantLock mainLock;
+    private final FileChannel channel;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer writeBuffer;
+    private long[] index;
+    private int indexSize;
+    private int lineCount;
+    private long writtenBytes;
+    private boolean closed;
+    private boolean deleted;
+
+    private OutputSpillFile(File file) throws IOException {
+        this.file = file;
+        this.mainLock = new ReentrantLock();
+        this.encoder = ENCODING.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        this.index = new long[1024];
+        this.indexSize = 0;
+        this.lineCount = 0;
+        this.writtenBytes = 0;
+        this.closed = false;
+        this.deleted = false;
+        this.channel = new RandomAccessFile(file, "rw").getChannel();
+    }
+
+    public static OutputSpillFile create() throws IOException {
+        File file = File.createTempFile("nb-gradle-output", ".log");
+        file.deleteOnExit();
+        return new OutputSpillFile(file);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getLineCount() {
+        mainLock.lock();
+        try {
+            return lineCount;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    public void appendLine(String line) throws IOException {
+        if (line == null) throw new NullPointerException("line");
+
+        mainLock.lock();
+        try {
+            if (closed) {
+                throw new IOException("The spill file has already been closed.");
+            }
+
+            if (lineCount % LINES_PER_INDEX_ENTRY == 0) {
+                addIndexEntry(writtenBytes + writeBuffer.position());
+            }
+
+            CharBuffer chars = CharBuffer.wrap(line);
+            while (true) {
+                CoderResult result = encoder.encode(chars, writeBuffer, true);
+                if (result.isOverflow()) {
+                    flushWriteBuffer();
+                }
+                else {
+                    break;
+                }
+            }
+            while (encoder.flush(writeBuffer).isOverflow()) {
+                flushWriteBuffer();
+            }
+            encoder.reset();
+
+            if (!writeBuffer.hasRemaining()) {
+                flushWriteBuffer();
+            }
+            writeBuffer.put((byte)'\n');
+            lineCount++;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void addIndexEntry(long offset) {
+        assert mainLock.isHeldByCurrentThread();
+
+        if (indexSize == index.length) {
+            long[] newIndex = new long[2 * index.length];
+            System.arraycopy(index, 0, newIndex, 0, indexSize);
+            index = newIndex;
+        }
+        index[indexSize] = offset;
+        indexSize++;
+    }
+
+    private void flushWriteBuffer() throws IOException {
+        assert mainLock.isHeldByCurrentThread();
+
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            writtenBytes += channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    /**
+     * Writes every line appended so far to the file and releases the file
+     * handle used for writing. Lines can still be read after this method
+     * returns but no more lines can be appended.
+     */
+    @Override
+    public void close() throws IOException {
+        mainLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            try {
+                flushWriteBuffer();
+            } finally {
+                channel.close();
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the file storing the lines. Reading the lines fails after this
+     * method was called. This method is idempotent.
+     */
+    public void delete() throws IOException {
+        mainLock.lock();
+        try {
+            if (deleted) {
+                return;
+            }
+            deleted = true;
+        } finally {
+            mainLock.unlock();
+        }
+
+        try {
+            close();
+        } finally {
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    public boolean isDeleted() {
+        mainLock.lock();
+        try {
+            return deleted;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private ReadSnapshot getReadSnapshot() throws IOException {
+        mainLock.lock();
+        try {
+            if (deleted) {
+                throw new IOException("The spill file has already been deleted.");
+            }
+            if (!closed) {
+                flushWriteBuffer();
+            }
+
+            long[] indexCopy = new long[indexSize];
+            System.arraycopy(index, 0, indexCopy, 0, indexSize);
+            return new ReadSnapshot(indexCopy, lineCount, writtenBytes);
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    public List<String> readLines(int firstLine, int count) throws IOException {
+        if (firstLine < 0) {
+            throw new IllegalArgumentException("Illegal first line: " + firstLine);
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Illegal line count: " + count);
+        }
+
+        ReadSnapshot snapshot = getReadSnapshot();
+        int endLine = (int)Math.min((long)firstLine + (long)count, (long)snapshot.getLineCount());
+        if (firstLine >= endLine) {
+            return Collections.emptyList();
+        }
+
+        int startBlock = firstLine / LINES_PER_INDEX_ENTRY;
+        int endBlock = (endLine - 1) / LINES_PER_INDEX_ENTRY + 1;
+
+        List<String> result = new ArrayList<String>(endLine - firstLine);
+
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            MappedByteBuffer region = mapBlocks(input.getChannel(), snapshot, startBlock, endBlock);
+
+            int lineIndex = startBlock * LINES_PER_INDEX_ENTRY;
+            int lineStart = 0;
+            int regionSize = region.limit();
+            for (int i = 0; i < regionSize && lineIndex < endLine; i++) {
+                if (region.get(i) == '\n') {
+                    if (lineIndex >= firstLine) {
+                        result.add(decode(region, lineStart, i));
+                    }
+                    lineIndex++;
+                    lineStart = i + 1;
+                }
+            }
+        } finally {
+            input.close();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the (zero based) indexes of the lines containing the given text
+     * in increasing order. At most {@code maxResults} indexes are returned.
+     */
+    public List<Integer> findLines(String text, int maxResults) throws IOException {
+        if (text == null) throw new NullPointerException("text");
+        if (maxResults < 0) {
+            throw new IllegalArgumentException("Illegal max. results: " + maxResults);
+        }
+
+        byte[] pattern = text.getBytes(ENCODING);
+        ReadSnapshot snapshot = getReadSnapshot();
+
+        List<Integer> result = new ArrayList<Integer>();
+        if (maxResults == 0) {
+            return result;
+        }
+
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            FileChannel inputChannel = input.getChannel();
+            int blockCount = snapshot.getBlockCount();
+
+            int startBlock = 0;
+            while (startBlock < blockCount) {
+                // Map as many blocks at once as possible without mapping too
+                // much of the file.
+                int endBlock = startBlock + 1;
+                long startOffset = snapshot.getBlockOffset(startBlock);
+                while (endBlock < blockCount
+                        && snapshot.getBlockOffset(endBlock + 1) - startOffset <= MAX_MAPPED_BYTES) {
+                    endBlock++;
+                }
+
+                MappedByteBuffer region = mapBlocks(inputChannel, snapshot, startBlock, endBlock);
+
+                int lineIndex = startBlock * LINES_PER_INDEX_ENTRY;
+                int lineStart = 0;
+                int regionSize = region.limit();
+                for (int i = 0; i < regionSize; i++) {
+                    if (region.get(i) == '\n') {
+                        if (contains(region, lineStart, i, pattern)) {
+                            result.add(lineIndex);
+                            if (result.size() >= maxResults) {
+                                return result;
+                            }
+                        }
+                        lineIndex++;
+                        lineStart = i + 1;
+                    }
+                }
+
+                startBlock = endBlock;
+            }
+        } finally {
+            input.close();
+        }
+        return result;
+    }
+
+    private static MappedByteBuffer mapBlocks(
+            FileChannel inputChannel,
+            ReadSnapshot snapshot,
+            int startBlock,
+            int endBlock) throws IOException {
+        long startOffset = snapshot.getBlockOffset(startBlock);
+        long endOffset = snapshot.getBlockOffset(endBlock);
+        return inputChannel.map(FileChannel.MapMode.READ_ONLY, startOffset, endOffset - startOffset);
+    }
+
+    private static boolean contains(ByteBuffer buffer, int start, int end, byte[] pattern) {
+        int lastStart = end - pattern.length;
+        for (int i = start; i <= lastStart; i++) {
+            boolean match = true;
+            for (int j = 0; j < pattern.length; j++) {
+                if (buffer.get(i + j) != pattern[j]) {
+                    match = false;
+                    break;
+                }
+            }
+            if (match) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, ENCODING);
+    }
+
+    private static final class ReadSnapshot {
+        private final long[] index;
+        private final int lineCount;
+        private final long size;
+
+        public ReadSnapshot(long[] index, int lineCount, long size) {
+            this.index = index;
+            this.lineCount = lineCount;
+            this.size = size;
+        }
+
+        public int getLineCount() {
+            return lineCount;
+        }
+
+        public int getBlockCount() {
+            return index.length;
+        }
+
+        public long getBlockOffset(int block) {
+            return block < index.length ? index[block] : size;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.netbeans.gradle.project.NbStrings;
+import org.openide.DialogDisplayer;
+import org.openide.NotifyDescriptor;
+import org.openide.util.RequestProcessor;
+import org.openide.windows.IOProvider;
+import org.openide.windows.InputOutput;
+import org.openide.windows.OutputEvent;
+import org.openide.windows.OutputListener;
+import org.openide.windows.OutputWriter;
+
+/**
+ * Allows the user to search in the full output of a build stored in an
+ * {@link OutputSpillFile}. The matching lines are printed to a separate tab
+ * of the output window and clicking on them prints the lines around them.
+ * Only the lines to be displayed are read from the file.
+ * <P>
+ * The file is deleted when the line of this listener is cleared from the
+ * output window (i.e., the tab is closed or cleared).
+ */
+public final class OutputSpillSearchListener implements OutputListener {
+    private static final Logger LOGGER = Logger.getLogger(OutputSpillSearchListener.class.getName());
+
+    private static final RequestProcessor SEARCH_PROCESSOR
+            = new RequestProcessor("Gradle-Output-Search", 1, true);
+
+    private static final int MAX_RESULTS = 1000;
+    private static final int CONTEXT_LINES = 20;
+
+    private final OutputSpillFile spillFile;
+    private final String caption;
+
+    public OutputSpillSearchListener(OutputSpillFile spillFile, String caption) {
+        if (spillFile == null) throw new NullPointerException("spillFile");
+        if (caption == null) throw new NullPointerException("caption");
+
+        this.spillFile = spillFile;
+        this.caption = caption;
+    }
+
+    @Override
+    public void outputLineSelected(OutputEvent ev) {
+    }
+
+    @Override
+    public void outputLineAction(OutputEvent ev) {
+        if (spillFile.isDeleted()) {
+            DialogDisplayer.getDefault().notify(new NotifyDescriptor.Message(
+                    NbStrings.getOutputFileDeleted(),
+                    NotifyDescriptor.INFORMATION_MESSAGE));
+            return;
+        }
+
+        NotifyDescriptor.InputLine input = new NotifyDescriptor.InputLine(
+                NbStrings.getSearchOutputText(),
+                NbStrings.getSearchOutputTitle());
+        if (DialogDisplayer.getDefault().notify(input) != NotifyDescriptor.OK_OPTION) {
+            return;
+        }
+
+        final String text = input.getInputText();
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+
+        SEARCH_PROCESSOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                search(text);
+            }
+        });
+    }
+
+    @Override
+    public void outputLineCleared(OutputEvent ev) {
+        SEARCH_PROCESSOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    spillFile.delete();
+                } catch (IOException ex) {
+                    LOGGER.log(Level.INFO, "Failed to delete the output file: " + spillFile.getFile(), ex);
+                }
+            }
+        });
+    }
+
+    private InputOutput getSearchIo() {
+        return IOProvider.getDefault().getIO(NbStrings.getSearchOutputTabCaption(caption), false);
+    }
+
+    private void search(String text) {
+        InputOutput io = getSearchIo();
+        io.select();
+
+        OutputWriter output = io.getOut();
+        try {
+            output.println(NbStrings.getSearchOutputHeader(text, spillFile.getFile().getPath()));
+
+            List<Integer> lineIndexes = spillFile.findLines(text, MAX_RESULTS);
+            if (lineIndexes.isEmpty()) {
+                output.println(NbStrings.getSearchOutputNoResult(text));
+            }
+
+            for (int lineIndex: lineIndexes) {
+                List<String> lines = spillFile.readLines(lineIndex, 1);
+                if (!lines.isEmpty()) {
+                    output.println((lineIndex + 1) + ": " + lines.get(0), new ContextListener(lineIndex), false);
+                }
+            }
+
+            if (lineIndexes.size() >= MAX_RESULTS) {
+                output.println(NbStrings.getSearchOutputTooManyResults(MAX_RESULTS));
+            }
+            output.println();
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to search in the output: " + spillFile.getFile(), ex);
+        } finally {
+            output.close();
+        }
+    }
+
+    private void printContext(int lineIndex) {
+        InputOutput io = getSearchIo();
+        io.select();
+
+        int firstLine = Math.max(0, lineIndex - CONTEXT_LINES);
+
+        OutputWriter output = io.getOut();
+        try {
+            List<String> lines = spillFile.readLines(firstLine, lineIndex - firstLine + CONTEXT_LINES + 1);
+            output.println(NbStrings.getSearchOutputContext(firstLine + 1, firstLine + lines.size()));
+
+            int currentIndex = firstLine;
+            for (String line: lines) {
+                output.println((currentIndex + 1) + ": " + line, null, currentIndex == lineIndex);
+                currentIndex++;
+            }
+            output.println();
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to read the output: " + spillFile.getFile(), ex);
+        } finally {
+            output.close();
+        }
+    }
+
+    private class ContextListener implements OutputListener {
+        private final int lineIndex;
+
+        public ContextListener(int lineIndex) {
+            this.lineIndex = lineIndex;
+        }
+
+        @Override
+        public void outputLineSelected(OutputEvent ev) {
+        }
+
+        @Override
+        public void outputLineAction(OutputEvent ev) {
+            SEARCH_PROCESSOR.execute(new Runnable() {
+                @Override
+                public void run() {
+                    printContext(lineIndex);
+                }
+            });
+        }
+
+        @Override
+        public void outputLineCleared(OutputEvent ev) {
+        }
+    }
+}
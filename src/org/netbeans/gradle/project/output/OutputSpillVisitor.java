@@ -0,0 +1,48 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores every line of the output of a build in an {@link OutputSpillFile}.
+ * If the lines cannot be stored, the limit of the output window is removed,
+ * so that no line is lost.
+ */
+public final class OutputSpillVisitor implements SmartOutputHandler.Visitor {
+    private static final Logger LOGGER = Logger.getLogger(OutputSpillVisitor.class.getName());
+
+    private final OutputSpillFile spillFile;
+    private final OutputWindowLimit windowLimit;
+    private final AtomicBoolean failed;
+
+    public OutputSpillVisitor(OutputSpillFile spillFile, OutputWindowLimit windowLimit) {
+        if (spillFile == null) throw new NullPointerException("spillFile");
+        if (windowLimit == null) throw new NullPointerException("windowLimit");
+
+        this.spillFile = spillFile;
+        this.windowLimit = windowLimit;
+        this.failed = new AtomicBoolean(false);
+    }
+
+    public boolean hasFailed() {
+        return failed.get();
+    }
+
+    @Override
+    public void visitLine(String line) {
+        if (failed.get()) {
+            return;
+        }
+
+        try {
+            spillFile.appendLine(line);
+        } catch (IOException ex) {
+            if (failed.compareAndSet(false, true)) {
+                LOGGER.log(Level.WARNING, "Failed to write the output to " + spillFile.getFile(), ex);
+                windowLimit.removeLimit();
+            }
+        }
+    }
+}
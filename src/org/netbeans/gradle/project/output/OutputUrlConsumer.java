@@ -40,6 +40,11 @@ public final class OutputUrlConsumer implements SmartOutputHandler.Consumer {
         }
     }
 
+    @Override
+    public int getRequiredLineFeatures() {
+        return OutputLineClassifier.URL;
+    }
+
     @Override
     public boolean tryConsumeLine(String line, OutputWriter output) throws IOException {
         for (String prefix: URL_PREFIXES) {
@@ -0,0 +1,53 @@
+package org.netbeans.gradle.project.output;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of lines printed to the output window by the
+ * {@link SmartOutputHandler SmartOutputHandlers} of a build. The standard
+ * output and the standard error of a build share the same limit.
+ */
+public final class OutputWindowLimit {
+    public static final OutputWindowLimit UNLIMITED = new OutputWindowLimit();
+
+    private final AtomicInteger remainingLines;
+    private volatile boolean limited;
+
+    private OutputWindowLimit() {
+        this.remainingLines = new AtomicInteger(Integer.MAX_VALUE);
+        this.limited = false;
+    }
+
+    public OutputWindowLimit(int maxLines) {
+        if (maxLines < 0) {
+            throw new IllegalArgumentException("Illegal max. lines value: " + maxLines);
+        }
+
+        this.remainingLines = new AtomicInteger(maxLines);
+        this.limited = true;
+    }
+
+    /**
+     * Removes the limit, so that every subsequent line is printed to the
+     * output window. This method is idempotent.
+     */
+    public void removeLimit() {
+        limited = false;
+    }
+
+    public boolean tryReserveLine() {
+        if (!limited) {
+            return true;
+        }
+
+        while (true) {
+            int remaining = remainingLines.get();
+            if (remaining <= 0) {
+                return !limited;
+            }
+            if (remainingLines.compareAndSet(remaining, remaining - 1)) {
+                return true;
+            }
+        }
+    }
+}
@@ -14,8 +14,13 @@ import org.openide.windows.OutputWriter;
 
 public final class ProjectFileConsumer implements SmartOutputHandler.Consumer {
     private final String normalizedPath;
+    private final FileExistenceCache fileCache;
 
-    public ProjectFileConsumer(NbGradleProject project) {
+    public ProjectFileConsumer(NbGradleProject project, FileExistenceCache fileCache) {
+        if (project == null) throw new NullPointerException("project");
+        if (fileCache == null) throw new NullPointerException("fileCache");
+
+        this.fileCache = fileCache;
         FileObject projectDirectory = project.getProjectDirectory();
         // In case the filesystem is not case-sesitive, otherwise it shouldn't
         // hurt much, since we will check if the file exists anyway.
@@ -29,6 +34,11 @@ public final class ProjectFileConsumer implements SmartOutputHandler.Consumer {
                 || lowerPath.endsWith(".htm");
     }
 
+    @Override
+    public int getRequiredLineFeatures() {
+        return OutputLineClassifier.PATH;
+    }
+
     @Override
     public boolean tryConsumeLine(String line, OutputWriter output) throws IOException {
         String normalizedLine = line.replace(File.separatorChar, '/').toLowerCase(Locale.ROOT);
@@ -52,29 +62,37 @@ public final class ProjectFileConsumer implements SmartOutputHandler.Consumer {
             }
         }
 
-        String fileStr = StringUtils.stripSeperatorsFromEnd(line.substring(startIndex, endIndex));
-        File file = new File(fileStr);
-        if (!file.isFile()) {
+        final String fileStr = StringUtils.stripSeperatorsFromEnd(line.substring(startIndex, endIndex));
+        if (fileStr.indexOf(':', endPathIndex - startIndex) >= 0) {
+            // Most likely "path:line" which is handled by FileLineConsumer.
             return false;
         }
 
-        OutputListener outputListener = null;
-        if (isBrowserFile(fileStr)) {
-            try {
-                URL url = Utilities.toURI(file).toURL();
-                outputListener = OutputUrlConsumer.getUrlListener(url);
-            } catch (MalformedURLException ex) {
+        // Checking if the file exists is deferred until the user clicks on
+        // the line, so that the output is not slowed down by file system
+        // accesses.
+        output.println(line, new LazyOutputListener(fileStr, new LazyOutputListener.ListenerFactory() {
+            @Override
+            public OutputListener tryCreateListener() {
+                return tryCreateFileListener(new File(fileStr));
             }
+        }), false);
+        return true;
+    }
+
+    private OutputListener tryCreateFileListener(File file) {
+        if (!fileCache.isFile(file)) {
+            return null;
         }
 
-        if (outputListener == null) {
-            outputListener = OpenEditorOutputListener.tryCreateListener(file, -1);
-            if (outputListener == null) {
-                return false;
+        if (isBrowserFile(file.getPath())) {
+            try {
+                URL url = Utilities.toURI(file).toURL();
+                return OutputUrlConsumer.getUrlListener(url);
+            } catch (MalformedURLException ex) {
             }
         }
 
-        output.println(line, outputListener, false);
-        return true;
+        return OpenEditorOutputListener.tryCreateListener(file, -1);
     }
 }
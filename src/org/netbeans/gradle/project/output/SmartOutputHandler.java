@@ -1,6 +1,7 @@
 package org.netbeans.gradle.project.output;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -14,19 +15,50 @@ public final class SmartOutputHandler implements LineOutputWriter.Handler {
     }
 
     public static interface Consumer {
+        /**
+         * Returns the {@link OutputLineClassifier features} a line must have,
+         * so that this consumer might be able to consume it. Lines without
+         * these features are not passed to {@link #tryConsumeLine}.
+         */
+        public int getRequiredLineFeatures();
         public boolean tryConsumeLine(String line, OutputWriter output) throws IOException;
     }
 
+    /**
+     * A consumer which hides lines of the output instead of adding hyperlinks
+     * to them. Filters also process the lines printed by
+     * {@link #writePlainLine(String)}, because skipping them would change
+     * which lines are printed and not just how they are printed.
+     */
+    public static interface Filter extends Consumer {
+    }
+
+    private static final Consumer[] NO_PROCESSORS = new Consumer[0];
+
     private final OutputWriter output;
     private final Visitor[] visitors;
     private final Consumer[] processors;
+    private final int[] requiredFeatures;
+    private final Consumer[] filters;
+    private final int[] filterRequiredFeatures;
+    private final OutputWindowLimit windowLimit;
 
     public SmartOutputHandler(OutputWriter output, List<Visitor> visitors, List<Consumer> processors) {
+        this(output, visitors, processors, OutputWindowLimit.UNLIMITED);
+    }
+
+    public SmartOutputHandler(
+            OutputWriter output,
+            List<Visitor> visitors,
+            List<Consumer> processors,
+            OutputWindowLimit windowLimit) {
         if (output == null) throw new NullPointerException("output");
         if (visitors == null) throw new NullPointerException("visitors");
         if (processors == null) throw new NullPointerException("processors");
+        if (windowLimit == null) throw new NullPointerException("windowLimit");
 
         this.output = output;
+        this.windowLimit = windowLimit;
         this.visitors = visitors.toArray(new Visitor[0]);
         this.processors = processors.toArray(new Consumer[0]);
 
@@ -36,10 +68,41 @@ public final class SmartOutputHandler implements LineOutputWriter.Handler {
         for (Consumer processor: this.processors) {
             if (processor == null) throw new NullPointerException("processor");
         }
+
+        List<Consumer> filterList = new ArrayList<Consumer>();
+        for (Consumer processor: this.processors) {
+            if (processor instanceof Filter) {
+                filterList.add(processor);
+            }
+        }
+        this.filters = filterList.toArray(new Consumer[filterList.size()]);
+
+        this.requiredFeatures = getRequiredFeatures(this.processors);
+        this.filterRequiredFeatures = getRequiredFeatures(this.filters);
+    }
+
+    private static int[] getRequiredFeatures(Consumer[] consumers) {
+        int[] result = new int[consumers.length];
+        for (int i = 0; i < consumers.length; i++) {
+            result[i] = consumers[i].getRequiredLineFeatures();
+        }
+        return result;
     }
 
     @Override
     public void writeLine(String line) throws IOException {
+        writeLine(line, true);
+    }
+
+    /**
+     * Prints the given line without trying to find hyperlinks in it. The
+     * visitors and the {@link Filter filters} process the line nevertheless.
+     */
+    public void writePlainLine(String line) throws IOException {
+        writeLine(line, false);
+    }
+
+    private void writeLine(String line, boolean useProcessors) throws IOException {
         Throwable error = null;
 
         for (Visitor visitor: visitors) {
@@ -51,7 +114,34 @@ public final class SmartOutputHandler implements LineOutputWriter.Handler {
             }
         }
 
-        for (Consumer processor: processors) {
+        // Lines over the limit are only seen by the visitors.
+        boolean printLine = windowLimit.tryReserveLine();
+
+        Consumer[] currentProcessors;
+        int[] currentRequiredFeatures;
+        if (!printLine) {
+            currentProcessors = NO_PROCESSORS;
+            currentRequiredFeatures = requiredFeatures;
+        }
+        else if (useProcessors) {
+            currentProcessors = processors;
+            currentRequiredFeatures = requiredFeatures;
+        }
+        else {
+            currentProcessors = filters;
+            currentRequiredFeatures = filterRequiredFeatures;
+        }
+
+        int lineFeatures = currentProcessors.length > 0
+                ? OutputLineClassifier.classify(line)
+                : 0;
+
+        for (int i = 0; i < currentProcessors.length; i++) {
+            if (!OutputLineClassifier.hasFeatures(lineFeatures, currentRequiredFeatures[i])) {
+                continue;
+            }
+
+            Consumer processor = currentProcessors[i];
             try {
                 if (processor.tryConsumeLine(line, output)) {
                     return;
@@ -62,11 +152,13 @@ public final class SmartOutputHandler implements LineOutputWriter.Handler {
             }
         }
 
-        try {
-            output.println(line);
-        } catch (Throwable ex) {
-            LOGGER.log(Level.SEVERE, "Unexpected failure while printing a line of the output.", error);
-            error = ex;
+        if (printLine) {
+            try {
+                output.println(line);
+            } catch (Throwable ex) {
+                LOGGER.log(Level.SEVERE, "Unexpected failure while printing a line of the output.", error);
+                error = ex;
+            }
         }
 
         if (error != null) {
@@ -87,4 +179,9 @@ public final class SmartOutputHandler implements LineOutputWriter.Handler {
     public void flush() throws IOException {
         output.flush();
     }
+
+    @Override
+    public void close() throws IOException {
+        output.flush();
+    }
 }
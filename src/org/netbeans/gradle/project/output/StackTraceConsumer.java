@@ -2,6 +2,8 @@ package org.netbeans.gradle.project.output;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -23,12 +25,14 @@ public final class StackTraceConsumer implements SmartOutputHandler.Consumer {
 
     private final NbGradleProject project;
     private final ClassPath classPath;
+    private final ConcurrentMap<String, SourceFileRef> sourceFiles;
 
     public StackTraceConsumer(NbGradleProject project) {
         if (project == null) throw new NullPointerException("project");
 
         this.project = project;
         this.classPath = getClassPathFromProject(project);
+        this.sourceFiles = new ConcurrentHashMap<String, SourceFileRef>();
     }
 
     private static ClassPath getClassPathFromProject(NbGradleProject project) {
@@ -46,42 +50,18 @@ public final class StackTraceConsumer implements SmartOutputHandler.Consumer {
         return classPath;
     }
 
-    private OutputListener tryCreateLinkListener(
-            SourceForBinaryQuery.Result sourceForBinary,
-            String path,
-            String lineNum) {
-
+    private static FileObject tryFindSourceFile(SourceForBinaryQuery.Result sourceForBinary, String path) {
         FileObject[] rootz = sourceForBinary.getRoots();
         for (int i = 0; i < rootz.length; i++) {
             FileObject javaFo = rootz[i].getFileObject(path);
             if (javaFo != null) {
-                int lineInt = -1;
-                try {
-                    lineInt = Integer.parseInt(lineNum) - 1;
-                } catch (NumberFormatException ex) {
-                }
-                return OpenEditorOutputListener.tryCreateListener(javaFo, lineInt);
+                return javaFo;
             }
         }
         return null;
     }
 
-    // This method is based on
-    // org.netbeans.modules.maven.api.output.OutputUtils.matchStackTraceLine
-    private OutputListener matchStackTraceLine(String line) {
-        Matcher match = LINE_PATTERN.matcher(line);
-        if (!match.matches()) {
-            return null;
-        }
-
-        String method = match.group(1);
-        String file = match.group(2);
-        String lineNum = match.group(3);
-        int index = method.indexOf(file);
-        if (index < 0) {
-            return null;
-        }
-        String packageName = method.substring(0, index).replace('.', '/');
+    private FileObject findSourceFile(String packageName, String file) {
         String resourceName = packageName + file + ".class";
         FileObject resource = classPath.findResource(resourceName);
         if (resource == null) {
@@ -98,7 +78,7 @@ public final class StackTraceConsumer implements SmartOutputHandler.Consumer {
         for (SourceForBinaryQueryImplementation query: project.getLookup().lookupAll(SourceForBinaryQueryImplementation.class)) {
             SourceForBinaryQuery.Result sourceForBinary = query.findSourceRoots(url);
             if (sourceForBinary != null) {
-                OutputListener result = tryCreateLinkListener(sourceForBinary, path, lineNum);
+                FileObject result = tryFindSourceFile(sourceForBinary, path);
                 if (result != null) {
                     return result;
                 }
@@ -109,7 +89,64 @@ public final class StackTraceConsumer implements SmartOutputHandler.Consumer {
         if (sourceForBinary == null) {
             return null;
         }
-        return tryCreateLinkListener(sourceForBinary, path, lineNum);
+        return tryFindSourceFile(sourceForBinary, path);
+    }
+
+    private FileObject findSourceFileCached(String packageName, String file) {
+        // The same classes tend to appear in many stack frames (e.g.: when
+        // many tests fail), so remember what we have found for each class
+        // including the classes whose sources were not found.
+        String cacheKey = packageName + file;
+        SourceFileRef cached = sourceFiles.get(cacheKey);
+        if (cached == null) {
+            FileObject sourceFile = findSourceFile(packageName, file);
+            cached = sourceFile != null ? new SourceFileRef(sourceFile) : SourceFileRef.NOT_FOUND;
+            sourceFiles.putIfAbsent(cacheKey, cached);
+        }
+        return cached.getSourceFile();
+    }
+
+    // This method is based on
+    // org.netbeans.modules.maven.api.output.OutputUtils.matchStackTraceLine
+    private OutputListener matchStackTraceLine(String line) {
+        Matcher match = LINE_PATTERN.matcher(line);
+        if (!match.matches()) {
+            return null;
+        }
+
+        String method = match.group(1);
+        final String file = match.group(2);
+        String lineNum = match.group(3);
+        int index = method.indexOf(file);
+        if (index < 0) {
+            return null;
+        }
+        final String packageName = method.substring(0, index).replace('.', '/');
+
+        int parsedLineNum = -1;
+        try {
+            parsedLineNum = Integer.parseInt(lineNum) - 1;
+        } catch (NumberFormatException ex) {
+        }
+        final int lineInt = parsedLineNum;
+
+        // Looking up the source file requires searching the class path, so
+        // it is only done when the user actually wants to open the file.
+        return new LazyOutputListener(packageName + file + ".java", new LazyOutputListener.ListenerFactory() {
+            @Override
+            public OutputListener tryCreateListener() {
+                FileObject javaFo = findSourceFileCached(packageName, file);
+                if (javaFo == null) {
+                    return null;
+                }
+                return OpenEditorOutputListener.tryCreateListener(javaFo, lineInt);
+            }
+        });
+    }
+
+    @Override
+    public int getRequiredLineFeatures() {
+        return OutputLineClassifier.STACK_TRACE;
     }
 
     @Override
@@ -123,4 +160,18 @@ public final class StackTraceConsumer implements SmartOutputHandler.Consumer {
             return false;
         }
     }
+
+    private static final class SourceFileRef {
+        public static final SourceFileRef NOT_FOUND = new SourceFileRef(null);
+
+        private final FileObject sourceFile;
+
+        public SourceFileRef(FileObject sourceFile) {
+            this.sourceFile = sourceFile;
+        }
+
+        public FileObject getSourceFile() {
+            return sourceFile;
+        }
+    }
 }
@@ -0,0 +1,217 @@
+package org.netbeans.gradle.project.persistent;
+
+import java.io.File;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import org.netbeans.gradle.project.metrics.GradleMetrics;
+import org.netbeans.gradle.project.metrics.MetricCounter;
+import org.netbeans.gradle.project.properties.MutableProperty;
+import org.netbeans.gradle.project.properties.ProjectProperties;
+import org.netbeans.gradle.project.properties.PropertiesSnapshot;
+import org.openide.util.RequestProcessor;
+
+/**
+ * Loads the properties files of projects in batches. Requests arriving
+ * within {@link #BATCH_DELAY_MS} milliseconds (e.g.: when many projects are
+ * opened at once) are parsed together on a background thread and their
+ * values are applied in a single task on the EDT, instead of submitting
+ * several tasks to the EDT for each project.
+ */
+final class BatchPropertiesLoader {
+    private static final Logger LOGGER = Logger.getLogger(BatchPropertiesLoader.class.getName());
+
+    private static final int BATCH_DELAY_MS = 100;
+
+    private static final RequestProcessor LOAD_PROCESSOR
+            = new RequestProcessor("Gradle-Properties-Loader", 1, true);
+    private static final RequestProcessor.Task LOAD_TASK = LOAD_PROCESSOR.create(new Runnable() {
+        @Override
+        public void run() {
+            loadPending();
+        }
+    });
+
+    private static final MetricCounter BATCH_COUNT = GradleMetrics.getCounter("properties.load.batches");
+    private static final MetricCounter FILE_COUNT = GradleMetrics.getCounter("properties.load.files");
+
+    private static final Lock MAIN_LOCK = new ReentrantLock();
+    private static List<LoadRequest> pendingRequests = new LinkedList<LoadRequest>();
+    private static boolean loadScheduled = false;
+
+    /**
+     * Loads the given properties file and sets the values of the given
+     * properties except for the ones changed since this method was called.
+     * This method may be called from any thread and {@code onDone} is
+     * called on the EDT.
+     */
+    public static void load(File propertiesFile, ProjectProperties properties, Runnable onDone) {
+        if (propertiesFile == null) throw new NullPointerException("propertiesFile");
+        if (properties == null) throw new NullPointerException("properties");
+
+        // We must listen for changes, so that we do not overwrite properties
+        // modified later.
+        LoadRequest request = new LoadRequest(propertiesFile, properties, onDone);
+
+        boolean schedule;
+        MAIN_LOCK.lock();
+        try {
+            pendingRequests.add(request);
+            schedule = !loadScheduled;
+            loadScheduled = true;
+        } finally {
+            MAIN_LOCK.unlock();
+        }
+
+        if (schedule) {
+            LOAD_TASK.schedule(BATCH_DELAY_MS);
+        }
+    }
+
+    private static void loadPending() {
+        List<LoadRequest> requests;
+        MAIN_LOCK.lock();
+        try {
+            requests = pendingRequests;
+            pendingRequests = new LinkedList<LoadRequest>();
+            loadScheduled = false;
+        } finally {
+            MAIN_LOCK.unlock();
+        }
+
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        BATCH_COUNT.increment();
+        FILE_COUNT.add(requests.size());
+
+        final List<LoadedProperties> loaded = new LinkedList<LoadedProperties>();
+        for (LoadRequest request: requests) {
+            PropertiesSnapshot snapshot = null;
+            try {
+                snapshot = XmlPropertyFormat.readFromXml(request.propertiesFile);
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.SEVERE, "Unexpected failure while loading the properties.", ex);
+            }
+            loaded.add(new LoadedProperties(request, snapshot));
+        }
+
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                for (LoadedProperties properties: loaded) {
+                    try {
+                        properties.apply();
+                    } catch (RuntimeException ex) {
+                        LOGGER.log(Level.SEVERE, "Unexpected failure while applying the properties.", ex);
+                    }
+                }
+            }
+        });
+    }
+
+    private static final class LoadedProperties {
+        private final LoadRequest request;
+        private final PropertiesSnapshot snapshot;
+
+        public LoadedProperties(LoadRequest request, PropertiesSnapshot snapshot) {
+            this.request = request;
+            this.snapshot = snapshot;
+        }
+
+        public void apply() {
+            try {
+                if (snapshot != null) {
+                    request.apply(snapshot);
+                }
+            } finally {
+                request.stopDetectingChanges();
+            }
+
+            if (request.onDone != null) {
+                request.onDone.run();
+            }
+        }
+    }
+
+    private static final class LoadRequest {
+        private final File propertiesFile;
+        private final ProjectProperties properties;
+        private final Runnable onDone;
+
+        private final ChangeDetector platformChanged;
+        private final ChangeDetector sourceEncodingChanged;
+        private final ChangeDetector sourceLevelChanged;
+        private final ChangeDetector commonTasksChanged;
+
+        public LoadRequest(File propertiesFile, ProjectProperties properties, Runnable onDone) {
+            this.propertiesFile = propertiesFile;
+            this.properties = properties;
+            this.onDone = onDone;
+
+            this.platformChanged = new ChangeDetector(properties.getPlatform());
+            this.sourceEncodingChanged = new ChangeDetector(properties.getSourceEncoding());
+            this.sourceLevelChanged = new ChangeDetector(properties.getSourceLevel());
+            this.commonTasksChanged = new ChangeDetector(properties.getCommonTasks());
+        }
+
+        public void apply(PropertiesSnapshot snapshot) {
+            PropertiesSnapshot.Builder builder = new PropertiesSnapshot.Builder(properties.getSnapshot());
+            if (!sourceLevelChanged.hasChanged()) {
+                builder.setSourceLevel(snapshot.getSourceLevel());
+            }
+            if (!platformChanged.hasChanged()) {
+                builder.setPlatform(snapshot.getPlatform());
+            }
+            if (!sourceEncodingChanged.hasChanged()) {
+                builder.setSourceEncoding(snapshot.getSourceEncoding());
+            }
+            if (!commonTasksChanged.hasChanged()) {
+                builder.setCommonTasks(snapshot.getCommonTasks());
+            }
+            properties.applySnapshot(builder.create());
+        }
+
+        public void stopDetectingChanges() {
+            platformChanged.stop();
+            sourceEncodingChanged.stop();
+            sourceLevelChanged.stop();
+            commonTasksChanged.stop();
+        }
+    }
+
+    private static final class ChangeDetector implements ChangeListener {
+        private final MutableProperty<?> property;
+        private volatile boolean changed;
+
+        public ChangeDetector(MutableProperty<?> property) {
+            this.property = property;
+            this.changed = false;
+            property.addChangeListener(this);
+        }
+
+        public boolean hasChanged() {
+            return changed;
+        }
+
+        public void stop() {
+            property.removeChangeListener(this);
+        }
+
+        @Override
+        public void stateChanged(ChangeEvent e) {
+            changed = true;
+        }
+    }
+
+    private BatchPropertiesLoader() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,283 @@
+package org.netbeans.gradle.project.persistent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+import org.netbeans.gradle.project.metrics.GradleMetrics;
+import org.netbeans.gradle.project.metrics.MetricCounter;
+import org.netbeans.gradle.project.properties.GlobalGradleSettings;
+import org.netbeans.gradle.project.properties.ProjectProperties;
+import org.netbeans.gradle.project.properties.PropertiesSnapshot;
+import org.openide.util.RequestProcessor;
+
+/**
+ * Writes the properties through the wrapped persister only after the
+ * properties have not been saved for
+ * {@link GlobalGradleSettings#getPropertiesSaveDelay()} milliseconds, so that
+ * a burst of changes is written only once. Saves are skipped entirely if the
+ * properties are the same as they were when last saved or loaded. If saving
+ * the properties fails, they remain pending and saving them is retried later.
+ * <P>
+ * Saves still waiting for the delay to elapse can be written immediately by
+ * {@link #flushAll()}, which must be called before the IDE exits.
+ */
+public final class CoalescingPropertiesPersister implements PropertiesPersister {
+    private static final Logger LOGGER = Logger.getLogger(CoalescingPropertiesPersister.class.getName());
+
+    private static final RequestProcessor SAVE_SCHEDULER
+            = new RequestProcessor("Gradle-Properties-Save-Scheduler", 1, true);
+
+    private static final MetricCounter SAVE_COUNT = GradleMetrics.getCounter("properties.save.written");
+    private static final MetricCounter COALESCED_COUNT = GradleMetrics.getCounter("properties.save.coalesced");
+    private static final MetricCounter SKIPPED_COUNT = GradleMetrics.getCounter("properties.save.skipped");
+    private static final MetricCounter FAILED_COUNT = GradleMetrics.getCounter("properties.save.failed");
+
+    // Failures are unlikely to be resolved immediately, so retrying a failed
+    // save right away would only fill the log.
+    private static final int FAILED_SAVE_RETRY_DELAY_MS = 5000;
+
+    private static final Lock PENDING_LOCK = new ReentrantLock();
+    private static final Set<CoalescingPropertiesPersister> PENDING_SAVES
+            = new HashSet<CoalescingPropertiesPersister>();
+
+    private final XmlPropertiesPersister wrapped;
+    private final RequestProcessor.Task saveTask;
+
+    // Ensures that the same file is not written concurrently by the
+    // scheduled save and an explicit flush.
+    private final ReentrantLock writeLock;
+
+    private final ReentrantLock mainLock;
+    private ProjectProperties pendingProperties;
+    private final List<Runnable> pendingOnDone;
+    private PropertiesSnapshot lastPersisted;
+
+    public CoalescingPropertiesPersister(XmlPropertiesPersister wrapped) {
+        if (wrapped == null) throw new NullPointerException("wrapped");
+
+        this.wrapped = wrapped;
+        this.writeLock = new ReentrantLock();
+        this.mainLock = new ReentrantLock();
+        this.pendingProperties = null;
+        this.pendingOnDone = new LinkedList<Runnable>();
+        this.lastPersisted = null;
+        this.saveTask = SAVE_SCHEDULER.create(new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        });
+    }
+
+    /**
+     * Writes every save which is still waiting for the save delay to elapse
+     * and waits until they have been written. This method may be called from
+     * any thread but should not be called from the EDT.
+     */
+    public static void flushAll() {
+        List<CoalescingPropertiesPersister> persisters;
+        PENDING_LOCK.lock();
+        try {
+            persisters = new ArrayList<CoalescingPropertiesPersister>(PENDING_SAVES);
+        } finally {
+            PENDING_LOCK.unlock();
+        }
+
+        for (CoalescingPropertiesPersister persister: persisters) {
+            persister.flush();
+        }
+    }
+
+    /**
+     * Writes every save which is still waiting for the save delay to elapse
+     * on a background thread without waiting for them to be written.
+     */
+    public static void flushAllLater() {
+        SAVE_SCHEDULER.execute(new Runnable() {
+            @Override
+            public void run() {
+                flushAll();
+            }
+        });
+    }
+
+    private void checkEDT() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException("This method may only be called from the EDT.");
+        }
+    }
+
+    private static int getSaveDelay() {
+        Integer delay = GlobalGradleSettings.getPropertiesSaveDelay().getValue();
+        return delay != null ? delay.intValue() : 0;
+    }
+
+    private static void runAll(List<Runnable> tasks) {
+        for (Runnable task: tasks) {
+            try {
+                task.run();
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.SEVERE, "Unexpected failure after saving the properties.", ex);
+            }
+        }
+    }
+
+    private void setPending(boolean pending) {
+        assert mainLock.isHeldByCurrentThread();
+
+        PENDING_LOCK.lock();
+        try {
+            if (pending) {
+                PENDING_SAVES.add(this);
+            }
+            else {
+                PENDING_SAVES.remove(this);
+            }
+        } finally {
+            PENDING_LOCK.unlock();
+        }
+    }
+
+    private void flush() {
+        writeLock.lock();
+        try {
+            savePending();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void savePending() {
+        assert writeLock.isHeldByCurrentThread();
+
+        ProjectProperties properties;
+        List<Runnable> onDoneTasks;
+        PropertiesSnapshot prevPersisted;
+
+        mainLock.lock();
+        try {
+            properties = pendingProperties;
+            if (properties == null) {
+                return;
+            }
+
+            onDoneTasks = new ArrayList<Runnable>(pendingOnDone);
+            pendingProperties = null;
+            pendingOnDone.clear();
+            prevPersisted = lastPersisted;
+            setPending(false);
+        } finally {
+            mainLock.unlock();
+        }
+
+        boolean saved = false;
+        try {
+            PropertiesSnapshot snapshot = properties.getSnapshot();
+            if (snapshot.equals(prevPersisted)) {
+                SKIPPED_COUNT.increment();
+                saved = true;
+                return;
+            }
+
+            SAVE_COUNT.increment();
+            if (wrapped.saveNow(snapshot)) {
+                mainLock.lock();
+                try {
+                    lastPersisted = snapshot;
+                } finally {
+                    mainLock.unlock();
+                }
+                saved = true;
+            }
+            else {
+                // The properties file is only replaced if it was written
+                // completely and it is restored if replacing it fails, so
+                // it still contains the previous properties (unless even
+                // restoring it failed, which is logged by XmlPropertyFormat).
+                FAILED_COUNT.increment();
+            }
+        } finally {
+            if (saved) {
+                runAll(onDoneTasks);
+            }
+            else {
+                retryLater(properties, onDoneTasks);
+            }
+        }
+    }
+
+    /**
+     * Makes the properties whose save has failed pending again, so that they
+     * are saved by a later attempt or by {@link #flushAll()}. The tasks to be
+     * run after the save are only run after the properties were saved.
+     */
+    private void retryLater(ProjectProperties properties, List<Runnable> onDoneTasks) {
+        mainLock.lock();
+        try {
+            // If the properties were saved again in the meantime, the newer
+            // save will write their current values.
+            if (pendingProperties == null) {
+                pendingProperties = properties;
+            }
+            pendingOnDone.addAll(0, onDoneTasks);
+            setPending(true);
+        } finally {
+            mainLock.unlock();
+        }
+
+        saveTask.schedule(Math.max(getSaveDelay(), FAILED_SAVE_RETRY_DELAY_MS));
+    }
+
+    @Override
+    public void save(ProjectProperties properties, Runnable onDone) {
+        checkEDT();
+        if (properties == null) throw new NullPointerException("properties");
+
+        mainLock.lock();
+        try {
+            if (pendingProperties != null) {
+                COALESCED_COUNT.increment();
+            }
+
+            pendingProperties = properties;
+            if (onDone != null) {
+                pendingOnDone.add(onDone);
+            }
+            setPending(true);
+        } finally {
+            mainLock.unlock();
+        }
+
+        saveTask.schedule(getSaveDelay());
+    }
+
+    @Override
+    public void load(final ProjectProperties properties, final Runnable onDone) {
+        wrapped.load(properties, new Runnable() {
+            @Override
+            public void run() {
+                // The properties are the same as in the file, so saving them
+                // without further changes is unnecessary.
+                mainLock.lock();
+                try {
+                    if (pendingProperties == null) {
+                        lastPersisted = properties.getSnapshot();
+                    }
+                } finally {
+                    mainLock.unlock();
+                }
+
+                if (onDone != null) {
+                    onDone.run();
+                }
+            }
+        });
+    }
+}
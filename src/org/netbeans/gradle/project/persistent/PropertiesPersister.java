@@ -3,7 +3,8 @@ package org.netbeans.gradle.project.persistent;
 import org.netbeans.gradle.project.properties.ProjectProperties;
 
 public interface PropertiesPersister {
-    // These methods may only be called from the EDT
+    // save may only be called from the EDT, load may be called from any
+    // thread but onDone is called on the EDT.
 
     public void save(ProjectProperties properties, Runnable onDone);
     public void load(ProjectProperties properties, Runnable onDone);
@@ -0,0 +1,15 @@
+package org.netbeans.gradle.project.persistent;
+
+import org.openide.modules.OnStop;
+
+/**
+ * Writes the properties files whose save is still delayed by
+ * {@link CoalescingPropertiesPersister} when the IDE exits.
+ */
+@OnStop
+public final class SavePropertiesOnStop implements Runnable {
+    @Override
+    public void run() {
+        CoalescingPropertiesPersister.flushAll();
+    }
+}
@@ -2,8 +2,6 @@ package org.netbeans.gradle.project.persistent;
 
 import java.io.File;
 import javax.swing.SwingUtilities;
-import javax.swing.event.ChangeEvent;
-import javax.swing.event.ChangeListener;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.model.NbGradleModel;
 import org.netbeans.gradle.project.properties.ProjectProperties;
@@ -46,16 +44,27 @@ public final class XmlPropertiesPersister implements PropertiesPersister {
         }
     }
 
+    /**
+     * Writes the given properties to the properties file on the calling
+     * thread.
+     *
+     * @return {@code true} if the properties file was written, {@code false}
+     *   if saving the properties failed
+     */
+    public boolean saveNow(PropertiesSnapshot snapshot) {
+        return XmlPropertyFormat.saveToXml(propertiesFile, snapshot);
+    }
+
     @Override
     public void save(ProjectProperties properties, final Runnable onDone) {
         checkEDT();
 
-        final PropertiesSnapshot snapshot = new PropertiesSnapshot(properties);
+        final PropertiesSnapshot snapshot = properties.getSnapshot();
         NbGradleProject.PROJECT_PROCESSOR.execute(new Runnable() {
             @Override
             public void run() {
                 try {
-                    XmlPropertyFormat.saveToXml(propertiesFile, snapshot);
+                    saveNow(snapshot);
                 } finally {
                     if (onDone != null) {
                         onDone.run();
@@ -66,77 +75,7 @@ public final class XmlPropertiesPersister implements PropertiesPersister {
     }
 
     @Override
-    public void load(final ProjectProperties properties, final Runnable onDone) {
-        checkEDT();
-
-        // We must listen for changes, so that we do not overwrite properties
-        // modified later.
-        final ChangeDetector platformChanged = new ChangeDetector();
-        final ChangeDetector sourceEncodingChanged = new ChangeDetector();
-        final ChangeDetector sourceLevelChanged = new ChangeDetector();
-        final ChangeDetector commonTasksChanged = new ChangeDetector();
-
-        properties.getPlatform().addChangeListener(platformChanged);
-        properties.getSourceEncoding().addChangeListener(sourceEncodingChanged);
-        properties.getSourceLevel().addChangeListener(sourceLevelChanged);
-        properties.getCommonTasks().addChangeListener(commonTasksChanged);
-
-        NbGradleProject.PROJECT_PROCESSOR.execute(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    final PropertiesSnapshot snapshot = XmlPropertyFormat.readFromXml(propertiesFile);
-
-                    SwingUtilities.invokeLater(new Runnable() {
-                        @Override
-                        public void run() {
-                            if (!sourceLevelChanged.hasChanged()) {
-                                properties.getSourceLevel().setValue(snapshot.getSourceLevel());
-                            }
-                            if (!platformChanged.hasChanged()) {
-                                properties.getPlatform().setValue(snapshot.getPlatform());
-                            }
-                            if (!sourceEncodingChanged.hasChanged()) {
-                                properties.getSourceEncoding().setValue(snapshot.getSourceEncoding());
-                            }
-                            if (!commonTasksChanged.hasChanged()) {
-                                properties.getCommonTasks().setValue(snapshot.getCommonTasks());
-                            }
-
-                            if (onDone != null) {
-                                onDone.run();
-                            }
-                        }
-                    });
-
-                } finally {
-                    // invokeLater is required, so that the listeners will not
-                    // be removed before setting the properties.
-                    SwingUtilities.invokeLater(new Runnable() {
-                        @Override
-                        public void run() {
-                            properties.getPlatform().removeChangeListener(platformChanged);
-                            properties.getSourceEncoding().removeChangeListener(sourceEncodingChanged);
-                            properties.getSourceLevel().removeChangeListener(sourceLevelChanged);
-                            properties.getCommonTasks().removeChangeListener(commonTasksChanged);
-                        }
-                    });
-                }
-
-            }
-        });
-    }
-
-    private static class ChangeDetector implements ChangeListener {
-        private volatile boolean changed;
-
-        public boolean hasChanged() {
-            return changed;
-        }
-
-        @Override
-        public void stateChanged(ChangeEvent e) {
-            changed = true;
-        }
+    public void load(ProjectProperties properties, Runnable onDone) {
+        BatchPropertiesLoader.load(propertiesFile, properties, onDone);
     }
 }
@@ -1,44 +1,51 @@
 package org.netbeans.gradle.project.persistent;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.NoSuchElementException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Result;
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 import org.netbeans.api.java.platform.JavaPlatform;
 import org.netbeans.api.java.platform.JavaPlatformManager;
 import org.netbeans.api.java.platform.Specification;
+import org.netbeans.gradle.project.metrics.GradleMetrics;
+import org.netbeans.gradle.project.metrics.LatencyHistogram;
 import org.netbeans.gradle.project.properties.PredefinedTask;
 import org.netbeans.gradle.project.properties.PropertiesSnapshot;
 import org.openide.modules.SpecificationVersion;
-import org.w3c.dom.Comment;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 final class XmlPropertyFormat {
     private static final Logger LOGGER = Logger.getLogger(XmlPropertyFormat.class.getName());
 
+    private static final LatencyHistogram SAVE_TIME = GradleMetrics.getHistogram("properties.save");
+    private static final LatencyHistogram LOAD_TIME = GradleMetrics.getHistogram("properties.load");
+
+    // The factories are thread-safe once configured and creating them
+    // requires a service lookup, so they are shared by every save and load.
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private static final String ENCODING = "UTF-8";
+    private static final String INDENT = "  ";
+    private static final String NEW_LINE = "\n";
+
     private static final String ROOT_NODE = "gradle-project-properties";
     private static final String SOURCE_ENCODING_NODE = "source-encoding";
     private static final String PLATFORM_NAME_NODE = "target-platform-name";
@@ -60,117 +67,208 @@ final class XmlPropertyFormat {
 
     private static final String DEFAULT_SPECIFICATION_NAME = "j2se";
 
-    private static Element addChild(Node parent, String tagName) {
-        Element element = parent.getOwnerDocument().createElement(tagName);
-        parent.appendChild(element);
-        return element;
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
     }
 
-    private static Element addSimpleChild(Node parent, String tagName, String value) {
-        Element element = addChild(parent, tagName);
-        element.setTextContent(value);
-        return element;
+    private static void writeIndent(XMLStreamWriter writer, int level) throws XMLStreamException {
+        writer.writeCharacters(NEW_LINE);
+        for (int i = 0; i < level; i++) {
+            writer.writeCharacters(INDENT);
+        }
     }
 
-    private static void saveDocument(File propertyfile, Document document) throws TransformerException, IOException {
-        Source source = new DOMSource(document);
-        Result result = new StreamResult(propertyfile);
-
-        Transformer transformer = TransformerFactory.newInstance().newTransformer();
-        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-
-        transformer.transform(source, result);
+    private static void writeStartElement(XMLStreamWriter writer, int level, String tagName) throws XMLStreamException {
+        writeIndent(writer, level);
+        writer.writeStartElement(tagName);
     }
 
-    private static void addSingleTask(Node node, PredefinedTask task) {
-        Element taskNode = addChild(node, TASK_NODE);
-
-        addSimpleChild(taskNode, TASK_DISPLAY_NAME_NODE, task.getDisplayName());
-        addSimpleChild(taskNode, TASK_NON_BLOCKING_NODE, task.isNonBlocking() ? VALUE_YES : VALUE_NO);
+    private static void writeEndElement(XMLStreamWriter writer, int level) throws XMLStreamException {
+        writeIndent(writer, level);
+        writer.writeEndElement();
+    }
 
-        Element nameListNode = addChild(taskNode, TASK_NAME_LIST_NODE);
-        for (PredefinedTask.Name name: task.getTaskNames()) {
-            Element nameNode = addSimpleChild(nameListNode, TASK_NAME_NODE, name.getName());
-            nameNode.setAttribute(TASK_MUST_EXIST_ATTR, name.isMustExist() ? VALUE_YES : VALUE_NO);
-        }
+    private static void writeSimpleElement(XMLStreamWriter writer, int level, String tagName, String value) throws XMLStreamException {
+        writeIndent(writer, level);
+        writer.writeStartElement(tagName);
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+    }
 
-        Element argListNode = addChild(taskNode, TASK_ARGS_NODE);
-        for (String arg: task.getArguments()) {
-            addSimpleChild(argListNode, ARG_NODE, arg);
+    private static void writeArgs(XMLStreamWriter writer, int level, String tagName, List<String> args) throws XMLStreamException {
+        if (args.isEmpty()) {
+            writeIndent(writer, level);
+            writer.writeEmptyElement(tagName);
+            return;
         }
 
-        Element jvmArgListNode = addChild(taskNode, TASK_JVM_ARGS_NODE);
-        for (String arg: task.getJvmArguments()) {
-            addSimpleChild(jvmArgListNode, ARG_NODE, arg);
+        writeStartElement(writer, level, tagName);
+        for (String arg: args) {
+            writeSimpleElement(writer, level + 1, ARG_NODE, arg);
         }
+        writeEndElement(writer, level);
     }
 
-    private static void addCommonTasks(Node node, List<PredefinedTask> tasks) {
-        Element commonTasksNode = addChild(node, COMMON_TASKS_NODE);
+    private static void writeSingleTask(XMLStreamWriter writer, int level, PredefinedTask task) throws XMLStreamException {
+        writeStartElement(writer, level, TASK_NODE);
 
-        for (PredefinedTask task: tasks) {
-            addSingleTask(commonTasksNode, task);
+        writeSimpleElement(writer, level + 1, TASK_DISPLAY_NAME_NODE, task.getDisplayName());
+        writeSimpleElement(writer, level + 1, TASK_NON_BLOCKING_NODE, task.isNonBlocking() ? VALUE_YES : VALUE_NO);
+
+        writeStartElement(writer, level + 1, TASK_NAME_LIST_NODE);
+        for (PredefinedTask.Name name: task.getTaskNames()) {
+            writeIndent(writer, level + 2);
+            writer.writeStartElement(TASK_NAME_NODE);
+            writer.writeAttribute(TASK_MUST_EXIST_ATTR, name.isMustExist() ? VALUE_YES : VALUE_NO);
+            writer.writeCharacters(name.getName());
+            writer.writeEndElement();
         }
-    }
+        writeEndElement(writer, level + 1);
 
-    public static void saveToXml(File propertyfile, PropertiesSnapshot snapshot) {
-        if (propertyfile == null) throw new NullPointerException("propertyfile");
-        if (snapshot == null) throw new NullPointerException("snapshot");
+        writeArgs(writer, level + 1, TASK_ARGS_NODE, task.getArguments());
+        writeArgs(writer, level + 1, TASK_JVM_ARGS_NODE, task.getJvmArguments());
 
-        DocumentBuilder builder;
-        try {
-            builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-        } catch (ParserConfigurationException ex) {
-            LOGGER.log(Level.SEVERE, "Failed to create XML builder.", ex);
-            return;
-        }
+        writeEndElement(writer, level);
+    }
 
-        Document document = builder.newDocument();
-        Element root = document.createElement(ROOT_NODE);
-        document.appendChild(root);
+    private static void writeDocument(XMLStreamWriter writer, PropertiesSnapshot snapshot) throws XMLStreamException {
+        writer.writeStartDocument(ENCODING, "1.0");
+        writer.writeCharacters(NEW_LINE);
+        writer.writeStartElement(ROOT_NODE);
 
-        Comment comment = document.createComment(
-                "DO NOT EDIT THIS FILE!"
+        writeIndent(writer, 1);
+        writer.writeComment("DO NOT EDIT THIS FILE!"
                 + " - Used by the Gradle plugin of NetBeans.");
-        root.appendChild(comment);
 
         String sourceEncoding = snapshot.getSourceEncoding().name();
-        addSimpleChild(root, SOURCE_ENCODING_NODE, sourceEncoding);
+        writeSimpleElement(writer, 1, SOURCE_ENCODING_NODE, sourceEncoding);
 
         JavaPlatform platform = snapshot.getPlatform();
-        addSimpleChild(root, PLATFORM_NAME_NODE, platform.getSpecification().getName());
-        addSimpleChild(root, PLATFORM_NODE, platform.getSpecification().getVersion().toString());
+        writeSimpleElement(writer, 1, PLATFORM_NAME_NODE, platform.getSpecification().getName());
+        writeSimpleElement(writer, 1, PLATFORM_NODE, platform.getSpecification().getVersion().toString());
 
         String sourceLevel = snapshot.getSourceLevel();
-        addSimpleChild(root, SOURCE_LEVEL_NODE, sourceLevel);
+        writeSimpleElement(writer, 1, SOURCE_LEVEL_NODE, sourceLevel);
 
         List<PredefinedTask> commonTasks = snapshot.getCommonTasks();
         if (!commonTasks.isEmpty()) {
-            addCommonTasks(root, commonTasks);
+            writeStartElement(writer, 1, COMMON_TASKS_NODE);
+            for (PredefinedTask task: commonTasks) {
+                writeSingleTask(writer, 2, task);
+            }
+            writeEndElement(writer, 1);
         }
 
+        writeEndElement(writer, 0);
+        writer.writeEndDocument();
+        writer.writeCharacters(NEW_LINE);
+    }
+
+    private static void writeToFile(File file, PropertiesSnapshot snapshot) throws IOException, XMLStreamException {
+        OutputStream output = new BufferedOutputStream(new FileOutputStream(file));
         try {
-            saveDocument(propertyfile, document);
-        } catch (IOException ex) {
-            LOGGER.log(Level.INFO, "Failed to save the properties.", ex);
-        } catch (TransformerException ex) {
-            LOGGER.log(Level.INFO, "Failed to save the properties.", ex);
+            XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(output, ENCODING);
+            try {
+                writeDocument(writer, snapshot);
+                writer.flush();
+            } finally {
+                writer.close();
+            }
+        } finally {
+            output.close();
         }
     }
 
-    private static Element getFirstChildByTagName(Element element, String tagName) {
-        NodeList children = element.getElementsByTagName(tagName);
-        return children.getLength() > 0 ? (Element)children.item(0) : null;
+    /**
+     * Replaces {@code dest} with {@code source}. If {@code source} cannot be
+     * simply renamed to {@code dest} (File.renameTo cannot overwrite an
+     * existing file on every platform), the replacement is not atomic:
+     * {@code dest} is moved to a backup file first and is moved back if
+     * {@code source} cannot be renamed. That is, when this method fails,
+     * {@code dest} still contains its previous content, except if even the
+     * backup could not be moved back, in which case the previous content
+     * is kept in the backup file named in the exception.
+     */
+    private static void replaceFile(File source, File dest) throws IOException {
+        if (source.renameTo(dest)) {
+            return;
+        }
+
+        if (!dest.exists()) {
+            if (!source.renameTo(dest)) {
+                throw new IOException("Failed to rename " + source + " to " + dest);
+            }
+            return;
+        }
+
+        // The backup file is created to reserve a unique name but it must
+        // not exist when renaming to it.
+        File backupFile = File.createTempFile(dest.getName(), ".bak", dest.getAbsoluteFile().getParentFile());
+        if (!backupFile.delete() || !dest.renameTo(backupFile)) {
+            backupFile.delete();
+            throw new IOException("Failed to move " + dest + " to " + backupFile);
+        }
+
+        if (!source.renameTo(dest)) {
+            if (!backupFile.renameTo(dest)) {
+                throw new IOException("Failed to rename " + source + " to " + dest
+                        + " and to restore its previous content from " + backupFile);
+            }
+            throw new IOException("Failed to rename " + source + " to " + dest);
+        }
+
+        if (!backupFile.delete()) {
+            LOGGER.log(Level.WARNING, "Failed to remove the backup file: {0}", backupFile);
+        }
     }
 
-    private static String tryGetValueOfNode(Element node, String tagName) {
-        Node child = getFirstChildByTagName(node, tagName);
-        String textContent = child != null ? child.getTextContent() : null;
-        return textContent != null ? textContent.trim() : null;
+    private static void saveDocument(File propertyfile, PropertiesSnapshot snapshot) throws IOException, XMLStreamException {
+        File dir = propertyfile.getAbsoluteFile().getParentFile();
+
+        // Write to a temporary file in the same directory and replace the
+        // properties file only if the whole document was written, so a
+        // failure cannot leave a truncated properties file behind.
+        File tmpFile = File.createTempFile(propertyfile.getName(), ".tmp", dir);
+        boolean replaced = false;
+        try {
+            writeToFile(tmpFile, snapshot);
+            replaceFile(tmpFile, propertyfile);
+            replaced = true;
+        } finally {
+            if (!replaced && !tmpFile.delete()) {
+                LOGGER.log(Level.WARNING, "Failed to remove the temporary file: {0}", tmpFile);
+            }
+        }
     }
 
+    /**
+     * Saves the given properties to the given file. Failures are logged and
+     * are not propagated to the caller.
+     *
+     * @return {@code true} if the properties file was written, {@code false}
+     *   if saving the properties failed
+     */
+    public static boolean saveToXml(File propertyfile, PropertiesSnapshot snapshot) {
+        if (propertyfile == null) throw new NullPointerException("propertyfile");
+        if (snapshot == null) throw new NullPointerException("snapshot");
+
+        long startTime = System.nanoTime();
+        try {
+            saveDocument(propertyfile, snapshot);
+            return true;
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to save the properties.", ex);
+        } catch (XMLStreamException ex) {
+            LOGGER.log(Level.INFO, "Failed to save the properties.", ex);
+        } finally {
+            SAVE_TIME.recordSince(startTime);
+        }
+        return false;
+    }
 
     private static Charset parseCharset(String name) {
         try {
@@ -268,100 +366,204 @@ final class XmlPropertyFormat {
         return bestMatch;
     }
 
-    private static Iterable<Element> getChildElements(Element element, String tagName) {
-        return new NodeListAsElementIterable(element.getElementsByTagName(tagName));
+    /**
+     * Moves the reader to the next child element of the current element.
+     * The reader must be on the start tag of the parent or on the end tag of
+     * a previous child. Returns {@code false} if the reader has reached the
+     * end tag of the parent.
+     */
+    private static boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
     }
 
-    private static PredefinedTask readTask(Element root) {
-        Element displayNameNode = getFirstChildByTagName(root, TASK_DISPLAY_NAME_NODE);
-        String displayName = null;
-        if (displayNameNode != null) {
-            displayName = displayNameNode.getTextContent();
+    /**
+     * Reads the text content of the current element (including the text of
+     * its nested elements) and leaves the reader on its end tag.
+     */
+    private static String readElementText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder result = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    result.append(reader.getText());
+                    break;
+                default:
+                    break;
+            }
         }
-        displayName = displayName != null ? displayName.trim() : "?";
+        return result.toString().trim();
+    }
 
-        Element nonBlockingNode = getFirstChildByTagName(root, TASK_NON_BLOCKING_NODE);
-        boolean nonBlocking = false;
-        if (nonBlockingNode != null) {
-            String nonBlockingStr = nonBlockingNode.getTextContent();
-            if (nonBlockingStr != null) {
-                nonBlocking = VALUE_YES.equalsIgnoreCase(nonBlockingStr.trim());
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
             }
         }
+    }
 
-        List<PredefinedTask.Name> names = new LinkedList<PredefinedTask.Name>();
-        Element nameListNode = getFirstChildByTagName(root, TASK_NAME_LIST_NODE);
-        if (nameListNode != null) {
-            for (Element nameNode: getChildElements(nameListNode, TASK_NAME_NODE)) {
-                String name = nameNode.getTextContent();
-                name = name != null ? name.trim() : "";
-
-                if (!name.isEmpty()) {
-                    boolean mustExist = VALUE_YES.equalsIgnoreCase(nameNode.getAttribute(TASK_MUST_EXIST_ATTR));
-                    names.add(new PredefinedTask.Name(name, mustExist));
+    private static void readArgs(XMLStreamReader reader, List<String> result) throws XMLStreamException {
+        while (nextChildElement(reader)) {
+            if (ARG_NODE.equals(reader.getLocalName())) {
+                String arg = readElementText(reader);
+                if (!arg.isEmpty()) {
+                    result.add(arg);
                 }
             }
+            else {
+                skipElement(reader);
+            }
         }
+    }
 
-        List<String> args = new LinkedList<String>();
-        Element argsNode = getFirstChildByTagName(root, TASK_ARGS_NODE);
-        if (argsNode != null) {
-            for (Element argNode: getChildElements(argsNode, ARG_NODE)) {
-                String arg = argNode.getTextContent();
-                arg = arg != null ? arg.trim() : "";
-                if (!arg.isEmpty()) {
-                    args.add(arg);
+    private static void readTaskNames(XMLStreamReader reader, List<PredefinedTask.Name> result) throws XMLStreamException {
+        while (nextChildElement(reader)) {
+            if (TASK_NAME_NODE.equals(reader.getLocalName())) {
+                boolean mustExist = VALUE_YES.equalsIgnoreCase(reader.getAttributeValue(null, TASK_MUST_EXIST_ATTR));
+                String name = readElementText(reader);
+                if (!name.isEmpty()) {
+                    result.add(new PredefinedTask.Name(name, mustExist));
                 }
             }
+            else {
+                skipElement(reader);
+            }
         }
+    }
 
+    private static PredefinedTask readTask(XMLStreamReader reader) throws XMLStreamException {
+        String displayName = null;
+        boolean nonBlocking = false;
+        List<PredefinedTask.Name> names = new LinkedList<PredefinedTask.Name>();
+        List<String> args = new LinkedList<String>();
         List<String> jvmArgs = new LinkedList<String>();
-        Element jvmArgsNode = getFirstChildByTagName(root, TASK_JVM_ARGS_NODE);
-        if (jvmArgsNode != null) {
-            for (Element jvmArgNode: getChildElements(jvmArgsNode, ARG_NODE)) {
-                String arg = jvmArgNode.getTextContent();
-                arg = arg != null ? arg.trim() : "";
-                if (!arg.isEmpty()) {
-                    jvmArgs.add(arg);
-                }
+
+        while (nextChildElement(reader)) {
+            String tagName = reader.getLocalName();
+            if (TASK_DISPLAY_NAME_NODE.equals(tagName)) {
+                displayName = readElementText(reader);
+            }
+            else if (TASK_NON_BLOCKING_NODE.equals(tagName)) {
+                nonBlocking = VALUE_YES.equalsIgnoreCase(readElementText(reader));
+            }
+            else if (TASK_NAME_LIST_NODE.equals(tagName)) {
+                readTaskNames(reader, names);
+            }
+            else if (TASK_ARGS_NODE.equals(tagName)) {
+                readArgs(reader, args);
+            }
+            else if (TASK_JVM_ARGS_NODE.equals(tagName)) {
+                readArgs(reader, jvmArgs);
+            }
+            else {
+                skipElement(reader);
             }
         }
 
+        if (displayName == null) {
+            displayName = "?";
+        }
         return new PredefinedTask(displayName, names, args, jvmArgs, nonBlocking);
     }
 
-    private static List<PredefinedTask> readTasks(Element root) {
-        Element commonTasksNode = getFirstChildByTagName(root, COMMON_TASKS_NODE);
-        if (commonTasksNode == null) {
-            return Collections.emptyList();
+    private static List<PredefinedTask> readTasks(XMLStreamReader reader) throws XMLStreamException {
+        List<PredefinedTask> result = new LinkedList<PredefinedTask>();
+        while (nextChildElement(reader)) {
+            if (TASK_NODE.equals(reader.getLocalName())) {
+                result.add(readTask(reader));
+            }
+            else {
+                skipElement(reader);
+            }
         }
+        return result;
+    }
 
-        List<PredefinedTask> result = new LinkedList<PredefinedTask>();
-        for (Element taskNode: getChildElements(commonTasksNode, TASK_NODE)) {
-            result.add(readTask(taskNode));
+    private static StoredProperties readRoot(XMLStreamReader reader) throws XMLStreamException {
+        StoredProperties result = new StoredProperties();
+
+        reader.nextTag();
+        while (nextChildElement(reader)) {
+            String tagName = reader.getLocalName();
+            if (SOURCE_LEVEL_NODE.equals(tagName)) {
+                result.sourceLevel = readElementText(reader);
+            }
+            else if (SOURCE_ENCODING_NODE.equals(tagName)) {
+                result.sourceEncoding = readElementText(reader);
+            }
+            else if (PLATFORM_NAME_NODE.equals(tagName)) {
+                result.platformName = readElementText(reader);
+            }
+            else if (PLATFORM_NODE.equals(tagName)) {
+                result.platformVersion = readElementText(reader);
+            }
+            else if (COMMON_TASKS_NODE.equals(tagName)) {
+                result.commonTasks = readTasks(reader);
+            }
+            else {
+                skipElement(reader);
+            }
         }
         return result;
     }
 
-    public static PropertiesSnapshot readFromXml(File propertiesFile) {
-        PropertiesSnapshot.Builder result = new PropertiesSnapshot.Builder();
+    private static StoredProperties readFile(File propertiesFile) throws IOException, XMLStreamException {
+        InputStream input = new BufferedInputStream(new FileInputStream(propertiesFile));
+        try {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(input);
+            try {
+                return readRoot(reader);
+            } finally {
+                reader.close();
+            }
+        } finally {
+            input.close();
+        }
+    }
 
-        DocumentBuilder builder;
+    public static PropertiesSnapshot readFromXml(File propertiesFile) {
+        long startTime = System.nanoTime();
         try {
-            builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-        } catch (ParserConfigurationException ex) {
-            LOGGER.log(Level.SEVERE, "Failed to create XML builder.", ex);
-            return result.create();
+            return readFromXmlUnmeasured(propertiesFile);
+        } finally {
+            LOAD_TIME.recordSince(startTime);
         }
+    }
+
+    private static PropertiesSnapshot readFromXmlUnmeasured(File propertiesFile) {
+        PropertiesSnapshot.Builder result = new PropertiesSnapshot.Builder();
 
-        Document document;
+        StoredProperties stored;
         try {
             if (!propertiesFile.exists()) {
                 return result.create();
             }
 
-            document = builder.parse(propertiesFile);
-        } catch (SAXException ex) {
+            stored = readFile(propertiesFile);
+        } catch (XMLStreamException ex) {
             LOGGER.log(Level.INFO, "Failed to parse the property file.", ex);
             return result.create();
         } catch (IOException ex) {
@@ -369,107 +571,44 @@ final class XmlPropertyFormat {
             return result.create();
         }
 
-        Element root = document.getDocumentElement();
-
-        String sourceLevel = tryGetValueOfNode(root, SOURCE_LEVEL_NODE);
-        if (sourceLevel != null) {
-            result.setSourceLevel(sourceLevel);
+        if (stored.sourceLevel != null) {
+            result.setSourceLevel(stored.sourceLevel);
         }
 
-        String sourceEncodingStr = tryGetValueOfNode(root, SOURCE_ENCODING_NODE);
-        Charset sourceEncoding = sourceEncodingStr != null
-                ? parseCharset(sourceEncodingStr)
+        Charset sourceEncoding = stored.sourceEncoding != null
+                ? parseCharset(stored.sourceEncoding)
                 : null;
         if (sourceEncoding != null) {
             result.setSourceEncoding(sourceEncoding);
         }
 
-        String platformName = tryGetValueOfNode(root, PLATFORM_NAME_NODE);
+        String platformName = stored.platformName;
         if (platformName == null) {
             platformName = DEFAULT_SPECIFICATION_NAME;
         }
 
-        String platformStr = tryGetValueOfNode(root, PLATFORM_NODE);
-        JavaPlatform platform = platformStr != null
-                ? parsePlatform(platformName, platformStr)
+        JavaPlatform platform = stored.platformVersion != null
+                ? parsePlatform(platformName, stored.platformVersion)
                 : null;
         if (platform != null) {
             result.setPlatform(platform);
         }
 
-        List<PredefinedTask> commonTasks = readTasks(root);
-        result.setCommonTasks(commonTasks);
+        result.setCommonTasks(stored.commonTasks);
 
         return result.create();
     }
 
-    private static class NodeListAsElementIterable implements Iterable<Element> {
-        private final NodeListAsIterable wrapped;
-
-        public NodeListAsElementIterable(NodeList nodeList) {
-            this.wrapped = new NodeListAsIterable(nodeList);
-        }
-
-        @Override
-        public Iterator<Element> iterator() {
-            final Iterator<Node> nodeItr = wrapped.iterator();
-
-            return new Iterator<Element>() {
-                @Override
-                public boolean hasNext() {
-                    return nodeItr.hasNext();
-                }
-
-                @Override
-                @SuppressWarnings("unchecked")
-                public Element next() {
-                    return (Element)nodeItr.next();
-                }
-
-                @Override
-                public void remove() {
-                    nodeItr.remove();
-                }
-            };
-        }
-    }
-
-    private static class NodeListAsIterable implements Iterable<Node> {
-        private final NodeList nodeList;
-
-        public NodeListAsIterable(NodeList nodeList) {
-            if (nodeList == null) throw new NullPointerException("nodeList");
-            this.nodeList = nodeList;
-        }
-
-        @Override
-        public Iterator<Node> iterator() {
-            final int numberOfNodes = nodeList.getLength();
-            return new Iterator<Node>() {
-                private int currentIndex = 0;
-
-                @Override
-                public boolean hasNext() {
-                    return currentIndex < numberOfNodes;
-                }
-
-                @Override
-                public Node next() {
-                    if (!hasNext()) {
-                        throw new NoSuchElementException();
-                    }
-
-                    Node result = nodeList.item(currentIndex);
-                    currentIndex++;
-                    return result;
-                }
-
-                @Override
-                public void remove() {
-                    throw new UnsupportedOperationException("This Iterable is read-only.");
-                }
-            };
-        }
+    /**
+     * The raw values read from the properties file. Values are only applied
+     * to the snapshot if the whole file could be parsed.
+     */
+    private static final class StoredProperties {
+        public String sourceLevel = null;
+        public String sourceEncoding = null;
+        public String platformName = null;
+        public String platformVersion = null;
+        public List<PredefinedTask> commonTasks = Collections.emptyList();
     }
 
     private XmlPropertyFormat() {
@@ -0,0 +1,97 @@
+package org.netbeans.gradle.project.properties;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.openide.util.Utilities;
+
+/**
+ * A thread-safe map which references its values through weak references.
+ * Reads do not lock (the map is backed by a {@code ConcurrentHashMap}) and
+ * entries whose value was garbage collected are removed by the reference
+ * queue thread of NetBeans, so no operation has to clean up the map.
+ * <P>
+ * Neither keys nor values can be {@code null}.
+ */
+public final class ConcurrentWeakValueMap<K, V> {
+    private final ConcurrentMap<K, TableRef<K, V>> wrappedMap;
+
+    public ConcurrentWeakValueMap() {
+        this.wrappedMap = new ConcurrentHashMap<K, TableRef<K, V>>();
+    }
+
+    /**
+     * Returns the number of entries in this map. Entries whose value was
+     * recently garbage collected might still be counted.
+     */
+    public int size() {
+        return wrappedMap.size();
+    }
+
+    public V get(K key) {
+        if (key == null) throw new NullPointerException("key");
+
+        TableRef<K, V> resultRef = wrappedMap.get(key);
+        return resultRef != null ? resultRef.get() : null;
+    }
+
+    /**
+     * Associates the given value with the given key unless there is already
+     * a value associated with it.
+     *
+     * @return the value previously associated with the key or {@code null}
+     *   if the given value was added to the map
+     */
+    public V putIfAbsent(K key, V value) {
+        if (key == null) throw new NullPointerException("key");
+        if (value == null) throw new NullPointerException("value");
+
+        TableRef<K, V> newRef = new TableRef<K, V>(this, key, value);
+        while (true) {
+            TableRef<K, V> oldRef = wrappedMap.putIfAbsent(key, newRef);
+            if (oldRef == null) {
+                return null;
+            }
+
+            V oldValue = oldRef.get();
+            if (oldValue != null) {
+                return oldValue;
+            }
+
+            // The previous value was garbage collected but its entry has
+            // not yet been removed.
+            if (wrappedMap.replace(key, oldRef, newRef)) {
+                return null;
+            }
+        }
+    }
+
+    public V remove(K key) {
+        if (key == null) throw new NullPointerException("key");
+
+        TableRef<K, V> resultRef = wrappedMap.remove(key);
+        return resultRef != null ? resultRef.get() : null;
+    }
+
+    private void removeRef(TableRef<K, V> ref) {
+        // Do not remove the entry if it has been replaced since.
+        wrappedMap.remove(ref.key, ref);
+    }
+
+    private static final class TableRef<K, V> extends WeakReference<V> implements Runnable {
+        private final ConcurrentWeakValueMap<K, V> map;
+        private final K key;
+
+        public TableRef(ConcurrentWeakValueMap<K, V> map, K key, V value) {
+            super(value, Utilities.activeReferenceQueue());
+
+            this.map = map;
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            map.removeRef(this);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.netbeans.gradle.project.properties;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
@@ -29,14 +31,31 @@ public final class GlobalGradleSettings {
     private static final StringBasedProperty<Boolean> SKIP_TESTS;
     private static final StringBasedProperty<Integer> PROJECT_CACHE_SIZE;
     private static final StringBasedProperty<Boolean> ALWAYS_CLEAR_OUTPUT;
+    private static final StringBasedProperty<Integer> OUTPUT_LINE_LIMIT;
+    private static final StringBasedProperty<Integer> PROPERTIES_SAVE_DELAY;
 
     static {
         GRADLE_HOME = new GlobalProperty<FileObject>("gradle-home", GradleHomeConverter.INSTANCE);
         GRADLE_JVM_ARGS = new GlobalProperty<List<String>>("gradle-jvm-args", StringToStringListConverter.INSTANCE);
-        GRADLE_JDK = new GlobalProperty<JavaPlatform>("gradle-jdk", JavaPlaformConverter.INSTANCE);
+        final GlobalProperty<JavaPlatform> gradleJdk
+                = new GlobalProperty<JavaPlatform>("gradle-jdk", JavaPlaformConverter.INSTANCE);
+        GRADLE_JDK = gradleJdk;
         SKIP_TESTS = new GlobalProperty<Boolean>("skip-tests", new BooleanConverter(false));
         PROJECT_CACHE_SIZE = new GlobalProperty<Integer>("project-cache-size", new IntegerConverter(1, Integer.MAX_VALUE, 100));
         ALWAYS_CLEAR_OUTPUT = new GlobalProperty<Boolean>("always-clear-output", new BooleanConverter(false));
+        OUTPUT_LINE_LIMIT = new GlobalProperty<Integer>("output-line-limit", new IntegerConverter(0, Integer.MAX_VALUE, 0));
+        PROPERTIES_SAVE_DELAY = new GlobalProperty<Integer>("properties-save-delay", new IntegerConverter(0, Integer.MAX_VALUE, 500));
+
+        // The selected JDK is looked up from the installed platforms, so the
+        // cached value might become invalid without the preference changing.
+        JavaPlatformManager.getDefault().addPropertyChangeListener(new PropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent evt) {
+                if (JavaPlatformManager.PROP_INSTALLED_PLATFORMS.equals(evt.getPropertyName())) {
+                    gradleJdk.invalidateCache();
+                }
+            }
+        });
     }
 
     public static StringBasedProperty<FileObject> getGradleHome() {
@@ -63,6 +82,19 @@ public final class GlobalGradleSettings {
         return ALWAYS_CLEAR_OUTPUT;
     }
 
+    public static StringBasedProperty<Integer> getOutputLineLimit() {
+        return OUTPUT_LINE_LIMIT;
+    }
+
+    /**
+     * Returns the number of milliseconds the project properties are saved
+     * after their last change, so that subsequent changes are written at
+     * once.
+     */
+    public static StringBasedProperty<Integer> getPropertiesSaveDelay() {
+        return PROPERTIES_SAVE_DELAY;
+    }
+
     public static FileObject getCurrentGradleJdkHome() {
         JavaPlatform platform = GRADLE_JDK.getValue();
         if (platform == null) {
@@ -278,9 +310,19 @@ public final class GlobalGradleSettings {
         public String toString(ValueType value);
     }
 
+    private static final class CachedValue<ValueType> {
+        public final ValueType value;
+
+        public CachedValue(ValueType value) {
+            this.value = value;
+        }
+    }
+
     private static class GlobalProperty<ValueType> implements StringBasedProperty<ValueType> {
         private final String settingsName;
         private final ValueConverter<ValueType> converter;
+        // null if the value must be parsed again from the preferences.
+        private volatile CachedValue<ValueType> cachedValue;
 
         public GlobalProperty(String settingsName, ValueConverter<ValueType> converter) {
             if (settingsName == null) throw new NullPointerException("settingsName");
@@ -288,6 +330,18 @@ public final class GlobalGradleSettings {
 
             this.settingsName = settingsName;
             this.converter = converter;
+            this.cachedValue = null;
+
+            getPreferences().addPreferenceChangeListener(new ChangeListenerWrapper(settingsName, new ChangeListener() {
+                @Override
+                public void stateChanged(ChangeEvent e) {
+                    invalidateCache();
+                }
+            }));
+        }
+
+        public void invalidateCache() {
+            cachedValue = null;
         }
 
         private static Preferences getPreferences() {
@@ -303,7 +357,12 @@ public final class GlobalGradleSettings {
 
         @Override
         public ValueType getValue() {
-            return converter.toValue(getValueAsString());
+            CachedValue<ValueType> result = cachedValue;
+            if (result == null) {
+                result = new CachedValue<ValueType>(converter.toValue(getValueAsString()));
+                cachedValue = result;
+            }
+            return result.value;
         }
 
         @Override
@@ -330,6 +389,12 @@ public final class GlobalGradleSettings {
             else {
                 getPreferences().remove(settingsName);
             }
+
+            // Preference change events are delivered asynchronously, so
+            // invalidate the cache now to let the new value be read
+            // immediately. The event will invalidate the cache again in case
+            // the old value was cached concurrently.
+            invalidateCache();
         }
 
         @Override
@@ -44,6 +44,7 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
         jSkipTestsCheck.setSelected(GlobalGradleSettings.getSkipTests().getValue());
         jProjectCacheSize.setValue(GlobalGradleSettings.getProjectCacheSize().getValue());
         jAlwayClearOutput.setSelected(GlobalGradleSettings.getAlwaysClearOutput().getValue());
+        jOutputLineLimit.setValue(GlobalGradleSettings.getOutputLineLimit().getValue());
     }
 
     public final void saveSettings() {
@@ -53,6 +54,7 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
         GlobalGradleSettings.getSkipTests().setValue(isSkipTests());
         GlobalGradleSettings.getProjectCacheSize().setValue(getProjectCacheSize());
         GlobalGradleSettings.getAlwaysClearOutput().setValue(isAlwaysClearOutput());
+        GlobalGradleSettings.getOutputLineLimit().setValue(getOutputLineLimit());
     }
 
     private String getGradleHome() {
@@ -91,6 +93,18 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
         return result > 0 ? result : 1;
     }
 
+    private int getOutputLineLimit() {
+        Object value = jOutputLineLimit.getValue();
+        int result;
+        if (value instanceof Number) {
+            result = ((Number)value).intValue();
+        }
+        else {
+            result = GlobalGradleSettings.getOutputLineLimit().getValue();
+        }
+        return result > 0 ? result : 0;
+    }
+
     private static class JavaPlatformItem {
         private final JavaPlatform platform;
 
@@ -154,6 +168,8 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
         jProjectCacheSize = new javax.swing.JSpinner();
         jProjectCacheSizeLabel = new javax.swing.JLabel();
         jAlwayClearOutput = new javax.swing.JCheckBox();
+        jOutputLineLimitLabel = new javax.swing.JLabel();
+        jOutputLineLimit = new javax.swing.JSpinner();
 
         org.openide.awt.Mnemonics.setLocalizedText(jGradlePathCaption, org.openide.util.NbBundle.getMessage(GradleSettingsPanel.class, "GradleSettingsPanel.jGradlePathCaption.text")); // NOI18N
 
@@ -180,6 +196,8 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
 
         org.openide.awt.Mnemonics.setLocalizedText(jAlwayClearOutput, org.openide.util.NbBundle.getMessage(GradleSettingsPanel.class, "GradleSettingsPanel.jAlwayClearOutput.text")); // NOI18N
 
+        org.openide.awt.Mnemonics.setLocalizedText(jOutputLineLimitLabel, org.openide.util.NbBundle.getMessage(GradleSettingsPanel.class, "GradleSettingsPanel.jOutputLineLimitLabel.text")); // NOI18N
+
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
         this.setLayout(layout);
         layout.setHorizontalGroup(
@@ -204,7 +222,11 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
                                 .addComponent(jProjectCacheSizeLabel)
                                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                                 .addComponent(jProjectCacheSize, javax.swing.GroupLayout.PREFERRED_SIZE, 95, javax.swing.GroupLayout.PREFERRED_SIZE))
-                            .addComponent(jAlwayClearOutput))
+                            .addComponent(jAlwayClearOutput)
+                            .addGroup(layout.createSequentialGroup()
+                                .addComponent(jOutputLineLimitLabel)
+                                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                                .addComponent(jOutputLineLimit, javax.swing.GroupLayout.PREFERRED_SIZE, 95, javax.swing.GroupLayout.PREFERRED_SIZE)))
                         .addGap(0, 0, Short.MAX_VALUE)))
                 .addContainerGap())
         );
@@ -233,6 +255,10 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
                     .addComponent(jProjectCacheSize, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                 .addComponent(jAlwayClearOutput)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(jOutputLineLimitLabel)
+                    .addComponent(jOutputLineLimit, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
                 .addContainerGap(32, Short.MAX_VALUE))
         );
     }// </editor-fold>//GEN-END:initComponents
@@ -255,6 +281,8 @@ public class GradleSettingsPanel extends javax.swing.JPanel {
     private javax.swing.JTextField jGradlePathEdit;
     private javax.swing.JLabel jGradleVMArgsCaption;
     private javax.swing.JComboBox jJdkCombo;
+    private javax.swing.JSpinner jOutputLineLimit;
+    private javax.swing.JLabel jOutputLineLimitLabel;
     private javax.swing.JSpinner jProjectCacheSize;
     private javax.swing.JLabel jProjectCacheSizeLabel;
     private javax.swing.JScrollPane jScrollPane1;
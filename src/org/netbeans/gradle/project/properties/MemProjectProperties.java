@@ -1,22 +1,122 @@
 package org.netbeans.gradle.project.properties;
 
 import java.nio.charset.Charset;
-import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.swing.event.ChangeListener;
 import org.netbeans.api.java.platform.JavaPlatform;
+import org.openide.util.ChangeSupport;
 
+/**
+ * Stores the values of every property in a single immutable
+ * {@link PropertiesSnapshot}. Changing any of the properties (or all of them
+ * through {@link #applySnapshot(PropertiesSnapshot) applySnapshot}) publishes
+ * a new snapshot before notifying the listeners, so every listener and every
+ * thread sees the values of all properties after the change.
+ */
 public final class MemProjectProperties extends AbstractProjectProperties {
-    private final MutableProperty<String> sourceLevel;
-    private final MutableProperty<JavaPlatform> platform;
-    private final MutableProperty<Charset> sourceEncoding;
-    private final MutableProperty<List<PredefinedTask>> commonTasks;
+    private final ReentrantLock mainLock;
+    private volatile PropertiesSnapshot snapshot;
+
+    private final SnapshotProperty<String> sourceLevel;
+    private final SnapshotProperty<JavaPlatform> platform;
+    private final SnapshotProperty<Charset> sourceEncoding;
+    private final SnapshotProperty<List<PredefinedTask>> commonTasks;
 
     public MemProjectProperties() {
-        JavaPlatform defaultPlatform = JavaPlatform.getDefault();
-        this.sourceLevel = new DefaultMutableProperty<String>(getSourceLevelFromPlatform(defaultPlatform), false);
-        this.platform = new DefaultMutableProperty<JavaPlatform>(defaultPlatform, false);
-        this.sourceEncoding = new DefaultMutableProperty<Charset>(DEFAULT_SOURCE_ENCODING, false);
-        this.commonTasks = new MutableListProperty<PredefinedTask>(Collections.<PredefinedTask>emptyList());
+        this.mainLock = new ReentrantLock();
+        this.snapshot = new PropertiesSnapshot.Builder().create();
+
+        this.sourceLevel = new SnapshotProperty<String>() {
+            @Override
+            protected String readValue(PropertiesSnapshot snapshot) {
+                return snapshot.getSourceLevel();
+            }
+
+            @Override
+            protected void writeValue(PropertiesSnapshot.Builder builder, String value) {
+                builder.setSourceLevel(value);
+            }
+        };
+        this.platform = new SnapshotProperty<JavaPlatform>() {
+            @Override
+            protected JavaPlatform readValue(PropertiesSnapshot snapshot) {
+                return snapshot.getPlatform();
+            }
+
+            @Override
+            protected void writeValue(PropertiesSnapshot.Builder builder, JavaPlatform value) {
+                builder.setPlatform(value);
+            }
+        };
+        this.sourceEncoding = new SnapshotProperty<Charset>() {
+            @Override
+            protected Charset readValue(PropertiesSnapshot snapshot) {
+                return snapshot.getSourceEncoding();
+            }
+
+            @Override
+            protected void writeValue(PropertiesSnapshot.Builder builder, Charset value) {
+                builder.setSourceEncoding(value);
+            }
+        };
+        this.commonTasks = new SnapshotProperty<List<PredefinedTask>>() {
+            @Override
+            protected List<PredefinedTask> readValue(PropertiesSnapshot snapshot) {
+                return snapshot.getCommonTasks();
+            }
+
+            @Override
+            protected void writeValue(PropertiesSnapshot.Builder builder, List<PredefinedTask> value) {
+                builder.setCommonTasks(value);
+            }
+
+            @Override
+            protected boolean isSameValue(List<PredefinedTask> value1, List<PredefinedTask> value2) {
+                // Setting the list always notifies the listeners, just like
+                // MutableListProperty does.
+                return false;
+            }
+        };
+    }
+
+    private List<SnapshotProperty<?>> getSnapshotProperties() {
+        List<SnapshotProperty<?>> result = new LinkedList<SnapshotProperty<?>>();
+        result.add(sourceLevel);
+        result.add(platform);
+        result.add(sourceEncoding);
+        result.add(commonTasks);
+        return result;
+    }
+
+    @Override
+    public PropertiesSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public void applySnapshot(PropertiesSnapshot newSnapshot) {
+        if (newSnapshot == null) throw new NullPointerException("newSnapshot");
+
+        List<SnapshotProperty<?>> changedProperties = new LinkedList<SnapshotProperty<?>>();
+
+        mainLock.lock();
+        try {
+            PropertiesSnapshot prevSnapshot = snapshot;
+            for (SnapshotProperty<?> property: getSnapshotProperties()) {
+                if (property.hasChanged(prevSnapshot, newSnapshot)) {
+                    changedProperties.add(property);
+                }
+            }
+            snapshot = newSnapshot;
+        } finally {
+            mainLock.unlock();
+        }
+
+        for (SnapshotProperty<?> property: changedProperties) {
+            property.fireChange();
+        }
     }
 
     @Override
@@ -38,4 +138,63 @@ public final class MemProjectProperties extends AbstractProjectProperties {
     public MutableProperty<List<PredefinedTask>> getCommonTasks() {
         return commonTasks;
     }
+
+    private abstract class SnapshotProperty<ValueType> implements MutableProperty<ValueType> {
+        private final ChangeSupport changes;
+
+        public SnapshotProperty() {
+            this.changes = new ChangeSupport(this);
+        }
+
+        protected abstract ValueType readValue(PropertiesSnapshot snapshot);
+        protected abstract void writeValue(PropertiesSnapshot.Builder builder, ValueType value);
+
+        protected boolean isSameValue(ValueType value1, ValueType value2) {
+            return value1 == value2;
+        }
+
+        public final boolean hasChanged(PropertiesSnapshot snapshot1, PropertiesSnapshot snapshot2) {
+            return !readValue(snapshot1).equals(readValue(snapshot2));
+        }
+
+        public final void fireChange() {
+            changes.fireChange();
+        }
+
+        @Override
+        public final void setValue(ValueType value) {
+            if (value == null) throw new NullPointerException("value");
+
+            mainLock.lock();
+            try {
+                PropertiesSnapshot prevSnapshot = snapshot;
+                if (isSameValue(readValue(prevSnapshot), value)) {
+                    return;
+                }
+
+                PropertiesSnapshot.Builder builder = new PropertiesSnapshot.Builder(prevSnapshot);
+                writeValue(builder, value);
+                snapshot = builder.create();
+            } finally {
+                mainLock.unlock();
+            }
+
+            changes.fireChange();
+        }
+
+        @Override
+        public final ValueType getValue() {
+            return readValue(snapshot);
+        }
+
+        @Override
+        public final void addChangeListener(ChangeListener listener) {
+            changes.addChangeListener(listener);
+        }
+
+        @Override
+        public final void removeChangeListener(ChangeListener listener) {
+            changes.removeChangeListener(listener);
+        }
+    }
 }
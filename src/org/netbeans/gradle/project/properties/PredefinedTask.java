@@ -29,6 +29,30 @@ public final class PredefinedTask {
             return mustExist;
         }
 
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 53 * hash + name.hashCode();
+            hash = 53 * hash + (mustExist ? 1 : 0);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            final Name other = (Name)obj;
+            return this.mustExist == other.mustExist
+                    && this.name.equals(other.name);
+        }
+
         @Override
         public String toString() {
             return name + "[must exist=" + (mustExist ? "yes" : "no") + "]";
@@ -176,6 +200,36 @@ public final class PredefinedTask {
         return builder.create();
     }
 
+    @Override
+    public int hashCode() {
+        int hash = 3;
+        hash = 37 * hash + displayName.hashCode();
+        hash = 37 * hash + taskNames.hashCode();
+        hash = 37 * hash + arguments.hashCode();
+        hash = 37 * hash + jvmArguments.hashCode();
+        hash = 37 * hash + (nonBlocking ? 1 : 0);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final PredefinedTask other = (PredefinedTask)obj;
+        return this.nonBlocking == other.nonBlocking
+                && this.displayName.equals(other.displayName)
+                && this.taskNames.equals(other.taskNames)
+                && this.arguments.equals(other.arguments)
+                && this.jvmArguments.equals(other.jvmArguments);
+    }
+
     @Override
     public String toString() {
         return "PredefinedTask{"
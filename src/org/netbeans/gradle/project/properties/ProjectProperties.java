@@ -8,7 +8,8 @@ import org.netbeans.api.java.platform.JavaPlatform;
 public interface ProjectProperties {
     // When adding new properties, don't forget to update:
     //   - PropertiesSnapshot: Add a field for the new property.
-    //   - XmlPropertiesPersister.load: Do the same as with other properties.
+    //   - MemProjectProperties: Add a property backed by the snapshot.
+    //   - BatchPropertiesLoader.LoadRequest: Do the same as with other properties.
     //   - AbstractProjectProperties.getAllProperties: Return the new property as well.
     //   - PropertiesSnapshot's public constructor: Check the newly added property as well
     //   - Implement saving and loading in XmlPropertyFormat
@@ -20,5 +21,20 @@ public interface ProjectProperties {
     public MutableProperty<Charset> getSourceEncoding();
     public MutableProperty<List<PredefinedTask>> getCommonTasks();
 
+    /**
+     * Returns the current values of every property. The returned snapshot is
+     * immutable and is replaced when any of the properties changes, so this
+     * method is cheap and can be called from any thread.
+     */
+    public PropertiesSnapshot getSnapshot();
+
+    /**
+     * Sets the values of every property to the values of the given snapshot.
+     * The new values are visible all at once, so a listener notified of the
+     * change of one of the properties already sees the new values of the
+     * other properties as well.
+     */
+    public void applySnapshot(PropertiesSnapshot snapshot);
+
     public Collection<MutableProperty<?>> getAllProperties();
 }
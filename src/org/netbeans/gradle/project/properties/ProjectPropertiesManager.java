@@ -1,21 +1,30 @@
 package org.netbeans.gradle.project.properties;
 
 import java.io.File;
-import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import org.netbeans.gradle.project.WaitableSignal;
+import org.netbeans.gradle.project.metrics.GradleMetrics;
+import org.netbeans.gradle.project.metrics.MetricGauge;
+import org.netbeans.gradle.project.persistent.CoalescingPropertiesPersister;
 import org.netbeans.gradle.project.persistent.PropertiesPersister;
 import org.netbeans.gradle.project.persistent.XmlPropertiesPersister;
+import org.openide.filesystems.FileUtil;
 
 public final class ProjectPropertiesManager {
-    private static final Lock MAIN_LOCK = new ReentrantLock();
-    private static final Map<File, ProjectProperties> PROPERTIES
-            = new WeakValueHashMap<File, ProjectProperties>();
+    private static final ConcurrentWeakValueMap<File, ProjectProperties> PROPERTIES
+            = new ConcurrentWeakValueMap<File, ProjectProperties>();
+
+    static {
+        GradleMetrics.registerGauge("cache.project-properties.size", new MetricGauge() {
+            @Override
+            public long getValue() {
+                return PROPERTIES.size();
+            }
+        });
+    }
 
     private static void saveIfRequired(
             final AtomicBoolean saveQueued,
@@ -51,49 +60,44 @@ public final class ProjectPropertiesManager {
         }
     }
 
+    /**
+     * Returns the properties stored in the given file. Every project of a
+     * multi-project build shares the properties file in the directory of the
+     * settings file, so the file is only read when the first project of the
+     * build requests its properties.
+     */
     public static ProjectProperties getProperties(
             File propertiesFile,
             final WaitableSignal loadedSignal) {
 
         if (propertiesFile == null) throw new NullPointerException("propertiesFile");
+        // Different paths of the same file must not load the file twice.
+        File normalizedFile = FileUtil.normalizeFile(propertiesFile.getAbsoluteFile());
 
-        ProjectProperties result;
-
-        MAIN_LOCK.lock();
-        try {
-            result = PROPERTIES.get(propertiesFile);
-        } finally {
-            MAIN_LOCK.unlock();
-        }
+        ProjectProperties result = PROPERTIES.get(normalizedFile);
 
         if (result == null) {
             final ProjectProperties newProperties = new MemProjectProperties();
-            final PropertiesPersister persister = new XmlPropertiesPersister(propertiesFile);
 
-            SwingUtilities.invokeLater(new Runnable() {
-                @Override
-                public void run() {
-                    persister.load(newProperties, new Runnable() {
-                        @Override
-                        public void run() {
-                            if (loadedSignal != null) {
-                                loadedSignal.signal();
-                            }
-                            setSaveOnChange(newProperties, persister);
-                        }
-                    });
-                }
-            });
+            result = PROPERTIES.putIfAbsent(normalizedFile, newProperties);
+            if (result == null) {
+                result = newProperties;
 
-            MAIN_LOCK.lock();
-            try {
-                result = PROPERTIES.get(propertiesFile);
-                if (result == null) {
-                    PROPERTIES.put(propertiesFile, newProperties);
-                    result = newProperties;
-                }
-            } finally {
-                MAIN_LOCK.unlock();
+                final PropertiesPersister persister = new CoalescingPropertiesPersister(
+                        new XmlPropertiesPersister(normalizedFile));
+
+                persister.load(newProperties, new Runnable() {
+                    @Override
+                    public void run() {
+                        if (loadedSignal != null) {
+                            loadedSignal.signal();
+                        }
+                        setSaveOnChange(newProperties, persister);
+                    }
+                });
+            }
+            else if (loadedSignal != null) {
+                loadedSignal.signal();
             }
         }
         else {
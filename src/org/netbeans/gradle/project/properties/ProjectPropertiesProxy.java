@@ -2,9 +2,8 @@ package org.netbeans.gradle.project.properties;
 
 import java.io.File;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -22,7 +21,7 @@ public final class ProjectPropertiesProxy extends AbstractProjectProperties {
     private static final Logger LOGGER = Logger.getLogger(ProjectPropertiesProxy.class.getName());
 
     private final NbGradleProject project;
-    private final AtomicReference<ProjectProperties> propertiesRef;
+    private final AtomicReference<FileProperties> propertiesRef;
     private final ChangeSupport changes;
 
     private final MutablePropertyProxy<String> sourceLevelProxy;
@@ -34,7 +33,7 @@ public final class ProjectPropertiesProxy extends AbstractProjectProperties {
     public ProjectPropertiesProxy(NbGradleProject project) {
         if (project == null) throw new NullPointerException("project");
         this.project = project;
-        this.propertiesRef = new AtomicReference<ProjectProperties>(null);
+        this.propertiesRef = new AtomicReference<FileProperties>(null);
         this.changes = new ChangeSupport(this);
         this.loadedSignal = new WaitableSignal();
 
@@ -70,24 +69,38 @@ public final class ProjectPropertiesProxy extends AbstractProjectProperties {
     }
 
     private ProjectProperties getProperties() {
-        ProjectProperties properties = propertiesRef.get();
+        FileProperties properties = propertiesRef.get();
         if (properties == null) {
             File propertiesFile = XmlPropertiesPersister.getFileForProject(project);
-            properties = ProjectPropertiesManager.getProperties(propertiesFile, loadedSignal);
-            if (propertiesRef.compareAndSet(null, properties)) {
+            FileProperties newProperties = new FileProperties(propertiesFile,
+                    ProjectPropertiesManager.getProperties(propertiesFile, loadedSignal));
+            if (propertiesRef.compareAndSet(null, newProperties)) {
                 project.addModelChangeListener(new ChangeListener() {
                     @Override
                     public void stateChanged(ChangeEvent e) {
-                        File propertiesFile = XmlPropertiesPersister.getFileForProject(project);
-                        propertiesRef.set(ProjectPropertiesManager.getProperties(propertiesFile, loadedSignal));
-                        changes.fireChange();
+                        updateProperties();
                     }
                 });
             }
 
             properties = propertiesRef.get();
         }
-        return properties;
+        return properties.properties;
+    }
+
+    private void updateProperties() {
+        File propertiesFile = XmlPropertiesPersister.getFileForProject(project);
+
+        // Most model changes do not move the settings file, in which case
+        // the properties remain the same and there is nothing to notify.
+        FileProperties currentProperties = propertiesRef.get();
+        if (currentProperties != null && currentProperties.propertiesFile.equals(propertiesFile)) {
+            return;
+        }
+
+        propertiesRef.set(new FileProperties(propertiesFile,
+                ProjectPropertiesManager.getProperties(propertiesFile, loadedSignal)));
+        changes.fireChange();
     }
 
     private void addModelChangeListener(ChangeListener listener) {
@@ -98,6 +111,16 @@ public final class ProjectPropertiesProxy extends AbstractProjectProperties {
         changes.removeChangeListener(listener);
     }
 
+    @Override
+    public PropertiesSnapshot getSnapshot() {
+        return getProperties().getSnapshot();
+    }
+
+    @Override
+    public void applySnapshot(PropertiesSnapshot snapshot) {
+        getProperties().applySnapshot(snapshot);
+    }
+
     @Override
     public MutableProperty<String> getSourceLevel() {
         return sourceLevelProxy;
@@ -118,6 +141,16 @@ public final class ProjectPropertiesProxy extends AbstractProjectProperties {
         return commonTasksProxy;
     }
 
+    private static final class FileProperties {
+        public final File propertiesFile;
+        public final ProjectProperties properties;
+
+        public FileProperties(File propertiesFile, ProjectProperties properties) {
+            this.propertiesFile = propertiesFile;
+            this.properties = properties;
+        }
+    }
+
     private static interface MutablePropertyRef<ValueType> {
         public MutableProperty<ValueType> getProperty();
 
@@ -156,37 +189,58 @@ public final class ProjectPropertiesProxy extends AbstractProjectProperties {
         private final Lock mainLock;
         private MutableProperty<?> forwardingTo;
         private final ChangeListener forwarder;
+        private final ChangeListener propertyMovedListener;
+        // Copied on write, so forwarding events requires neither locking
+        // nor copying the listeners.
         private final List<ChangeListener> listeners;
 
         public MutablePropertyProxy(MutablePropertyRef<ValueType> propertyRef) {
             this.propertyRef = propertyRef;
             this.mainLock = new ReentrantLock();
-            this.listeners = new LinkedList<ChangeListener>();
+            this.listeners = new CopyOnWriteArrayList<ChangeListener>();
             this.forwardingTo = null;
             this.forwarder = new ChangeListener() {
                 @Override
                 public void stateChanged(ChangeEvent e) {
-                    List<ChangeListener> listenersCopy = null;
-                    mainLock.lock();
-                    try {
-                        if (!listeners.isEmpty()) {
-                            listenersCopy = new ArrayList<ChangeListener>(listeners);
-                        }
-                    } finally {
-                        mainLock.unlock();
-                    }
-
-                    if (listenersCopy != null) {
-                        for (ChangeListener listener: listenersCopy) {
-                            try {
-                                listener.stateChanged(e);
-                            } catch (Throwable ex) {
-                                LOGGER.log(Level.SEVERE, "Unexpected exception in a listener.", ex);
-                            }
+                    for (ChangeListener listener: listeners) {
+                        try {
+                            listener.stateChanged(e);
+                        } catch (Throwable ex) {
+                            LOGGER.log(Level.SEVERE, "Unexpected exception in a listener.", ex);
                         }
                     }
                 }
             };
+            this.propertyMovedListener = new ChangeListener() {
+                @Override
+                public void stateChanged(ChangeEvent e) {
+                    updateForwardingTo();
+                    forwarder.stateChanged(e);
+                }
+            };
+        }
+
+        /**
+         * Moves the forwarding listener to the property of the current
+         * properties file, so that changes of the new property are forwarded
+         * after the properties file of the project has changed.
+         */
+        private void updateForwardingTo() {
+            mainLock.lock();
+            try {
+                if (forwardingTo == null) {
+                    return;
+                }
+
+                MutableProperty<?> newForwardingTo = propertyRef.getProperty();
+                if (newForwardingTo != forwardingTo) {
+                    forwardingTo.removeChangeListener(forwarder);
+                    newForwardingTo.addChangeListener(forwarder);
+                    forwardingTo = newForwardingTo;
+                }
+            } finally {
+                mainLock.unlock();
+            }
         }
 
         @Override
@@ -206,7 +260,7 @@ public final class ProjectPropertiesProxy extends AbstractProjectProperties {
                 if (listeners.isEmpty()) {
                     forwardingTo = propertyRef.getProperty();
                     forwardingTo.addChangeListener(forwarder);
-                    propertyRef.addChangeListener(forwarder);
+                    propertyRef.addChangeListener(propertyMovedListener);
                 }
                 listeners.add(listener);
             } finally {
@@ -225,8 +279,8 @@ public final class ProjectPropertiesProxy extends AbstractProjectProperties {
                 listeners.remove(listener);
                 if (listeners.isEmpty()) {
                     if (forwardingTo != null) {
-                        propertyRef.removeChangeListener(forwarder);
-                        forwardingTo.removeChangeListener(listener);
+                        propertyRef.removeChangeListener(propertyMovedListener);
+                        forwardingTo.removeChangeListener(forwarder);
                         forwardingTo = null;
                     }
                     else {
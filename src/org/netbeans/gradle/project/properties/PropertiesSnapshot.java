@@ -23,6 +23,15 @@ public final class PropertiesSnapshot {
             this.commonTasks = Collections.emptyList();
         }
 
+        public Builder(PropertiesSnapshot snapshot) {
+            if (snapshot == null) throw new NullPointerException("snapshot");
+
+            this.sourceLevel = snapshot.getSourceLevel();
+            this.platform = snapshot.getPlatform();
+            this.sourceEncoding = snapshot.getSourceEncoding();
+            this.commonTasks = snapshot.getCommonTasks();
+        }
+
         public String getSourceLevel() {
             return sourceLevel;
         }
@@ -104,4 +113,32 @@ public final class PropertiesSnapshot {
     public List<PredefinedTask> getCommonTasks() {
         return commonTasks;
     }
+
+    @Override
+    public int hashCode() {
+        int hash = 5;
+        hash = 71 * hash + sourceLevel.hashCode();
+        hash = 71 * hash + platform.hashCode();
+        hash = 71 * hash + sourceEncoding.hashCode();
+        hash = 71 * hash + commonTasks.hashCode();
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final PropertiesSnapshot other = (PropertiesSnapshot)obj;
+        return this.sourceLevel.equals(other.sourceLevel)
+                && this.platform.equals(other.platform)
+                && this.sourceEncoding.equals(other.sourceEncoding)
+                && this.commonTasks.equals(other.commonTasks);
+    }
 }
@@ -15,6 +15,8 @@ import javax.swing.event.ChangeListener;
 import org.netbeans.api.java.queries.BinaryForSourceQuery;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.ProjectInitListener;
+import org.netbeans.gradle.project.metrics.GradleMetrics;
+import org.netbeans.gradle.project.metrics.MetricCounter;
 import org.netbeans.gradle.project.model.NbDependencyGroup;
 import org.netbeans.gradle.project.model.NbGradleModule;
 import org.netbeans.gradle.project.model.NbModelUtils;
@@ -33,6 +35,8 @@ implements
     private static final Logger LOGGER = Logger.getLogger(GradleSourceForBinaryQuery.class.getName());
 
     private static final URL[] NO_ROOTS = new URL[0];
+    private static final MetricCounter CACHE_HITS = GradleMetrics.getCounter("query.binary-for-source.hits");
+    private static final MetricCounter CACHE_MISSES = GradleMetrics.getCounter("query.binary-for-source.misses");
 
     private final ConcurrentMap<FileObject, BinaryForSourceQuery.Result> cache;
     private final NbGradleProject project;
@@ -162,8 +166,10 @@ implements
 
         BinaryForSourceQuery.Result result = cache.get(sourceRootObj);
         if (result != null) {
+            CACHE_HITS.increment();
             return result;
         }
+        CACHE_MISSES.increment();
 
         result = new BinaryForSourceQuery.Result() {
             @Override
@@ -7,6 +7,9 @@ import java.util.concurrent.ConcurrentMap;
 import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeListener;
 import org.netbeans.api.java.queries.BinaryForSourceQuery.Result;
+import org.netbeans.gradle.project.metrics.GradleMetrics;
+import org.netbeans.gradle.project.metrics.MetricCounter;
+import org.netbeans.gradle.project.metrics.MetricGauge;
 import org.netbeans.spi.java.queries.BinaryForSourceQueryImplementation;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
@@ -18,6 +21,8 @@ import org.openide.util.lookup.ServiceProviders;
 public final class GradleCacheBinaryForSourceQuery implements BinaryForSourceQueryImplementation {
     private static final URL[] NO_ROOTS = new URL[0];
     private static final ChangeSupport CHANGES;
+    private static final MetricCounter CACHE_HITS = GradleMetrics.getCounter("query.gradle-cache-binary-for-source.hits");
+    private static final MetricCounter CACHE_MISSES = GradleMetrics.getCounter("query.gradle-cache-binary-for-source.misses");
 
     static {
         EventSource eventSource = new EventSource();
@@ -33,6 +38,14 @@ public final class GradleCacheBinaryForSourceQuery implements BinaryForSourceQue
 
     public GradleCacheBinaryForSourceQuery() {
         this.cache = new ConcurrentHashMap<FileObject, Result>();
+
+        final ConcurrentMap<?, ?> currentCache = cache;
+        GradleMetrics.registerGauge("query.gradle-cache-binary-for-source.size", new MetricGauge() {
+            @Override
+            public long getValue() {
+                return currentCache.size();
+            }
+        });
     }
 
     public static void notifyCacheChange() {
@@ -61,8 +74,10 @@ public final class GradleCacheBinaryForSourceQuery implements BinaryForSourceQue
 
         Result result = cache.get(sourceRootObj);
         if (result != null) {
+            CACHE_HITS.increment();
             return result;
         }
+        CACHE_MISSES.increment();
 
         FileObject cacheHome = FileUtil.toFileObject(GradleFileUtils.GRADLE_CACHE_HOME);
         if (cacheHome == null || !FileUtil.isParentOf(cacheHome, sourceRootObj)) {
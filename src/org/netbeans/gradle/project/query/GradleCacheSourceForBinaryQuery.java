@@ -7,6 +7,9 @@ import java.util.concurrent.ConcurrentMap;
 import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeListener;
 import org.netbeans.api.java.queries.SourceForBinaryQuery;
+import org.netbeans.gradle.project.metrics.GradleMetrics;
+import org.netbeans.gradle.project.metrics.MetricCounter;
+import org.netbeans.gradle.project.metrics.MetricGauge;
 import org.netbeans.spi.java.queries.SourceForBinaryQueryImplementation;
 import org.netbeans.spi.java.queries.SourceForBinaryQueryImplementation2;
 import org.openide.filesystems.FileObject;
@@ -21,6 +24,8 @@ import org.openide.util.lookup.ServiceProviders;
 public final class GradleCacheSourceForBinaryQuery implements SourceForBinaryQueryImplementation2 {
     private static final FileObject[] NO_ROOTS = new FileObject[0];
     private static final ChangeSupport CHANGES;
+    private static final MetricCounter CACHE_HITS = GradleMetrics.getCounter("query.gradle-cache-source-for-binary.hits");
+    private static final MetricCounter CACHE_MISSES = GradleMetrics.getCounter("query.gradle-cache-source-for-binary.misses");
 
     static {
         EventSource eventSource = new EventSource();
@@ -36,6 +41,14 @@ public final class GradleCacheSourceForBinaryQuery implements SourceForBinaryQue
 
     public GradleCacheSourceForBinaryQuery() {
         this.cache = new ConcurrentHashMap<FileObject, Result>();
+
+        final ConcurrentMap<?, ?> currentCache = cache;
+        GradleMetrics.registerGauge("query.gradle-cache-source-for-binary.size", new MetricGauge() {
+            @Override
+            public long getValue() {
+                return currentCache.size();
+            }
+        });
     }
 
     public static void notifyCacheChange() {
@@ -64,8 +77,10 @@ public final class GradleCacheSourceForBinaryQuery implements SourceForBinaryQue
 
         Result result = cache.get(binaryRootObj);
         if (result != null) {
+            CACHE_HITS.increment();
             return result;
         }
+        CACHE_MISSES.increment();
 
         FileObject cacheHome = FileUtil.toFileObject(GradleFileUtils.GRADLE_CACHE_HOME);
         if (cacheHome == null || !FileUtil.isParentOf(cacheHome, binaryRootObj)) {
@@ -140,7 +140,7 @@ implements
         project.getProperties().getPlatform().addChangeListener(new ChangeListener() {
             @Override
             public void stateChanged(ChangeEvent e) {
-                currentPlatform = project.getProperties().getPlatform().getValue();
+                currentPlatform = project.getProperties().getSnapshot().getPlatform();
                 if (hasBeenUsed.get()) {
                     onModelChange();
                 }
@@ -419,7 +419,7 @@ implements
         List<PathResourceImplementation> jdk = new LinkedList<PathResourceImplementation>();
         JavaPlatform platform = currentPlatform;
         if (platform == null) {
-            platform = project.getProperties().getPlatform().getValue();
+            platform = project.getProperties().getSnapshot().getPlatform();
         }
         for (ClassPath.Entry entry: platform.getBootstrapLibraries().entries()) {
             jdk.add(ClassPathSupport.createResource(entry.getURL()));
@@ -15,6 +15,8 @@ import org.netbeans.api.java.classpath.ClassPath;
 import org.netbeans.api.java.classpath.JavaClassPathConstants;
 import org.netbeans.api.java.platform.JavaPlatform;
 import org.netbeans.gradle.project.GradleHomeRegistry;
+import org.netbeans.gradle.project.metrics.GradleMetrics;
+import org.netbeans.gradle.project.metrics.MetricCounter;
 import org.netbeans.gradle.project.properties.GlobalGradleSettings;
 import org.netbeans.spi.java.classpath.ClassPathProvider;
 import org.netbeans.spi.java.classpath.support.ClassPathSupport;
@@ -31,8 +33,8 @@ public final class GradleHomeClassPathProvider implements ClassPathProvider {
     private final SimpleCache<FileObject, ClassPath> binPathsCache;
 
     public GradleHomeClassPathProvider() {
-        this.sourcePathsCache = new SimpleCache<FileObject, ClassPath>(1);
-        this.binPathsCache = new SimpleCache<FileObject, ClassPath>(1);
+        this.sourcePathsCache = new SimpleCache<FileObject, ClassPath>("cache.gradle-home-sources", 1);
+        this.binPathsCache = new SimpleCache<FileObject, ClassPath>("cache.gradle-home-binaries", 1);
     }
 
     public static URL[] getGradleLibs(FileObject gradleHomeObj, FilenameFilter filter) {
@@ -153,9 +155,13 @@ public final class GradleHomeClassPathProvider implements ClassPathProvider {
         private final Lock cacheLock;
         private final Map<KeyType, ValueType> cache;
         private final int maxCapacity;
+        private final MetricCounter hits;
+        private final MetricCounter misses;
 
-        public SimpleCache(int maxCapacity) {
+        public SimpleCache(String metricName, int maxCapacity) {
             this.cacheLock = new ReentrantLock();
+            this.hits = GradleMetrics.getCounter(metricName + ".hits");
+            this.misses = GradleMetrics.getCounter(metricName + ".misses");
 
             float loadFactor = 0.75f;
             int capacity = (int)Math.floor((float)(maxCapacity + 1) / loadFactor);
@@ -178,12 +184,21 @@ public final class GradleHomeClassPathProvider implements ClassPathProvider {
         }
 
         public ValueType tryGetFromCache(KeyType key) {
+            ValueType result;
             cacheLock.lock();
             try {
-                return cache.get(key);
+                result = cache.get(key);
             } finally {
                 cacheLock.unlock();
             }
+
+            if (result != null) {
+                hits.increment();
+            }
+            else {
+                misses.increment();
+            }
+            return result;
         }
     }
 }
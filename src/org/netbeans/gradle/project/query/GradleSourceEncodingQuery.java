@@ -20,7 +20,7 @@ public final class GradleSourceEncodingQuery extends FileEncodingQueryImplementa
         if (FileUtil.isParentOf(project.getProjectDirectory(), file)) {
             ProjectProperties properties = project.tryGetLoadedProperties();
             return properties != null
-                    ? properties.getSourceEncoding().getValue()
+                    ? properties.getSnapshot().getSourceEncoding()
                     : null;
         }
         else {
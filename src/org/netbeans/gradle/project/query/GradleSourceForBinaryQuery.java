@@ -14,6 +14,8 @@ import javax.swing.event.ChangeListener;
 import org.netbeans.api.java.queries.SourceForBinaryQuery;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.ProjectInitListener;
+import org.netbeans.gradle.project.metrics.GradleMetrics;
+import org.netbeans.gradle.project.metrics.MetricCounter;
 import org.netbeans.gradle.project.model.NbDependencyGroup;
 import org.netbeans.gradle.project.model.NbGradleModel;
 import org.netbeans.gradle.project.model.NbGradleModule;
@@ -54,6 +56,8 @@ implements
     private static final Logger LOGGER = Logger.getLogger(GradleSourceForBinaryQuery.class.getName());
 
     private static final FileObject[] NO_ROOTS = new FileObject[0];
+    private static final MetricCounter CACHE_HITS = GradleMetrics.getCounter("query.source-for-binary.hits");
+    private static final MetricCounter CACHE_MISSES = GradleMetrics.getCounter("query.source-for-binary.misses");
 
     private final ConcurrentMap<FileObject, SourceForBinaryQueryImplementation2.Result> cache;
     private final NbGradleProject project;
@@ -168,8 +172,10 @@ implements
 
         SourceForBinaryQueryImplementation2.Result result = cache.get(binaryRootObj);
         if (result != null) {
+            CACHE_HITS.increment();
             return result;
         }
+        CACHE_MISSES.increment();
 
         result = new SourceForBinaryQueryImplementation2.Result() {
             @Override
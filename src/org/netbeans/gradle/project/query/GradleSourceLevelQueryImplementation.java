@@ -46,7 +46,7 @@ implements
         return new Result() {
             @Override
             public String getSourceLevel() {
-                return project.getProperties().getSourceLevel().getValue();
+                return project.getProperties().getSnapshot().getSourceLevel();
             }
 
             @Override
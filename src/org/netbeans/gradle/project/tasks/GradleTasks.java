@@ -10,13 +10,18 @@ import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.gradle.tooling.BuildLauncher;
@@ -27,13 +32,26 @@ import org.gradle.tooling.ProjectConnection;
 import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.NbStrings;
+import org.netbeans.gradle.project.metrics.MeteredExecutor;
 import org.netbeans.gradle.project.model.GradleModelLoader;
+import org.netbeans.gradle.project.output.AsyncOutputHandler;
 import org.netbeans.gradle.project.output.BuildErrorConsumer;
+import org.netbeans.gradle.project.output.BuildEvent;
+import org.netbeans.gradle.project.output.BuildEventListener;
+import org.netbeans.gradle.project.output.BuildEventStream;
+import org.netbeans.gradle.project.output.BuildProfile;
+import org.netbeans.gradle.project.output.BuildProfileOutputListener;
+import org.netbeans.gradle.project.output.BuildProfiler;
+import org.netbeans.gradle.project.output.FileExistenceCache;
 import org.netbeans.gradle.project.output.FileLineConsumer;
 import org.netbeans.gradle.project.output.InputOutputManager;
 import org.netbeans.gradle.project.output.InputOutputManager.IORef;
 import org.netbeans.gradle.project.output.LineOutputWriter;
+import org.netbeans.gradle.project.output.OutputSpillFile;
+import org.netbeans.gradle.project.output.OutputSpillSearchListener;
+import org.netbeans.gradle.project.output.OutputSpillVisitor;
 import org.netbeans.gradle.project.output.OutputUrlConsumer;
+import org.netbeans.gradle.project.output.OutputWindowLimit;
 import org.netbeans.gradle.project.output.ProjectFileConsumer;
 import org.netbeans.gradle.project.output.SmartOutputHandler;
 import org.netbeans.gradle.project.output.StackTraceConsumer;
@@ -45,11 +63,18 @@ import org.openide.util.RequestProcessor;
 import org.openide.windows.OutputWriter;
 
 public final class GradleTasks {
-    private static final RequestProcessor TASK_EXECUTOR
-            = new RequestProcessor("Gradle-Task-Executor", 10, true);
+    private static final Executor TASK_EXECUTOR = new MeteredExecutor(
+            "queue.task-executor",
+            new RequestProcessor("Gradle-Task-Executor", 10, true));
 
     private static final Logger LOGGER = Logger.getLogger(GradleTasks.class.getName());
 
+    // The hyperlinks of the output are resolved long after the build has
+    // completed, so the cache is shared by every build.
+    private static final FileExistenceCache FILE_CACHE = new FileExistenceCache();
+
+    private static final int OUTPUT_TAIL_LINE_COUNT = 50;
+
     private static File getJavaHome() {
         FileObject jdkHomeObj = GlobalGradleSettings.getCurrentGradleJdkHome();
         return jdkHomeObj != null ? FileUtil.toFile(jdkHomeObj) : null;
@@ -67,7 +92,10 @@ public final class GradleTasks {
         buildOutput.println();
     }
 
-    private static void configureBuildLauncher(BuildLauncher buildLauncher, GradleTaskDef taskDef, final ProgressHandle progress) {
+    private static void configureBuildLauncher(
+            BuildLauncher buildLauncher,
+            GradleTaskDef taskDef,
+            final BuildEventStream eventStream) {
         File javaHome = getJavaHome();
         if (javaHome != null) {
             buildLauncher.setJavaHome(javaHome);
@@ -83,7 +111,7 @@ public final class GradleTasks {
         buildLauncher.addProgressListener(new ProgressListener() {
             @Override
             public void statusChanged(ProgressEvent pe) {
-                progress.progress(pe.getDescription());
+                eventStream.progress(pe.getDescription());
             }
         });
 
@@ -95,12 +123,15 @@ public final class GradleTasks {
             GradleTaskDef taskDef,
             BuildLauncher buildLauncher,
             OutputWriter buildOutput,
-            OutputWriter buildErrOutput) {
+            OutputWriter buildErrOutput,
+            OutputSpillVisitor spillVisitor,
+            OutputWindowLimit windowLimit,
+            BuildEventStream eventStream) {
 
         List<SmartOutputHandler.Consumer> consumers = new LinkedList<SmartOutputHandler.Consumer>();
         consumers.add(new StackTraceConsumer(project));
         consumers.add(new OutputUrlConsumer());
-        consumers.add(new ProjectFileConsumer(project));
+        consumers.add(new ProjectFileConsumer(project, FILE_CACHE));
 
         List<SmartOutputHandler.Consumer> outputConsumers = new LinkedList<SmartOutputHandler.Consumer>();
         outputConsumers.addAll(consumers);
@@ -108,21 +139,113 @@ public final class GradleTasks {
         List<SmartOutputHandler.Consumer> errorConsumers = new LinkedList<SmartOutputHandler.Consumer>();
         errorConsumers.add(new BuildErrorConsumer());
         errorConsumers.addAll(consumers);
-        errorConsumers.add(new FileLineConsumer());
+        errorConsumers.add(new FileLineConsumer(FILE_CACHE));
 
-        Writer forwardedStdOut = new LineOutputWriter(new SmartOutputHandler(
+        List<SmartOutputHandler.Visitor> outputVisitors = new LinkedList<SmartOutputHandler.Visitor>();
+        outputVisitors.add(taskDef.getStdOutListener());
+
+        List<SmartOutputHandler.Visitor> errorVisitors = new LinkedList<SmartOutputHandler.Visitor>();
+        errorVisitors.add(taskDef.getStdErrListener());
+
+        if (spillVisitor != null) {
+            outputVisitors.add(spillVisitor);
+            errorVisitors.add(spillVisitor);
+        }
+
+        // The build events must be recognized when the lines are written,
+        // because they are ordered and timed relative to the progress events.
+        List<SmartOutputHandler.Visitor> immediateVisitors
+                = Collections.<SmartOutputHandler.Visitor>singletonList(eventStream);
+
+        // The lines are processed by a background task, so that the build is
+        // not slowed down by looking for hyperlinks in the output.
+        Writer forwardedStdOut = new LineOutputWriter(new AsyncOutputHandler(new SmartOutputHandler(
                 buildOutput,
-                Arrays.asList(taskDef.getStdOutListener()),
-                outputConsumers));
-        Writer forwardedStdErr = new LineOutputWriter(new SmartOutputHandler(
+                outputVisitors,
+                outputConsumers,
+                windowLimit), immediateVisitors));
+        Writer forwardedStdErr = new LineOutputWriter(new AsyncOutputHandler(new SmartOutputHandler(
                 buildErrOutput,
-                Arrays.asList(taskDef.getStdErrListener()),
-                errorConsumers));
+                errorVisitors,
+                errorConsumers,
+                windowLimit), immediateVisitors));
+
+        OutputStream stdOut = new WriterOutputStream(forwardedStdOut);
+        OutputStream stdErr = new WriterOutputStream(forwardedStdErr);
+        buildLauncher.setStandardOutput(stdOut);
+        buildLauncher.setStandardError(stdErr);
+
+        // The streams must be closed (not the writers), so that the bytes of
+        // an incomplete character at the end of the output are decoded.
+        return new OutputRef(stdOut, stdErr);
+    }
+
+    private static OutputSpillFile tryCreateSpillFile() {
+        try {
+            return OutputSpillFile.create();
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to create a file for the output of the build.", ex);
+            return null;
+        }
+    }
+
+    private static void printOutputTail(OutputWriter buildOutput, OutputSpillFile spillFile, int lineLimit)
+            throws IOException {
+        // The summary of a failed build is printed at the end of the output,
+        // so the last lines are echoed even if they are over the limit.
+        int lineCount = spillFile.getLineCount();
+        int firstLine = Math.max(lineLimit, lineCount - OUTPUT_TAIL_LINE_COUNT);
+        List<String> lines = spillFile.readLines(firstLine, lineCount - firstLine);
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        buildOutput.println();
+        buildOutput.println(NbStrings.getOutputTail(firstLine + 1, firstLine + lines.size()));
+        for (String line: lines) {
+            buildOutput.println(line);
+        }
+    }
+
+    private static void finishSpillFile(
+            IORef ioRef,
+            OutputWriter buildOutput,
+            String caption,
+            OutputSpillFile spillFile,
+            OutputSpillVisitor spillVisitor,
+            int lineLimit) {
+        try {
+            spillFile.close();
+
+            int lineCount = spillFile.getLineCount();
+            if (lineCount > lineLimit && !spillVisitor.hasFailed()) {
+                ioRef.setSpillFile(spillFile);
+
+                buildOutput.println();
+                buildOutput.println(NbStrings.getOutputTruncated(lineLimit, lineCount, spillFile.getFile().getPath()));
+                buildOutput.println(NbStrings.getSearchFullOutput(),
+                        new OutputSpillSearchListener(spillFile, caption));
+                printOutputTail(buildOutput, spillFile, lineLimit);
+            }
+            else {
+                spillFile.delete();
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to finish the file of the output: " + spillFile.getFile(), ex);
+        }
+    }
 
-        buildLauncher.setStandardOutput(new WriterOutputStream(forwardedStdOut));
-        buildLauncher.setStandardError(new WriterOutputStream(forwardedStdErr));
+    private static void printBuildProfile(OutputWriter buildOutput, String caption, BuildProfile profile) {
+        if (profile == null || profile.getTasks().isEmpty()) {
+            return;
+        }
 
-        return new OutputRef(forwardedStdOut, forwardedStdErr);
+        try {
+            buildOutput.println(BuildProfileOutputListener.getSummary(profile),
+                    new BuildProfileOutputListener(profile, caption));
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Error while printing line.", ex);
+        }
     }
 
     private static void doGradleTasksWithProgress(
@@ -151,8 +274,21 @@ public final class GradleTasks {
         try {
             projectConnection = gradleConnector.connect();
 
+            BuildEventStream eventStream = new BuildEventStream();
+            eventStream.addListener(new BuildEventListener() {
+                @Override
+                public void onBuildEvent(BuildEvent event) {
+                    if (event.getKind() == BuildEvent.Kind.PROGRESS) {
+                        progress.progress(event.getMessage());
+                    }
+                }
+            });
+
+            BuildProfiler profiler = new BuildProfiler(command, eventStream.getStartTime());
+            eventStream.addListener(profiler);
+
             BuildLauncher buildLauncher = projectConnection.newBuild();
-            configureBuildLauncher(buildLauncher, taskDef, progress);
+            configureBuildLauncher(buildLauncher, taskDef, eventStream);
 
             IORef ioRef = InputOutputManager.getInputOutput(
                     taskDef.getCaption(),
@@ -173,15 +309,47 @@ public final class GradleTasks {
 
                         printCommand(buildOutput, command, taskDef);
 
+                        // Only the first lines are printed to the output
+                        // window if there is a limit, the complete output is
+                        // saved to a file which can be searched afterwards.
+                        int lineLimit = GlobalGradleSettings.getOutputLineLimit().getValue();
+                        OutputSpillFile spillFile = lineLimit > 0 ? tryCreateSpillFile() : null;
+                        OutputWindowLimit windowLimit;
+                        OutputSpillVisitor spillVisitor;
+                        if (spillFile != null) {
+                            windowLimit = new OutputWindowLimit(lineLimit);
+                            spillVisitor = new OutputSpillVisitor(spillFile, windowLimit);
+                        }
+                        else {
+                            windowLimit = OutputWindowLimit.UNLIMITED;
+                            spillVisitor = null;
+                        }
+
                         OutputRef outputRef = configureOutput(
-                                project, taskDef, buildLauncher, buildOutput, buildErrOutput);
+                                project, taskDef, buildLauncher, buildOutput, buildErrOutput,
+                                spillVisitor, windowLimit, eventStream);
+                        String buildFailure = null;
                         try {
                             ioRef.getIo().select();
                             buildLauncher.run();
+                        } catch (Throwable ex) {
+                            buildFailure = ex.toString();
+                            throw ex;
                         } finally {
-                            // This close method will only forward the last lines
-                            // if they were not terminated with a line separator.
-                            outputRef.close();
+                            try {
+                                // This close method will only forward the last lines
+                                // if they were not terminated with a line separator.
+                                outputRef.close();
+                            } finally {
+                                try {
+                                    eventStream.finish(buildFailure);
+                                    printBuildProfile(buildOutput, taskDef.getCaption(), profiler.getProfile());
+                                } finally {
+                                    if (spillFile != null) {
+                                        finishSpillFile(ioRef, buildOutput, taskDef.getCaption(), spillFile, spillVisitor, lineLimit);
+                                    }
+                                }
+                            }
                         }
                     } catch (Throwable ex) {
                         LOGGER.log(
@@ -426,61 +594,185 @@ public final class GradleTasks {
     }
 
     private static class WriterOutputStream extends OutputStream {
+        private static final int BUFFER_SIZE = 8 * 1024;
+
         private final Writer writer;
-        private final Charset encoding;
+        private final CharsetDecoder decoder;
+        private final ReentrantLock mainLock;
+        // The byte buffer may contain the first bytes of a character whose
+        // remaining bytes have not been written yet.
+        private final ByteBuffer byteBuffer;
+        private final CharBuffer charBuffer;
+        private boolean closed;
 
         public WriterOutputStream(Writer writer, Charset encoding) {
             if (writer == null) throw new NullPointerException("writer");
             if (encoding == null) throw new NullPointerException("encoding");
+
             this.writer = writer;
-            this.encoding = encoding;
+            this.decoder = encoding.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.mainLock = new ReentrantLock();
+            this.byteBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+            this.charBuffer = CharBuffer.allocate(BUFFER_SIZE);
+            this.closed = false;
         }
 
         public WriterOutputStream(Writer writer) {
             this(writer, Charset.defaultCharset());
         }
 
+        private void checkNotClosed() throws IOException {
+            assert mainLock.isHeldByCurrentThread();
+
+            if (closed) {
+                throw new IOException("The stream has already been closed.");
+            }
+        }
+
+        private void writeDecodedChars() throws IOException {
+            assert mainLock.isHeldByCurrentThread();
+
+            if (charBuffer.position() > 0) {
+                writer.write(charBuffer.array(), charBuffer.arrayOffset(), charBuffer.position());
+                charBuffer.clear();
+            }
+        }
+
+        private void decodeBuffer(boolean endOfInput) throws IOException {
+            assert mainLock.isHeldByCurrentThread();
+
+            byteBuffer.flip();
+            try {
+                while (true) {
+                    CoderResult result = decoder.decode(byteBuffer, charBuffer, endOfInput);
+                    if (result.isOverflow()) {
+                        writeDecodedChars();
+                    }
+                    else if (result.isUnderflow()) {
+                        break;
+                    }
+                    else {
+                        // Errors are replaced, so this should not happen.
+                        result.throwException();
+                    }
+                }
+            } finally {
+                byteBuffer.compact();
+            }
+        }
+
         @Override
         public void close() throws IOException {
-            writer.close();
+            try {
+                mainLock.lock();
+                try {
+                    if (closed) {
+                        return;
+                    }
+                    closed = true;
+
+                    decodeBuffer(true);
+                    while (decoder.flush(charBuffer).isOverflow()) {
+                        writeDecodedChars();
+                    }
+                    writeDecodedChars();
+                } finally {
+                    mainLock.unlock();
+                }
+            } finally {
+                writer.close();
+            }
         }
 
         @Override
         public void flush() throws IOException {
+            mainLock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                writeDecodedChars();
+            } finally {
+                mainLock.unlock();
+            }
+
             writer.flush();
         }
 
         @Override
         public void write(byte[] b) throws IOException {
-            writer.write(new String(b, encoding));
+            write(b, 0, b.length);
         }
 
         @Override
         public void write(byte[] b, int off, int len) throws IOException {
-            writer.write(new String(b, off, len, encoding));
+            if (b == null) throw new NullPointerException("b");
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+
+            mainLock.lock();
+            try {
+                checkNotClosed();
+
+                int currentOffset = off;
+                int currentLength = len;
+                while (currentLength > 0) {
+                    int toCopy = Math.min(byteBuffer.remaining(), currentLength);
+                    byteBuffer.put(b, currentOffset, toCopy);
+                    currentOffset += toCopy;
+                    currentLength -= toCopy;
+
+                    decodeBuffer(false);
+                }
+                writeDecodedChars();
+            } finally {
+                mainLock.unlock();
+            }
         }
 
         @Override
         public void write(int b) throws IOException {
-            write(new byte[]{(byte)b});
+            mainLock.lock();
+            try {
+                checkNotClosed();
+
+                byteBuffer.put((byte)b);
+                decodeBuffer(false);
+                writeDecodedChars();
+            } finally {
+                mainLock.unlock();
+            }
         }
     }
 
     private static class OutputRef implements Closeable {
-        private final Writer[] writers;
+        private final OutputStream[] streams;
+
+        public OutputRef(OutputStream... streams) {
+            this.streams = streams.clone();
+            for (OutputStream stream: this.streams) {
+                if (stream == null) throw new NullPointerException("stream");
+            }
+        }
 
-        public OutputRef(Writer... writers) {
-            this.writers = writers.clone();
-            for (Writer writer: this.writers) {
-                if (writer == null) throw new NullPointerException("writer");
+        private static void closeAll(OutputStream[] streams, int index) throws IOException {
+            if (index >= streams.length) {
+                return;
+            }
+
+            try {
+                streams[index].close();
+            } finally {
+                closeAll(streams, index + 1);
             }
         }
 
         @Override
         public void close() throws IOException {
-            for (Writer writer: writers) {
-                writer.close();
-            }
+            closeAll(streams, 0);
         }
     }
 
@@ -1,11 +1,13 @@
 package org.netbeans.gradle.project.view;
 
 import java.awt.Image;
+import java.io.File;
 import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -61,16 +63,119 @@ public final class GradleDependenciesNode extends AbstractNode {
         return NbStrings.getDependenciesNodeCaption();
     }
 
+    private enum DependencyGroup {
+        COMPILE,
+        RUNTIME,
+        TEST_COMPILE,
+        TEST_RUNTIME;
+
+        public String getCaption() {
+            switch (this) {
+                case COMPILE:
+                    return NbStrings.getCompileDependenciesNodeCaption();
+                case RUNTIME:
+                    return NbStrings.getRuntimeDependenciesNodeCaption();
+                case TEST_COMPILE:
+                    return NbStrings.getTestCompileDependenciesNodeCaption();
+                case TEST_RUNTIME:
+                    return NbStrings.getTestRuntimeDependenciesNodeCaption();
+                default:
+                    throw new AssertionError(this.name());
+            }
+        }
+    }
+
+    private static List<NbDependency> orderDependencies(Collection<NbDependency> dependencies) {
+        List<NbDependency> result = new ArrayList<NbDependency>(dependencies);
+        final Collator textComparer = Collator.getInstance(Locale.US);
+        final Map<Class<?>, Integer> classOrder = new HashMap<Class<?>, Integer>();
+        classOrder.put(NbModuleDependency.class, 0);
+        classOrder.put(NbUriDependency.class, 1);
+
+        Collections.sort(result, new Comparator<NbDependency>() {
+            @Override
+            public int compare(NbDependency o1, NbDependency o2) {
+                if (o1.getClass() != o2.getClass()) {
+                    Integer index1 = classOrder.get(o1.getClass());
+                    Integer index2 = classOrder.get(o2.getClass());
+
+                    if (index1 == null) {
+                        if (index2 != null) {
+                            return 1;
+                        }
+                    }
+                    else if (index2 == null) {
+                        // index1 != null
+                        return -1;
+                    }
+                    else {
+                        int index1Value = index1;
+                        int index2Value = index2;
+                        return index1Value == index2Value
+                                ? 0
+                                : (index1Value < index2Value ? -1 : 1);
+                    }
+                }
+
+                return textComparer.compare(o1.getShortName(), o2.getShortName());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The dependencies of a module split into groups, where every dependency
+     * is only listed in the first group it is needed for.
+     */
+    private static final class DependencyGroups {
+        private final NbGradleModule module;
+        private final Map<DependencyGroup, List<NbDependency>> groups;
+
+        public DependencyGroups(NbGradleModule module) {
+            this.module = module;
+
+            Set<NbDependency> compile = new LinkedHashSet<NbDependency>(
+                    NbModelUtils.getAllDependencies(module, NbDependencyType.COMPILE));
+            Set<NbDependency> runtime = new LinkedHashSet<NbDependency>(
+                    NbModelUtils.getAllDependencies(module, NbDependencyType.RUNTIME));
+            Set<NbDependency> testCompile = new LinkedHashSet<NbDependency>(
+                    NbModelUtils.getAllDependencies(module, NbDependencyType.TEST_COMPILE));
+            Set<NbDependency> testRuntime = new LinkedHashSet<NbDependency>(
+                    NbModelUtils.getAllDependencies(module, NbDependencyType.TEST_RUNTIME));
+
+            testRuntime.removeAll(runtime);
+            testRuntime.removeAll(testCompile);
+            runtime.removeAll(compile);
+            testCompile.removeAll(compile);
+
+            this.groups = new EnumMap<DependencyGroup, List<NbDependency>>(DependencyGroup.class);
+            this.groups.put(DependencyGroup.COMPILE, orderDependencies(compile));
+            this.groups.put(DependencyGroup.RUNTIME, orderDependencies(runtime));
+            this.groups.put(DependencyGroup.TEST_COMPILE, orderDependencies(testCompile));
+            this.groups.put(DependencyGroup.TEST_RUNTIME, orderDependencies(testRuntime));
+        }
+
+        public NbGradleModule getModule() {
+            return module;
+        }
+
+        public List<NbDependency> getDependencies(DependencyGroup group) {
+            return groups.get(group);
+        }
+    }
+
     private static class DependenciesChildFactory
     extends
-            ChildFactory.Detachable<SingleNodeFactory>
+            ChildFactory.Detachable<DependencyGroup>
     implements
             ChangeListener {
         private final NbGradleProject project;
+        private volatile DependencyGroups lastGroups;
 
         public DependenciesChildFactory(NbGradleProject project) {
             if (project == null) throw new NullPointerException("project");
             this.project = project;
+            this.lastGroups = null;
         }
 
         @Override
@@ -88,256 +193,239 @@ public final class GradleDependenciesNode extends AbstractNode {
             project.removeModelChangeListener(this);
         }
 
-        private void addDependencyGroup(
-                final String groupName,
-                final Collection<NbDependency> dependencies,
-                List<SingleNodeFactory> toPopulate) {
+        /**
+         * Returns the dependency groups of the current model. The groups are
+         * only recalculated if the model has changed, so the groups being
+         * expanded do not have to recalculate them.
+         */
+        public DependencyGroups getDependencyGroups() {
+            NbGradleModule mainModule = project.getCurrentModel().getMainModule();
 
-            if (dependencies.isEmpty()) {
-                return;
+            DependencyGroups result = lastGroups;
+            if (result == null || result.getModule() != mainModule) {
+                result = new DependencyGroups(mainModule);
+                lastGroups = result;
             }
+            return result;
+        }
 
-            toPopulate.add(new SingleNodeFactory() {
-                @Override
-                public Node createNode() {
-                    return new AbstractNode(Children.create(new DependencyGroupChildFactory(dependencies), true)) {
-                        @Override
-                        public Image getIcon(int type) {
-                            return NbIcons.getLibrariesIcon();
-                        }
-
-                        @Override
-                        public Image getOpenedIcon(int type) {
-                            return getIcon(type);
-                        }
-
-                        @Override
-                        public String getDisplayName() {
-                            return groupName;
-                        }
-                    };
+        @Override
+        protected boolean createKeys(List<DependencyGroup> toPopulate) {
+            DependencyGroups groups = getDependencyGroups();
+            for (DependencyGroup group: DependencyGroup.values()) {
+                if (!groups.getDependencies(group).isEmpty()) {
+                    toPopulate.add(group);
                 }
-            });
+            }
+
+            LOGGER.fine("Dependencies for the Gradle project were found.");
+            return true;
         }
 
-        private static List<NbDependency> orderDependencies(Collection<NbDependency> dependencies) {
-            List<NbDependency> result = new ArrayList<NbDependency>(dependencies);
-            final Collator textComparer = Collator.getInstance(Locale.US);
-            final Map<Class<?>, Integer> classOrder = new HashMap<Class<?>, Integer>();
-            classOrder.put(NbModuleDependency.class, 0);
-            classOrder.put(NbUriDependency.class, 1);
+        @Override
+        protected Node createNodeForKey(final DependencyGroup key) {
+            DependencyGroupChildFactory childFactory = new DependencyGroupChildFactory(project, this, key);
+            return new AbstractNode(Children.create(childFactory, true)) {
+                @Override
+                public Image getIcon(int type) {
+                    return NbIcons.getLibrariesIcon();
+                }
 
-            Collections.sort(result, new Comparator<NbDependency>() {
                 @Override
-                public int compare(NbDependency o1, NbDependency o2) {
-                    if (o1.getClass() != o2.getClass()) {
-                        Integer index1 = classOrder.get(o1.getClass());
-                        Integer index2 = classOrder.get(o2.getClass());
-
-                        if (index1 == null) {
-                            if (index2 != null) {
-                                return 1;
-                            }
-                        }
-                        else if (index2 == null) {
-                            // index1 != null
-                            return -1;
-                        }
-                        else {
-                            int index1Value = index1;
-                            int index2Value = index2;
-                            return index1Value == index2Value
-                                    ? 0
-                                    : (index1Value < index2Value ? -1 : 1);
-                        }
-                    }
+                public Image getOpenedIcon(int type) {
+                    return getIcon(type);
+                }
 
-                    return textComparer.compare(o1.getShortName(), o2.getShortName());
+                @Override
+                public String getDisplayName() {
+                    return key.getCaption();
                 }
-            });
-            return result;
+            };
         }
+    }
 
-        private void readKeys(List<SingleNodeFactory> toPopulate) throws DataObjectNotFoundException {
-            NbGradleModule mainModule = project.getCurrentModel().getMainModule();
-
-            Set<NbDependency> compile = new LinkedHashSet<NbDependency>(
-                    NbModelUtils.getAllDependencies(mainModule, NbDependencyType.COMPILE));
-            Set<NbDependency> runtime = new LinkedHashSet<NbDependency>(
-                    NbModelUtils.getAllDependencies(mainModule, NbDependencyType.RUNTIME));
-            Set<NbDependency> testCompile = new LinkedHashSet<NbDependency>(
-                    NbModelUtils.getAllDependencies(mainModule, NbDependencyType.TEST_COMPILE));
-            Set<NbDependency> testRuntime = new LinkedHashSet<NbDependency>(
-                    NbModelUtils.getAllDependencies(mainModule, NbDependencyType.TEST_RUNTIME));
+    /**
+     * The key of the node of a dependency. Dependencies are equal if they
+     * refer to the same file or module, so the key also contains whether
+     * the file or the directory of the module exists. Otherwise the node of
+     * a dependency would not be recreated when its file is created or
+     * deleted.
+     */
+    private static final class DependencyKey {
+        private final NbDependency dependency;
+        private final boolean available;
+
+        public DependencyKey(NbDependency dependency) {
+            if (dependency == null) throw new NullPointerException("dependency");
+
+            this.dependency = dependency;
+            this.available = isAvailable(dependency);
+        }
 
-            testRuntime.removeAll(runtime);
-            testRuntime.removeAll(testCompile);
-            runtime.removeAll(compile);
-            testCompile.removeAll(compile);
+        private static boolean isAvailable(NbDependency dependency) {
+            if (dependency instanceof NbModuleDependency) {
+                File moduleDir = ((NbModuleDependency)dependency).getModule().getModuleDir();
+                return moduleDir.isDirectory();
+            }
+            else if (dependency instanceof NbUriDependency) {
+                File file = ((NbUriDependency)dependency).tryGetAsFile();
+                return file != null && file.exists();
+            }
+            else {
+                return true;
+            }
+        }
 
-            addDependencyGroup(NbStrings.getCompileDependenciesNodeCaption(),
-                    orderDependencies(compile), toPopulate);
-            addDependencyGroup(NbStrings.getRuntimeDependenciesNodeCaption(),
-                    orderDependencies(runtime), toPopulate);
-            addDependencyGroup(NbStrings.getTestCompileDependenciesNodeCaption(),
-                    orderDependencies(testCompile), toPopulate);
-            addDependencyGroup(NbStrings.getTestRuntimeDependenciesNodeCaption(),
-                    orderDependencies(testRuntime), toPopulate);
+        public NbDependency getDependency() {
+            return dependency;
+        }
 
-            LOGGER.fine("Dependencies for the Gradle project were found.");
+        @Override
+        public int hashCode() {
+            int hash = 5;
+            hash = 37 * hash + dependency.hashCode();
+            hash = 37 * hash + (available ? 1 : 0);
+            return hash;
         }
 
         @Override
-        protected boolean createKeys(List<SingleNodeFactory> toPopulate) {
-            try {
-                readKeys(toPopulate);
-            } catch (DataObjectNotFoundException ex) {
-                throw new RuntimeException(ex);
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
             }
-            return true;
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            final DependencyKey other = (DependencyKey)obj;
+            return this.available == other.available
+                    && this.dependency.equals(other.dependency);
+        }
+    }
+
+    /**
+     * Creates the nodes of a single dependency group. The keys are the
+     * dependencies themselves (along with whether they are available), so
+     * when the model changes only the nodes of the added dependencies and of
+     * the dependencies whose file has been created or deleted are recreated.
+     * The keys are only created when the group is first expanded.
+     */
+    private static class DependencyGroupChildFactory
+    extends
+            ChildFactory.Detachable<DependencyKey>
+    implements
+            ChangeListener {
+        private final NbGradleProject project;
+        private final DependenciesChildFactory parent;
+        private final DependencyGroup group;
+
+        public DependencyGroupChildFactory(
+                NbGradleProject project,
+                DependenciesChildFactory parent,
+                DependencyGroup group) {
+            this.project = project;
+            this.parent = parent;
+            this.group = group;
         }
 
         @Override
-        protected Node createNodeForKey(SingleNodeFactory key) {
-            return key.createNode();
+        public void stateChanged(ChangeEvent e) {
+            refresh(false);
         }
-    }
 
-    private static class DependencyGroupChildFactory extends ChildFactory<SingleNodeFactory> {
-        private final List<NbDependency> dependencies;
+        @Override
+        protected void addNotify() {
+            project.addModelChangeListener(this);
+        }
 
-        public DependencyGroupChildFactory(Collection<NbDependency> dependencies) {
-            this.dependencies = new ArrayList<NbDependency>(dependencies);
+        @Override
+        protected void removeNotify() {
+            project.removeModelChangeListener(this);
         }
 
-        private void addModuleDependency(
-                final NbModuleDependency dependency,
-                List<SingleNodeFactory> toPopulate) throws DataObjectNotFoundException {
+        private Node createModuleDependencyNode(
+                final NbModuleDependency dependency) throws DataObjectNotFoundException {
 
             FileObject moduleRoot = FileUtil.toFileObject(dependency.getModule().getModuleDir());
 
-            if (moduleRoot != null) {
-                final DataObject fileObject = DataObject.find(moduleRoot);
-                toPopulate.add(new SingleNodeFactory() {
-                    @Override
-                    public Node createNode() {
-                        return new FilterNode(fileObject.getNodeDelegate()) {
-                            @Override
-                            public Image getIcon(int type) {
-                                return NbIcons.getGradleIcon();
-                            }
-
-                            @Override
-                            public Image getOpenedIcon(int type) {
-                                return getIcon(type);
-                            }
-
-                            @Override
-                            public String getDisplayName() {
-                                return dependency.getModule().getName();
-                            }
-                        };
-                    }
-                });
-            }
-            else {
-                toPopulate.add(new SingleNodeFactory() {
-                    @Override
-                    public Node createNode() {
-                        return new FilterNode(Node.EMPTY) {
-                            @Override
-                            public Image getIcon(int type) {
-                                return NbIcons.getGradleIcon();
-                            }
-
-                            @Override
-                            public Image getOpenedIcon(int type) {
-                                return getIcon(type);
-                            }
-
-                            @Override
-                            public String getDisplayName() {
-                                return dependency.getModule().getName();
-                            }
-                        };
-                    }
-                });
-            }
+            Node original = moduleRoot != null
+                    ? DataObject.find(moduleRoot).getNodeDelegate()
+                    : Node.EMPTY;
+            return new FilterNode(original) {
+                @Override
+                public Image getIcon(int type) {
+                    return NbIcons.getGradleIcon();
+                }
+
+                @Override
+                public Image getOpenedIcon(int type) {
+                    return getIcon(type);
+                }
+
+                @Override
+                public String getDisplayName() {
+                    return dependency.getModule().getName();
+                }
+            };
         }
 
-        private void addFileDependency(
-                NbUriDependency dependency,
-                List<SingleNodeFactory> toPopulate) throws DataObjectNotFoundException {
+        private Node createFileDependencyNode(
+                NbUriDependency dependency) throws DataObjectNotFoundException {
 
             FileObject file = dependency.tryGetAsFileObject();
             if (file == null) {
                 LOGGER.log(Level.WARNING, "Dependency is not available: {0}", dependency.getUri());
-                return;
+                return null;
             }
-            final DataObject fileObject = DataObject.find(file);
-            toPopulate.add(new SingleNodeFactory() {
-                @Override
-                public Node createNode() {
-                    return fileObject.getNodeDelegate().cloneNode();
-                }
-            });
+            return DataObject.find(file).getNodeDelegate().cloneNode();
         }
 
-        private void addGenericDependency(
-                NbDependency dependency,
-                List<SingleNodeFactory> toPopulate) throws DataObjectNotFoundException {
-
+        private Node createGenericDependencyNode(NbDependency dependency) {
             final String nodeCaption = dependency.toString();
-            toPopulate.add(new SingleNodeFactory() {
+            return new FilterNode(Node.EMPTY) {
                 @Override
-                public Node createNode() {
-                    return new FilterNode(Node.EMPTY) {
-                        @Override
-                        public Image getIcon(int type) {
-                            return NbIcons.getLibraryIcon();
-                        }
+                public Image getIcon(int type) {
+                    return NbIcons.getLibraryIcon();
+                }
 
-                        @Override
-                        public Image getOpenedIcon(int type) {
-                            return getIcon(type);
-                        }
+                @Override
+                public Image getOpenedIcon(int type) {
+                    return getIcon(type);
+                }
 
-                        @Override
-                        public String getDisplayName() {
-                            return nodeCaption;
-                        }
-                    };
+                @Override
+                public String getDisplayName() {
+                    return nodeCaption;
                 }
-            });
+            };
         }
 
-        protected void readKeys(List<SingleNodeFactory> toPopulate) throws DataObjectNotFoundException {
-            for (NbDependency dependency: dependencies) {
-                if (dependency instanceof NbModuleDependency) {
-                    addModuleDependency((NbModuleDependency)dependency, toPopulate);
-                }
-                else if (dependency instanceof NbUriDependency) {
-                    addFileDependency((NbUriDependency)dependency, toPopulate);
-                }
-                else {
-                    addGenericDependency(dependency, toPopulate);
-                }
+        @Override
+        protected boolean createKeys(List<DependencyKey> toPopulate) {
+            for (NbDependency dependency: parent.getDependencyGroups().getDependencies(group)) {
+                toPopulate.add(new DependencyKey(dependency));
             }
+            return true;
         }
 
         @Override
-        protected boolean createKeys(List<SingleNodeFactory> toPopulate) {
+        protected Node createNodeForKey(DependencyKey dependencyKey) {
+            NbDependency key = dependencyKey.getDependency();
             try {
-                readKeys(toPopulate);
+                if (key instanceof NbModuleDependency) {
+                    return createModuleDependencyNode((NbModuleDependency)key);
+                }
+                else if (key instanceof NbUriDependency) {
+                    return createFileDependencyNode((NbUriDependency)key);
+                }
+                else {
+                    return createGenericDependencyNode(key);
+                }
             } catch (DataObjectNotFoundException ex) {
                 throw new RuntimeException(ex);
             }
-            return true;
-        }
-
-        @Override
-        protected Node createNodeForKey(SingleNodeFactory key) {
-            return key.createNode();
         }
     }
 }
@@ -4,6 +4,8 @@ import java.awt.Image;
 import java.io.File;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 import javax.swing.Action;
 import javax.swing.event.ChangeEvent;
@@ -28,6 +30,7 @@ import org.openide.nodes.ChildFactory;
 import org.openide.nodes.Children;
 import org.openide.nodes.FilterNode;
 import org.openide.nodes.Node;
+import org.openide.util.Lookup;
 import org.openide.util.lookup.Lookups;
 
 public final class GradleProjectChildFactory
@@ -153,60 +156,110 @@ extends
         return projectFolder.getNodeDelegate().cloneNode();
     }
 
-    private Children createSubprojectsChild(List<NbGradleModule> children) {
-        return Children.create(new SubProjectsChildFactory(project, children), true);
+    private Children createSubprojectsChild() {
+        return Children.create(new SubProjectsChildFactory(project, getShownModule().getUniqueName()), true);
     }
 
     private void addChildren(List<SingleNodeFactory> toPopulate) {
-        NbGradleModule shownModule = getShownModule();
-        final List<NbGradleModule> immediateChildren = shownModule.getChildren();
-        if (immediateChildren.isEmpty()) {
+        if (getShownModule().getChildren().isEmpty()) {
             return;
         }
-        final List<NbGradleModule> children = NbModelUtils.getAllChildren(shownModule);
 
-        toPopulate.add(new SingleNodeFactory() {
-            @Override
-            public Node createNode() {
-                return new FilterNode(
-                        createSimpleNode(),
-                        createSubprojectsChild(immediateChildren),
-                        Lookups.fixed(immediateChildren.toArray())) {
-                    @Override
-                    public String getName() {
-                        return "SubProjectsNode_" + getShownModule().getUniqueName();
-                    }
+        toPopulate.add(new SubProjectsNodeFactory());
+    }
 
-                    @Override
-                    public Action[] getActions(boolean context) {
-                        return new Action[] {
-                            new OpenProjectsAction(NbStrings.getOpenImmediateSubProjectsCaption(), immediateChildren),
-                            new OpenProjectsAction(NbStrings.getOpenSubProjectsCaption(), children)
-                        };
-                    }
+    /**
+     * Creates the "Subprojects" node. Every instance of this class is equal,
+     * so that the node (and the nodes of the subprojects) is kept when the
+     * model is reloaded. The node always reflects the current model.
+     */
+    private final class SubProjectsNodeFactory implements SingleNodeFactory {
+        @Override
+        public Node createNode() {
+            return new FilterNode(
+                    createSimpleNode(),
+                    createSubprojectsChild(),
+                    Lookups.proxy(new SubProjectsLookupProvider())) {
+                @Override
+                public String getName() {
+                    return "SubProjectsNode_" + getShownModule().getUniqueName();
+                }
 
-                    @Override
-                    public String getDisplayName() {
-                        return NbStrings.getSubProjectsCaption();
-                    }
+                @Override
+                public Action[] getActions(boolean context) {
+                    NbGradleModule shownModule = getShownModule();
+                    return new Action[] {
+                        new OpenProjectsAction(NbStrings.getOpenImmediateSubProjectsCaption(), shownModule.getChildren()),
+                        new OpenProjectsAction(NbStrings.getOpenSubProjectsCaption(), NbModelUtils.getAllChildren(shownModule))
+                    };
+                }
 
-                    @Override
-                    public Image getIcon(int type) {
-                        return NbIcons.getGradleIcon();
-                    }
+                @Override
+                public String getDisplayName() {
+                    return NbStrings.getSubProjectsCaption();
+                }
 
-                    @Override
-                    public Image getOpenedIcon(int type) {
-                        return getIcon(type);
-                    }
+                @Override
+                public Image getIcon(int type) {
+                    return NbIcons.getGradleIcon();
+                }
 
-                    @Override
-                    public boolean canRename() {
-                        return false;
-                    }
-                };
+                @Override
+                public Image getOpenedIcon(int type) {
+                    return getIcon(type);
+                }
+
+                @Override
+                public boolean canRename() {
+                    return false;
+                }
+            };
+        }
+
+        @Override
+        public int hashCode() {
+            return 7 * getClass().hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null) {
+                return false;
             }
-        });
+            return getClass() == obj.getClass();
+        }
+    }
+
+    /**
+     * Provides the immediate children of the shown module in the current
+     * model.
+     */
+    private final class SubProjectsLookupProvider implements Lookup.Provider {
+        private final Lock mainLock;
+        private NbGradleModule lastModule;
+        private Lookup lastLookup;
+
+        public SubProjectsLookupProvider() {
+            this.mainLock = new ReentrantLock();
+            this.lastModule = null;
+            this.lastLookup = Lookup.EMPTY;
+        }
+
+        @Override
+        public Lookup getLookup() {
+            NbGradleModule shownModule = getShownModule();
+
+            mainLock.lock();
+            try {
+                if (shownModule != lastModule) {
+                    lastModule = shownModule;
+                    lastLookup = Lookups.fixed(shownModule.getChildren().toArray());
+                }
+                return lastLookup;
+            } finally {
+                mainLock.unlock();
+            }
+        }
     }
 
     private void addSources(List<SingleNodeFactory> toPopulate) {
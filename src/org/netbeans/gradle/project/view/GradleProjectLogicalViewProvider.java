@@ -14,6 +14,7 @@ import java.util.EnumMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.JButton;
@@ -51,6 +52,7 @@ import org.openide.nodes.NodeAdapter;
 import org.openide.nodes.NodeEvent;
 import org.openide.util.ImageUtilities;
 import org.openide.util.Lookup;
+import org.openide.util.RequestProcessor;
 import org.openide.util.Utilities;
 import org.openide.util.actions.Presenter;
 import org.openide.util.lookup.ProxyLookup;
@@ -100,12 +102,30 @@ public final class GradleProjectLogicalViewProvider implements LogicalViewProvid
         return ProjectSensitiveActions.projectCommandAction(command, label, null);
     }
 
+    private static final RequestProcessor ICON_PROCESSOR
+            = new RequestProcessor("Gradle-Project-Icon-Updater", 1, true);
+
     private final class GradleProjectNode extends FilterNode {
         private final Action[] actions;
+        private final RequestProcessor.Task updateIconTask;
+        // The icon (with its badge and tooltip) is only recreated when the
+        // infos of the project change, not on every repaint. This field is
+        // null until the icon is first requested.
+        private final AtomicReference<Image> iconRef;
 
         public GradleProjectNode(Node node) {
             super(node, createChildren(), createLookup(node));
 
+            this.iconRef = new AtomicReference<Image>(null);
+            this.updateIconTask = ICON_PROCESSOR.create(new Runnable() {
+                @Override
+                public void run() {
+                    iconRef.set(createIcon());
+                    fireIconChange();
+                    fireOpenedIconChange();
+                }
+            });
+
             TasksActionMenu tasksAction = new TasksActionMenu(project);
             CustomTasksActionMenu customTasksAction = new CustomTasksActionMenu(project);
 
@@ -150,8 +170,7 @@ public final class GradleProjectLogicalViewProvider implements LogicalViewProvid
         }
 
         public void fireInfoChangeEvent() {
-            fireIconChange();
-            fireOpenedIconChange();
+            updateIconTask.schedule(0);
         }
 
         @Override
@@ -179,7 +198,18 @@ public final class GradleProjectLogicalViewProvider implements LogicalViewProvid
 
         @Override
         public Image getIcon(int type) {
-            Image icon = NbIcons.getGradleIcon();
+            Image result = iconRef.get();
+            if (result == null) {
+                // The infos might change while the icon is being created, in
+                // which case the icon stored by updateIconTask must be kept.
+                iconRef.compareAndSet(null, createIcon());
+                result = iconRef.get();
+            }
+            return result;
+        }
+
+        private Image createIcon() {
+            Image result = NbIcons.getGradleIcon();
             Collection<ProjectInfo> infos = project.getProjectInfoManager().getInformations();
             if (!infos.isEmpty()) {
                 Map<ProjectInfo.Kind, List<String>> infoMap
@@ -205,12 +235,12 @@ public final class GradleProjectLogicalViewProvider implements LogicalViewProvid
                 appendHtmlList(NbStrings.getWarningCaption(), infoMap.get(ProjectInfo.Kind.WARNING), completeText);
                 appendHtmlList(NbStrings.getInfoCaption(), infoMap.get(ProjectInfo.Kind.INFO), completeText);
 
-                icon = ImageUtilities.addToolTipToImage(icon, completeText.toString());
+                result = ImageUtilities.addToolTipToImage(result, completeText.toString());
                 if (mostImportantKind.getImportance() >= ProjectInfo.Kind.WARNING.getImportance()) {
-                    icon = ImageUtilities.mergeImages(icon, NbIcons.getWarningBadge(), 0, 0);
+                    result = ImageUtilities.mergeImages(result, NbIcons.getWarningBadge(), 0, 0);
                 }
             }
-            return icon;
+            return result;
         }
 
         @Override
@@ -2,15 +2,18 @@ package org.netbeans.gradle.project.view;
 
 import java.awt.Image;
 import java.awt.event.ActionEvent;
+import java.io.File;
+import java.text.CollationKey;
 import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.logging.Logger;
 import javax.swing.AbstractAction;
 import javax.swing.Action;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.NbIcons;
 import org.netbeans.gradle.project.NbStrings;
@@ -25,59 +28,157 @@ import org.openide.util.ContextAwareAction;
 import org.openide.util.Lookup;
 import org.openide.util.lookup.Lookups;
 
-public final class SubProjectsChildFactory extends ChildFactory<SingleNodeFactory> {
+public final class SubProjectsChildFactory
+extends
+        ChildFactory.Detachable<SubProjectsChildFactory.ModuleKey>
+implements
+        ChangeListener {
+
     private static final Logger LOGGER = Logger.getLogger(SubProjectsChildFactory.class.getName());
     private static final Collator STR_SMP = Collator.getInstance();
 
     private final NbGradleProject project;
-    private final List<NbGradleModule> modules;
-
-    public SubProjectsChildFactory(NbGradleProject project, List<NbGradleModule> modules) {
+    private final String parentUniqueName;
+
+    /**
+     * Creates the nodes of the immediate children of the module with the
+     * given unique name. The children are always looked up in the current
+     * model of the project, and the nodes are updated when the model
+     * changes.
+     */
+    public SubProjectsChildFactory(NbGradleProject project, String parentUniqueName) {
         if (project == null) throw new NullPointerException("project");
+        if (parentUniqueName == null) throw new NullPointerException("parentUniqueName");
 
         this.project = project;
-        this.modules = new ArrayList<NbGradleModule>(modules);
-        sortModules(this.modules);
+        this.parentUniqueName = parentUniqueName;
+    }
 
-        for (NbGradleModule module: this.modules) {
-            if (module == null) throw new NullPointerException("module");
+    private static NbGradleModule findModule(NbGradleModule root, String uniqueName) {
+        if (uniqueName.equals(root.getUniqueName())) {
+            return root;
         }
+        for (NbGradleModule child: root.getChildren()) {
+            NbGradleModule result = findModule(child, uniqueName);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
     }
 
-    private static void sortModules(List<NbGradleModule> modules) {
-        Collections.sort(modules, new Comparator<NbGradleModule>(){
-            @Override
-            public int compare(NbGradleModule o1, NbGradleModule o2) {
-                return STR_SMP.compare(o1.getName(), o2.getName());
-            }
-        });
+    private static NbGradleModule findCurrentModule(NbGradleProject project, String uniqueName) {
+        return findModule(project.getCurrentModel().getMainModule(), uniqueName);
+    }
+
+    @Override
+    public void stateChanged(ChangeEvent e) {
+        refresh(false);
+    }
+
+    @Override
+    protected void addNotify() {
+        project.addModelChangeListener(this);
     }
 
     @Override
-    protected Node createNodeForKey(SingleNodeFactory key) {
-        return key.createNode();
+    protected void removeNotify() {
+        project.removeModelChangeListener(this);
     }
 
     @Override
-    protected boolean createKeys(List<SingleNodeFactory> toPopulate) {
-        for (final NbGradleModule module: modules) {
-            toPopulate.add(new SingleNodeFactory() {
-                @Override
-                public Node createNode() {
-                    if (module.getChildren().isEmpty()) {
-                        return new SubModuleNode(project, module);
-                    }
-                    else {
-                        return new SubModuleWithChildren(project, module);
-                    }
-                }
-            });
+    protected Node createNodeForKey(ModuleKey key) {
+        if (key.hasChildren) {
+            return new SubModuleWithChildren(project, key.module);
         }
+        else {
+            return new SubModuleNode(project, key.module);
+        }
+    }
+
+    @Override
+    protected boolean createKeys(List<ModuleKey> toPopulate) {
+        NbGradleModule parent = findCurrentModule(project, parentUniqueName);
+        if (parent == null) {
+            return true;
+        }
+
+        List<ModuleKey> keys = new ArrayList<ModuleKey>(parent.getChildren().size());
+        for (NbGradleModule module: parent.getChildren()) {
+            keys.add(new ModuleKey(module));
+        }
+        Collections.sort(keys);
+
+        toPopulate.addAll(keys);
         return true;
     }
 
-    private static Children createSubprojectsChild(NbGradleProject project, List<NbGradleModule> children) {
-        return Children.create(new SubProjectsChildFactory(project, children), true);
+    /**
+     * Identifies the node of a module by its unique name, so that the nodes
+     * of modules which are still present after reloading the model are kept
+     * (along with their expanded state). Whether the module has children is
+     * also part of the key because the node differs in that case.
+     * <P>
+     * The nodes kept display and look up the module of the model they were
+     * created for, so every property of the module read by the nodes and by
+     * their actions (the name and the directory of the module) is also part
+     * of the key. Otherwise, a node would keep showing the old values.
+     */
+    public static final class ModuleKey implements Comparable<ModuleKey> {
+        private final NbGradleModule module;
+        private final String uniqueName;
+        private final String name;
+        private final File moduleDir;
+        private final boolean hasChildren;
+        private final CollationKey sortKey;
+
+        private ModuleKey(NbGradleModule module) {
+            if (module == null) throw new NullPointerException("module");
+
+            this.module = module;
+            this.uniqueName = module.getUniqueName();
+            this.name = module.getName();
+            this.moduleDir = module.getModuleDir();
+            this.hasChildren = !module.getChildren().isEmpty();
+            this.sortKey = STR_SMP.getCollationKey(name);
+        }
+
+        @Override
+        public int compareTo(ModuleKey o) {
+            return sortKey.compareTo(o.sortKey);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 43 * hash + uniqueName.hashCode();
+            hash = 43 * hash + name.hashCode();
+            hash = 43 * hash + moduleDir.hashCode();
+            hash = 43 * hash + (hasChildren ? 1 : 0);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            final ModuleKey other = (ModuleKey)obj;
+            return this.hasChildren == other.hasChildren
+                    && this.uniqueName.equals(other.uniqueName)
+                    && this.name.equals(other.name)
+                    && this.moduleDir.equals(other.moduleDir);
+        }
+    }
+
+    private static Children createSubprojectsChild(NbGradleProject project, String parentUniqueName) {
+        return Children.create(new SubProjectsChildFactory(project, parentUniqueName), true);
     }
 
     private static Node createSimpleNode(NbGradleProject project) {
@@ -86,21 +187,20 @@ public final class SubProjectsChildFactory extends ChildFactory<SingleNodeFactor
     }
 
     private static class SubModuleWithChildren extends FilterNode {
+        private final NbGradleProject project;
         private final NbGradleModule module;
-        private final List<NbGradleModule> immdeiateChildren;
-        private final List<NbGradleModule> children;
 
         public SubModuleWithChildren(NbGradleProject project, NbGradleModule module) {
-            this(project, module, module.getChildren());
-        }
-
-        private SubModuleWithChildren(NbGradleProject project, NbGradleModule module, List<NbGradleModule> children) {
             super(createSimpleNode(project),
-                    createSubprojectsChild(project, children),
+                    createSubprojectsChild(project, module.getUniqueName()),
                     Lookups.fixed(module));
+            this.project = project;
             this.module = module;
-            this.immdeiateChildren = Collections.unmodifiableList(NbModelUtils.getAllChildren(module));
-            this.children = Collections.unmodifiableList(new ArrayList<NbGradleModule>(children));
+        }
+
+        private NbGradleModule getCurrentModule() {
+            NbGradleModule currentModule = findCurrentModule(project, module.getUniqueName());
+            return currentModule != null ? currentModule : module;
         }
 
         @Override
@@ -110,10 +210,11 @@ public final class SubProjectsChildFactory extends ChildFactory<SingleNodeFactor
 
         @Override
         public Action[] getActions(boolean context) {
+            NbGradleModule currentModule = getCurrentModule();
             return new Action[] {
                 new OpenSubProjectAction(),
-                new OpenProjectsAction(NbStrings.getOpenImmediateSubProjectsCaption(), immdeiateChildren),
-                new OpenProjectsAction(NbStrings.getOpenSubProjectsCaption(), children)
+                new OpenProjectsAction(NbStrings.getOpenImmediateSubProjectsCaption(), currentModule.getChildren()),
+                new OpenProjectsAction(NbStrings.getOpenSubProjectsCaption(), NbModelUtils.getAllChildren(currentModule))
             };
         }
 
@@ -0,0 +1,31 @@
+package org.netbeans.gradle.project;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Creates and removes the temporary directories of the benchmarks.
+ */
+public final class BenchmarkFiles {
+    public static File createTempDir(String prefix) throws IOException {
+        File result = File.createTempFile("nb-gradle-" + prefix, "");
+        if (!result.delete() || !result.mkdir()) {
+            throw new IOException("Failed to create temporary directory: " + result);
+        }
+        return result;
+    }
+
+    public static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child: children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    private BenchmarkFiles() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,70 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures collecting the transitive dependencies of a module (which is
+ * done for every class path and for the dependencies node) in synthetic
+ * builds. The last subproject is measured because it has the most
+ * transitive dependencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GetAllDependenciesBenchmark {
+    @Param({"10", "100", "1000"})
+    public int moduleCount;
+
+    @Param({"3"})
+    public int fanOut;
+
+    private NbGradleModule root;
+    private NbGradleModule lastModule;
+
+    @Setup
+    public void setUp() throws IOException {
+        SyntheticModelGenerator generator = new SyntheticModelGenerator(new File("synthetic"));
+        generator.setModuleCount(moduleCount);
+        generator.setFanOut(fanOut);
+
+        root = generator.generate();
+        List<NbGradleModule> modules = root.getChildren();
+        lastModule = modules.get(modules.size() - 1);
+    }
+
+    @Benchmark
+    public Collection<NbDependency> compileDependencies() {
+        return NbModelUtils.getAllDependencies(lastModule, NbDependencyType.COMPILE);
+    }
+
+    @Benchmark
+    public Collection<NbDependency> testRuntimeDependencies() {
+        return NbModelUtils.getAllDependencies(lastModule);
+    }
+
+    @Benchmark
+    public Collection<NbGradleModule> moduleDependencies() {
+        return NbModelUtils.getAllModuleDependencies(lastModule);
+    }
+
+    @Benchmark
+    public int dependenciesOfEveryModule() {
+        int result = 0;
+        for (NbGradleModule module: root.getChildren()) {
+            result += NbModelUtils.getAllDependencies(module).size();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.gradle.project.BenchmarkFiles;
+import org.openide.filesystems.FileUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures the contention on {@link GradleModelCache} when many projects
+ * of a build are opened at once: lookups only, and lookups concurrently
+ * with models being added (evicting the least recently used ones).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GradleModelCacheBenchmark {
+    @Param({"10", "100", "1000"})
+    public int projectCount;
+
+    private File tempDir;
+    private GradleModelCache cache;
+    private List<NbGradleModel> models;
+    private List<File> projectDirs;
+
+    @Setup
+    public void setUp() throws IOException {
+        tempDir = BenchmarkFiles.createTempDir("model-cache");
+        models = new ArrayList<NbGradleModel>(projectCount);
+        projectDirs = new ArrayList<File>(projectCount);
+        for (int i = 0; i < projectCount; i++) {
+            SyntheticModelGenerator generator = new SyntheticModelGenerator(new File(tempDir, "project" + i));
+            generator.setSeed(i);
+
+            NbGradleModel model = generator.generateModel();
+            models.add(model);
+            projectDirs.add(FileUtil.toFile(model.getProjectDir()));
+        }
+
+        // Only part of the models fit in the cache, so adding them evicts
+        // others, just like when more projects are opened than the size of
+        // the cache.
+        cache = new GradleModelCache(Math.max(1, projectCount * 3 / 4));
+        for (NbGradleModel model: models) {
+            cache.addToCache(model);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkFiles.deleteRecursively(tempDir);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private final Random random = new Random();
+
+        public int nextIndex(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public NbGradleModel tryGet(ThreadState state) {
+        return cache.tryGet(projectDirs.get(state.nextIndex(projectCount)), null);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public NbGradleModel mixedTryGet(ThreadState state) {
+        return cache.tryGet(projectDirs.get(state.nextIndex(projectCount)), null);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void mixedAddToCache(ThreadState state) {
+        cache.addToCache(models.get(state.nextIndex(projectCount)));
+    }
+}
@@ -0,0 +1,252 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.jar.JarOutputStream;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+import org.openide.util.Utilities;
+
+/**
+ * Creates the model of a synthetic multi-project build without running
+ * Gradle, so that the benchmarks are reproducible offline. The generated
+ * build has a root module whose children are the subprojects. Every
+ * subproject depends on {@link #setFanOut(int) a few} of the subprojects
+ * before it (so there are no circular dependencies) and on some of the
+ * shared external libraries. The same settings (including the seed) always
+ * generate the same build.
+ * <P>
+ * The directories and jars referenced by the model are only created if
+ * {@link #setCreateFiles(boolean) requested}, because only some of the
+ * benchmarks check them.
+ */
+public final class SyntheticModelGenerator {
+    /**
+     * The module counts of the standard small, medium and large builds.
+     */
+    public static final int[] STANDARD_MODULE_COUNTS = {10, 100, 1000};
+
+    private final File rootDir;
+    private int moduleCount;
+    private int fanOut;
+    private int libraryCount;
+    private int librariesPerModule;
+    private long seed;
+    private boolean createFiles;
+
+    public SyntheticModelGenerator(File rootDir) {
+        if (rootDir == null) throw new NullPointerException("rootDir");
+
+        this.rootDir = rootDir;
+        this.moduleCount = STANDARD_MODULE_COUNTS[0];
+        this.fanOut = 3;
+        this.libraryCount = 50;
+        this.librariesPerModule = 5;
+        this.seed = 1;
+        this.createFiles = false;
+    }
+
+    public void setModuleCount(int moduleCount) {
+        if (moduleCount <= 0) throw new IllegalArgumentException("moduleCount must be positive: " + moduleCount);
+        this.moduleCount = moduleCount;
+    }
+
+    /**
+     * Sets the number of subprojects each subproject depends on directly
+     * (less for the first few subprojects).
+     */
+    public void setFanOut(int fanOut) {
+        if (fanOut < 0) throw new IllegalArgumentException("fanOut must not be negative: " + fanOut);
+        this.fanOut = fanOut;
+    }
+
+    /**
+     * Sets the number of external libraries shared by the subprojects and
+     * the number of them each subproject depends on directly.
+     */
+    public void setLibraries(int libraryCount, int librariesPerModule) {
+        if (libraryCount <= 0) throw new IllegalArgumentException("libraryCount must be positive: " + libraryCount);
+        if (librariesPerModule < 0 || librariesPerModule > libraryCount) {
+            throw new IllegalArgumentException("Illegal librariesPerModule: " + librariesPerModule);
+        }
+
+        this.libraryCount = libraryCount;
+        this.librariesPerModule = librariesPerModule;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public void setCreateFiles(boolean createFiles) {
+        this.createFiles = createFiles;
+    }
+
+    public File getRootDir() {
+        return rootDir;
+    }
+
+    public File getModuleDir(int index) {
+        return new File(rootDir, getModuleName(index));
+    }
+
+    private static String getModuleName(int index) {
+        return String.format("module%04d", index);
+    }
+
+    private File getLibraryFile(int index) {
+        return new File(new File(rootDir, "libs"), String.format("library%04d.jar", index));
+    }
+
+    private static NbOutput createOutput(File moduleDir) {
+        File classesDir = new File(new File(moduleDir, "build"), "classes");
+        return new NbOutput(new File(classesDir, "main"), new File(classesDir, "test"));
+    }
+
+    private static NbSourceGroup createSourceGroup(File moduleDir, String... path) {
+        File dir = moduleDir;
+        for (String name: path) {
+            dir = new File(dir, name);
+        }
+        return new NbSourceGroup(Collections.singletonList(dir));
+    }
+
+    private static Map<NbSourceType, NbSourceGroup> createSources(File moduleDir) {
+        Map<NbSourceType, NbSourceGroup> result = new EnumMap<NbSourceType, NbSourceGroup>(NbSourceType.class);
+        result.put(NbSourceType.SOURCE, createSourceGroup(moduleDir, "src", "main", "java"));
+        result.put(NbSourceType.RESOURCE, createSourceGroup(moduleDir, "src", "main", "resources"));
+        result.put(NbSourceType.TEST_SOURCE, createSourceGroup(moduleDir, "src", "test", "java"));
+        return result;
+    }
+
+    private static NbGradleModuleBuilder createModuleBuilder(String uniqueName, File moduleDir) {
+        List<NbGradleTask> tasks = new ArrayList<NbGradleTask>();
+        tasks.add(new NbGradleTask(uniqueName + ":build", "Assembles and tests this project."));
+        tasks.add(new NbGradleTask(uniqueName + ":test", "Runs the unit tests."));
+
+        NbGradleModule.Properties properties = new NbGradleModule.Properties(
+                uniqueName, moduleDir, createOutput(moduleDir), tasks);
+        return new NbGradleModuleBuilder(properties, createSources(moduleDir), Collections.<File>emptyList());
+    }
+
+    private static <T> Set<T> pickRandom(Random random, List<T> values, int count) {
+        Set<T> result = new LinkedHashSet<T>();
+        int toPick = Math.min(count, values.size());
+        while (result.size() < toPick) {
+            result.add(values.get(random.nextInt(values.size())));
+        }
+        return result;
+    }
+
+    private List<NbUriDependency> createLibraries() {
+        List<NbUriDependency> result = new ArrayList<NbUriDependency>(libraryCount);
+        for (int i = 0; i < libraryCount; i++) {
+            result.add(new NbUriDependency(Utilities.toURI(getLibraryFile(i)), null, true));
+        }
+        return result;
+    }
+
+    private static NbDependencyGroup createGroup(
+            Set<NbModuleDependency> moduleDependencies,
+            Set<NbUriDependency> uriDependencies) {
+        return new NbDependencyGroup(
+                new ArrayList<NbModuleDependency>(moduleDependencies),
+                new ArrayList<NbUriDependency>(uriDependencies));
+    }
+
+    /**
+     * Generates the model of the build and returns its root module. The
+     * subprojects are the children of the returned module in the order of
+     * their index.
+     */
+    public NbGradleModule generate() throws IOException {
+        Random random = new Random(seed);
+        List<NbUriDependency> libraries = createLibraries();
+        // The first library is used by every test, like JUnit usually is.
+        NbUriDependency testLibrary = libraries.get(0);
+        List<NbUriDependency> compileLibraries = libraries.subList(1, libraries.size());
+
+        NbGradleModuleBuilder rootBuilder = createModuleBuilder(rootDir.getName(), rootDir);
+        List<NbModuleDependency> modules = new ArrayList<NbModuleDependency>(moduleCount);
+        for (int i = 0; i < moduleCount; i++) {
+            File moduleDir = getModuleDir(i);
+            NbGradleModuleBuilder builder = createModuleBuilder(":" + getModuleName(i), moduleDir);
+
+            Map<NbDependencyType, NbDependencyGroup> dependencies
+                    = new EnumMap<NbDependencyType, NbDependencyGroup>(NbDependencyType.class);
+            dependencies.put(NbDependencyType.COMPILE, createGroup(
+                    pickRandom(random, modules, fanOut),
+                    pickRandom(random, compileLibraries, librariesPerModule)));
+            dependencies.put(NbDependencyType.TEST_COMPILE, createGroup(
+                    Collections.<NbModuleDependency>emptySet(),
+                    Collections.singleton(testLibrary)));
+            builder.addDependencies(dependencies);
+
+            NbGradleModule module = builder.getReadOnlyView();
+            rootBuilder.addChild(module);
+            modules.add(new NbModuleDependency(module, true));
+        }
+
+        NbGradleModule root = rootBuilder.getReadOnlyView();
+        if (createFiles) {
+            createFiles(root);
+        }
+        return root;
+    }
+
+    /**
+     * Generates the model of the build with {@link #generate()} and wraps it
+     * into a {@link NbGradleModel}. The root directory is created if it
+     * does not exist, because the model refers to it as a
+     * {@code FileObject}.
+     */
+    public NbGradleModel generateModel() throws IOException {
+        NbGradleModule root = generate();
+
+        FileObject rootDirObj = FileUtil.createFolder(FileUtil.normalizeFile(rootDir));
+        return new NbGradleModel(rootDirObj, null, root);
+    }
+
+    private static void mkdirs(File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Failed to create directory: " + dir);
+        }
+    }
+
+    private static void createEmptyJar(File file) throws IOException {
+        mkdirs(file.getParentFile());
+        JarOutputStream output = new JarOutputStream(new FileOutputStream(file));
+        output.close();
+    }
+
+    private void createFiles(NbGradleModule root) throws IOException {
+        List<NbGradleModule> modules = new LinkedList<NbGradleModule>(root.getChildren());
+        modules.add(root);
+
+        for (NbGradleModule module: modules) {
+            for (NbSourceGroup sourceGroup: module.getSources().values()) {
+                for (File dir: sourceGroup.getPaths()) {
+                    mkdirs(dir);
+                }
+            }
+
+            NbOutput output = module.getProperties().getOutput();
+            mkdirs(output.getBuildDir());
+            mkdirs(output.getTestBuildDir());
+        }
+
+        for (int i = 0; i < libraryCount; i++) {
+            createEmptyJar(getLibraryFile(i));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openide.windows.OutputListener;
+import org.openide.windows.OutputWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the throughput of processing the output of a build on the
+ * threads reading the output of Gradle: splitting the output into lines
+ * and passing them through the visitors and consumers which do not need an
+ * opened project. The output is a synthetic log of a multi-project build
+ * containing task lines, compiler errors, URLs and stack traces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OutputBenchmark {
+    @Param({"1000", "100000"})
+    public int lineCount;
+
+    /**
+     * The number of characters passed to a single write call, like the
+     * size of the buffers the output is read with.
+     */
+    @Param({"8192"})
+    public int chunkSize;
+
+    private char[] output;
+
+    @Setup
+    public void setUp() {
+        output = createOutput(lineCount).toCharArray();
+    }
+
+    private static String createOutput(int lineCount) {
+        String sourceFile = new File("src/main/java/org/example/Service.java").getAbsolutePath();
+
+        StringBuilder result = new StringBuilder(lineCount * 60);
+        int taskIndex = 0;
+        for (int i = 0; i < lineCount; i++) {
+            switch (i % 20) {
+                case 0:
+                    result.append(":module").append(taskIndex++).append(":compileJava");
+                    break;
+                case 1:
+                    result.append(":module").append(taskIndex++).append(":processResources UP-TO-DATE");
+                    break;
+                case 5:
+                    result.append(sourceFile).append(":").append(i).append(": error: cannot find symbol");
+                    break;
+                case 9:
+                    result.append("Download http://repo1.maven.org/maven2/junit/junit/4.10/junit-4.10.pom");
+                    break;
+                case 12:
+                    result.append("\tat org.example.Service.call(Service.java:").append(i).append(")");
+                    break;
+                default:
+                    result.append("Compiling with the annotation processors of the module ").append(i);
+                    break;
+            }
+            result.append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        result.append("BUILD SUCCESSFUL\n");
+        return result.toString();
+    }
+
+    private void writeOutput(Writer writer) throws IOException {
+        try {
+            for (int offset = 0; offset < output.length; offset += chunkSize) {
+                writer.write(output, offset, Math.min(chunkSize, output.length - offset));
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Benchmark
+    public void lineOutputWriter() throws IOException {
+        writeOutput(new LineOutputWriter(new LineOutputWriter.Handler() {
+            @Override
+            public void writeLine(String line) {
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        }));
+    }
+
+    @Benchmark
+    public void smartOutputHandler() throws IOException {
+        FileExistenceCache fileCache = new FileExistenceCache();
+        SmartOutputHandler handler = new SmartOutputHandler(
+                new NullOutputWriter(),
+                Arrays.<SmartOutputHandler.Visitor>asList(new BuildEventStream()),
+                Arrays.<SmartOutputHandler.Consumer>asList(
+                        new BuildErrorConsumer(),
+                        new OutputUrlConsumer(),
+                        new FileLineConsumer(fileCache)));
+        writeOutput(new LineOutputWriter(handler));
+    }
+
+    @Benchmark
+    public void smartOutputHandlerWithoutConsumers() throws IOException {
+        SmartOutputHandler handler = new SmartOutputHandler(
+                new NullOutputWriter(),
+                Collections.<SmartOutputHandler.Visitor>emptyList(),
+                Collections.<SmartOutputHandler.Consumer>emptyList());
+        writeOutput(new LineOutputWriter(handler));
+    }
+
+    private static final class NullOutputWriter extends OutputWriter {
+        public NullOutputWriter() {
+            super(new Writer() {
+                @Override
+                public void write(char[] cbuf, int off, int len) {
+                }
+
+                @Override
+                public void flush() {
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+        }
+
+        @Override
+        public void println(String s, OutputListener l) {
+        }
+
+        @Override
+        public void reset() {
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package org.netbeans.gradle.project.persistent;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.netbeans.api.java.platform.JavaPlatform;
+import org.netbeans.api.java.platform.JavaPlatformManager;
+import org.netbeans.api.java.platform.Specification;
+import org.netbeans.gradle.project.properties.PredefinedTask;
+import org.netbeans.gradle.project.properties.PropertiesSnapshot;
+import org.openide.modules.SpecificationVersion;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * The DOM based implementation of the ".nb-gradle-properties" format which
+ * was replaced by the streaming {@link XmlPropertyFormat}. It is only kept
+ * to compare the two implementations: it creates a new document builder
+ * and a new transformer for every read and save, just like the original
+ * implementation did. Unlike the original implementation, it only accepts
+ * exactly matching platforms and propagates the errors.
+ */
+final class DomPropertyFormat {
+    private static final String ROOT_NODE = "gradle-project-properties";
+    private static final String SOURCE_ENCODING_NODE = "source-encoding";
+    private static final String PLATFORM_NAME_NODE = "target-platform-name";
+    private static final String PLATFORM_NODE = "target-platform";
+    private static final String SOURCE_LEVEL_NODE = "source-level";
+    private static final String COMMON_TASKS_NODE = "common-tasks";
+    private static final String TASK_DISPLAY_NAME_NODE = "display-name";
+    private static final String TASK_NON_BLOCKING_NODE = "non-blocking";
+    private static final String TASK_NODE = "task";
+    private static final String TASK_NAME_LIST_NODE = "task-names";
+    private static final String TASK_NAME_NODE = "name";
+    private static final String TASK_MUST_EXIST_ATTR = "must-exist";
+    private static final String TASK_ARGS_NODE = "task-args";
+    private static final String TASK_JVM_ARGS_NODE = "task-jvm-args";
+    private static final String ARG_NODE = "arg";
+
+    private static final String VALUE_YES = "yes";
+    private static final String VALUE_NO = "no";
+
+    private static final String DEFAULT_SPECIFICATION_NAME = "j2se";
+
+    private static Element addChild(Node parent, String tagName) {
+        Element element = parent.getOwnerDocument().createElement(tagName);
+        parent.appendChild(element);
+        return element;
+    }
+
+    private static Element addSimpleChild(Node parent, String tagName, String value) {
+        Element element = addChild(parent, tagName);
+        element.setTextContent(value);
+        return element;
+    }
+
+    private static void addArgs(Node parent, String tagName, List<String> args) {
+        Element argListNode = addChild(parent, tagName);
+        for (String arg: args) {
+            addSimpleChild(argListNode, ARG_NODE, arg);
+        }
+    }
+
+    private static void addSingleTask(Node node, PredefinedTask task) {
+        Element taskNode = addChild(node, TASK_NODE);
+
+        addSimpleChild(taskNode, TASK_DISPLAY_NAME_NODE, task.getDisplayName());
+        addSimpleChild(taskNode, TASK_NON_BLOCKING_NODE, task.isNonBlocking() ? VALUE_YES : VALUE_NO);
+
+        Element nameListNode = addChild(taskNode, TASK_NAME_LIST_NODE);
+        for (PredefinedTask.Name name: task.getTaskNames()) {
+            Element nameNode = addSimpleChild(nameListNode, TASK_NAME_NODE, name.getName());
+            nameNode.setAttribute(TASK_MUST_EXIST_ATTR, name.isMustExist() ? VALUE_YES : VALUE_NO);
+        }
+
+        addArgs(taskNode, TASK_ARGS_NODE, task.getArguments());
+        addArgs(taskNode, TASK_JVM_ARGS_NODE, task.getJvmArguments());
+    }
+
+    public static void saveToXml(File propertyfile, PropertiesSnapshot snapshot)
+            throws ParserConfigurationException, TransformerException {
+        DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+
+        Document document = builder.newDocument();
+        Element root = document.createElement(ROOT_NODE);
+        document.appendChild(root);
+
+        root.appendChild(document.createComment(
+                "DO NOT EDIT THIS FILE!"
+                + " - Used by the Gradle plugin of NetBeans."));
+
+        addSimpleChild(root, SOURCE_ENCODING_NODE, snapshot.getSourceEncoding().name());
+
+        JavaPlatform platform = snapshot.getPlatform();
+        addSimpleChild(root, PLATFORM_NAME_NODE, platform.getSpecification().getName());
+        addSimpleChild(root, PLATFORM_NODE, platform.getSpecification().getVersion().toString());
+
+        addSimpleChild(root, SOURCE_LEVEL_NODE, snapshot.getSourceLevel());
+
+        List<PredefinedTask> commonTasks = snapshot.getCommonTasks();
+        if (!commonTasks.isEmpty()) {
+            Element commonTasksNode = addChild(root, COMMON_TASKS_NODE);
+            for (PredefinedTask task: commonTasks) {
+                addSingleTask(commonTasksNode, task);
+            }
+        }
+
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.transform(new DOMSource(document), new StreamResult(propertyfile));
+    }
+
+    private static List<Element> getChildElements(Element element, String tagName) {
+        NodeList nodes = element.getElementsByTagName(tagName);
+        List<Element> result = new ArrayList<Element>(nodes.getLength());
+        for (int i = 0; i < nodes.getLength(); i++) {
+            result.add((Element)nodes.item(i));
+        }
+        return result;
+    }
+
+    private static Element getFirstChildByTagName(Element element, String tagName) {
+        NodeList children = element.getElementsByTagName(tagName);
+        return children.getLength() > 0 ? (Element)children.item(0) : null;
+    }
+
+    private static String tryGetValueOfNode(Element node, String tagName) {
+        Node child = getFirstChildByTagName(node, tagName);
+        String textContent = child != null ? child.getTextContent() : null;
+        return textContent != null ? textContent.trim() : null;
+    }
+
+    private static JavaPlatform findPlatform(String specName, String versionStr) {
+        SpecificationVersion version = new SpecificationVersion(versionStr);
+        for (JavaPlatform platform: JavaPlatformManager.getDefault().getInstalledPlatforms()) {
+            Specification specification = platform.getSpecification();
+            if (specName.equalsIgnoreCase(specification.getName())
+                    && version.equals(specification.getVersion())) {
+                return platform;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> readArgs(Element taskNode, String tagName) {
+        List<String> result = new LinkedList<String>();
+        Element argsNode = getFirstChildByTagName(taskNode, tagName);
+        if (argsNode != null) {
+            for (Element argNode: getChildElements(argsNode, ARG_NODE)) {
+                String arg = argNode.getTextContent();
+                arg = arg != null ? arg.trim() : "";
+                if (!arg.isEmpty()) {
+                    result.add(arg);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static PredefinedTask readTask(Element taskNode) {
+        String displayName = tryGetValueOfNode(taskNode, TASK_DISPLAY_NAME_NODE);
+        if (displayName == null) {
+            displayName = "?";
+        }
+
+        boolean nonBlocking = VALUE_YES.equalsIgnoreCase(tryGetValueOfNode(taskNode, TASK_NON_BLOCKING_NODE));
+
+        List<PredefinedTask.Name> names = new LinkedList<PredefinedTask.Name>();
+        Element nameListNode = getFirstChildByTagName(taskNode, TASK_NAME_LIST_NODE);
+        if (nameListNode != null) {
+            for (Element nameNode: getChildElements(nameListNode, TASK_NAME_NODE)) {
+                String name = nameNode.getTextContent();
+                name = name != null ? name.trim() : "";
+
+                if (!name.isEmpty()) {
+                    boolean mustExist = VALUE_YES.equalsIgnoreCase(nameNode.getAttribute(TASK_MUST_EXIST_ATTR));
+                    names.add(new PredefinedTask.Name(name, mustExist));
+                }
+            }
+        }
+
+        return new PredefinedTask(displayName, names,
+                readArgs(taskNode, TASK_ARGS_NODE),
+                readArgs(taskNode, TASK_JVM_ARGS_NODE),
+                nonBlocking);
+    }
+
+    private static List<PredefinedTask> readTasks(Element root) {
+        Element commonTasksNode = getFirstChildByTagName(root, COMMON_TASKS_NODE);
+        if (commonTasksNode == null) {
+            return Collections.emptyList();
+        }
+
+        List<PredefinedTask> result = new LinkedList<PredefinedTask>();
+        for (Element taskNode: getChildElements(commonTasksNode, TASK_NODE)) {
+            result.add(readTask(taskNode));
+        }
+        return result;
+    }
+
+    public static PropertiesSnapshot readFromXml(File propertiesFile)
+            throws ParserConfigurationException, SAXException, IOException {
+        DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        Element root = builder.parse(propertiesFile).getDocumentElement();
+
+        PropertiesSnapshot.Builder result = new PropertiesSnapshot.Builder();
+
+        String sourceLevel = tryGetValueOfNode(root, SOURCE_LEVEL_NODE);
+        if (sourceLevel != null) {
+            result.setSourceLevel(sourceLevel);
+        }
+
+        String sourceEncoding = tryGetValueOfNode(root, SOURCE_ENCODING_NODE);
+        if (sourceEncoding != null) {
+            result.setSourceEncoding(Charset.forName(sourceEncoding));
+        }
+
+        String platformName = tryGetValueOfNode(root, PLATFORM_NAME_NODE);
+        if (platformName == null) {
+            platformName = DEFAULT_SPECIFICATION_NAME;
+        }
+
+        String platformStr = tryGetValueOfNode(root, PLATFORM_NODE);
+        JavaPlatform platform = platformStr != null
+                ? findPlatform(platformName, platformStr)
+                : null;
+        if (platform != null) {
+            result.setPlatform(platform);
+        }
+
+        result.setCommonTasks(readTasks(root));
+        return result.create();
+    }
+
+    private DomPropertyFormat() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,114 @@
+package org.netbeans.gradle.project.persistent;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerException;
+import org.netbeans.gradle.project.BenchmarkFiles;
+import org.netbeans.gradle.project.TestJavaPlatformProvider;
+import org.netbeans.gradle.project.properties.PredefinedTask;
+import org.netbeans.gradle.project.properties.PropertiesSnapshot;
+import org.netbeans.junit.MockServices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.xml.sax.SAXException;
+
+/**
+ * Compares saving and loading the ".nb-gradle-properties" file through the
+ * streaming {@link XmlPropertyFormat} and through the DOM based
+ * {@link DomPropertyFormat} it replaced, for files with up to hundreds of
+ * common tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PropertyFormatBenchmark {
+    @Param({"0", "10", "100", "500"})
+    public int taskCount;
+
+    private File tempDir;
+    private File staxFile;
+    private File domFile;
+    private PropertiesSnapshot snapshot;
+
+    private static PredefinedTask createTask(int index) {
+        return new PredefinedTask(
+                "Task " + index,
+                Arrays.asList(
+                        new PredefinedTask.Name("clean", false),
+                        new PredefinedTask.Name(":module" + index + ":build", true)),
+                Arrays.asList("-Pindex=" + index, "-Dvalue=\"quoted\""),
+                Arrays.asList("-Xmx" + (index + 256) + "m"),
+                index % 2 == 0);
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        MockServices.setServices(TestJavaPlatformProvider.class);
+
+        List<PredefinedTask> tasks = new ArrayList<PredefinedTask>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(createTask(i));
+        }
+
+        PropertiesSnapshot.Builder builder = new PropertiesSnapshot.Builder();
+        builder.setSourceLevel("1.7");
+        builder.setPlatform(TestJavaPlatformProvider.JDK7);
+        builder.setSourceEncoding(Charset.forName("UTF-8"));
+        builder.setCommonTasks(tasks);
+        snapshot = builder.create();
+
+        tempDir = BenchmarkFiles.createTempDir("properties");
+        staxFile = new File(tempDir, "stax.nb-gradle-properties");
+        domFile = new File(tempDir, "dom.nb-gradle-properties");
+
+        if (!XmlPropertyFormat.saveToXml(staxFile, snapshot)) {
+            throw new IOException("Failed to save " + staxFile);
+        }
+        DomPropertyFormat.saveToXml(domFile, snapshot);
+
+        // Both implementations must write the same properties, otherwise
+        // comparing them would be meaningless.
+        if (!snapshot.equals(XmlPropertyFormat.readFromXml(domFile))
+                || !snapshot.equals(DomPropertyFormat.readFromXml(staxFile))) {
+            throw new IllegalStateException("The formats are not compatible.");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkFiles.deleteRecursively(tempDir);
+    }
+
+    @Benchmark
+    public boolean staxSave() {
+        return XmlPropertyFormat.saveToXml(staxFile, snapshot);
+    }
+
+    @Benchmark
+    public void domSave() throws ParserConfigurationException, TransformerException {
+        DomPropertyFormat.saveToXml(domFile, snapshot);
+    }
+
+    @Benchmark
+    public PropertiesSnapshot staxLoad() {
+        return XmlPropertyFormat.readFromXml(staxFile);
+    }
+
+    @Benchmark
+    public PropertiesSnapshot domLoad() throws ParserConfigurationException, SAXException, IOException {
+        return DomPropertyFormat.readFromXml(domFile);
+    }
+}
@@ -0,0 +1,153 @@
+package org.netbeans.gradle.project.properties;
+
+import java.io.File;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares looking up the properties of projects (which is done for every
+ * opened project) in {@link ConcurrentWeakValueMap} and in a weak valued
+ * hash map guarded by a single lock, which cleans its reference queue on
+ * every access (how {@code ProjectPropertiesManager} used to store the
+ * properties).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class WeakValueMapBenchmark {
+    @Param({"10", "1000"})
+    public int keyCount;
+
+    private List<File> keys;
+    // The values must be strongly referenced to remain in the maps.
+    private List<Object> values;
+
+    private ConcurrentWeakValueMap<File, Object> concurrentMap;
+    private LockedWeakValueMap<File, Object> lockedMap;
+
+    @Setup
+    public void setUp() {
+        keys = new ArrayList<File>(keyCount);
+        values = new ArrayList<Object>(keyCount);
+        concurrentMap = new ConcurrentWeakValueMap<File, Object>();
+        lockedMap = new LockedWeakValueMap<File, Object>();
+
+        for (int i = 0; i < keyCount; i++) {
+            File key = new File("project" + i, ".nb-gradle-properties");
+            Object value = new Object();
+            keys.add(key);
+            values.add(value);
+
+            concurrentMap.putIfAbsent(key, value);
+            lockedMap.putIfAbsent(key, value);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private final Random random = new Random();
+
+        public int nextIndex(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    @Benchmark
+    public Object concurrentGet(ThreadState state) {
+        return concurrentMap.get(keys.get(state.nextIndex(keyCount)));
+    }
+
+    @Benchmark
+    public Object lockedGet(ThreadState state) {
+        return lockedMap.get(keys.get(state.nextIndex(keyCount)));
+    }
+
+    @Benchmark
+    public Object concurrentPutIfAbsent(ThreadState state) {
+        int index = state.nextIndex(keyCount);
+        return concurrentMap.putIfAbsent(keys.get(index), values.get(index));
+    }
+
+    @Benchmark
+    public Object lockedPutIfAbsent(ThreadState state) {
+        int index = state.nextIndex(keyCount);
+        return lockedMap.putIfAbsent(keys.get(index), values.get(index));
+    }
+
+    private static final class LockedWeakValueMap<K, V> {
+        private final Lock mainLock;
+        private final Map<K, TableRef<K, V>> map;
+        private final ReferenceQueue<V> references;
+
+        public LockedWeakValueMap() {
+            this.mainLock = new ReentrantLock();
+            this.map = new HashMap<K, TableRef<K, V>>();
+            this.references = new ReferenceQueue<V>();
+        }
+
+        private void removeUnreferenced() {
+            while (true) {
+                @SuppressWarnings("unchecked")
+                TableRef<K, V> ref = (TableRef<K, V>)references.poll();
+                if (ref == null) {
+                    break;
+                }
+                map.remove(ref.key);
+            }
+        }
+
+        public V get(K key) {
+            mainLock.lock();
+            try {
+                removeUnreferenced();
+                TableRef<K, V> ref = map.get(key);
+                return ref != null ? ref.get() : null;
+            } finally {
+                mainLock.unlock();
+            }
+        }
+
+        public V putIfAbsent(K key, V value) {
+            mainLock.lock();
+            try {
+                removeUnreferenced();
+                TableRef<K, V> ref = map.get(key);
+                V prevValue = ref != null ? ref.get() : null;
+                if (prevValue != null) {
+                    return prevValue;
+                }
+                map.put(key, new TableRef<K, V>(key, value, references));
+                return null;
+            } finally {
+                mainLock.unlock();
+            }
+        }
+    }
+
+    private static final class TableRef<K, V> extends WeakReference<V> {
+        private final K key;
+
+        public TableRef(K key, V value, ReferenceQueue<? super V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
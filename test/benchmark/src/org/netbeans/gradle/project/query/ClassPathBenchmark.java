@@ -0,0 +1,113 @@
+package org.netbeans.gradle.project.query;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.gradle.project.BenchmarkFiles;
+import org.netbeans.gradle.project.model.NbDependency;
+import org.netbeans.gradle.project.model.NbDependencyType;
+import org.netbeans.gradle.project.model.NbGradleModule;
+import org.netbeans.gradle.project.model.NbModelUtils;
+import org.netbeans.gradle.project.model.NbModuleDependency;
+import org.netbeans.gradle.project.model.NbUriDependency;
+import org.netbeans.gradle.project.model.SyntheticModelGenerator;
+import org.netbeans.spi.java.classpath.PathResourceImplementation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures building the class paths of the last (the most dependent)
+ * subproject of a synthetic build. {@link GradleClassPathProvider} needs an
+ * opened project, so this benchmark does the same steps as
+ * {@code GradleClassPathProvider.loadPathResources}: collecting the
+ * dependencies and converting the files to path resources through
+ * {@link GradleClassPathProvider#getPathResources(Set, List[])}.
+ * The files referenced by the model exist, like in a built project.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClassPathBenchmark {
+    @Param({"10", "100", "1000"})
+    public int moduleCount;
+
+    private File tempDir;
+    private NbGradleModule mainModule;
+
+    @Setup
+    public void setUp() throws IOException {
+        tempDir = BenchmarkFiles.createTempDir("classpath");
+
+        SyntheticModelGenerator generator = new SyntheticModelGenerator(tempDir);
+        generator.setModuleCount(moduleCount);
+        generator.setCreateFiles(true);
+
+        List<NbGradleModule> modules = generator.generate().getChildren();
+        mainModule = modules.get(modules.size() - 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkFiles.deleteRecursively(tempDir);
+    }
+
+    private static void addDependencies(
+            NbGradleModule module,
+            NbDependencyType type,
+            List<File> paths,
+            List<File> modulePaths) {
+        for (NbDependency dependency: NbModelUtils.getAllDependencies(module, type)) {
+            if (dependency instanceof NbUriDependency) {
+                File file = ((NbUriDependency)dependency).tryGetAsFile();
+                if (file != null) {
+                    paths.add(file);
+                }
+            }
+            else if (dependency instanceof NbModuleDependency) {
+                NbGradleModule dependencyModule = ((NbModuleDependency)dependency).getModule();
+                modulePaths.add(dependencyModule.getProperties().getOutput().getBuildDir());
+            }
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public int loadClassPaths() {
+        List<File> compile = new LinkedList<File>();
+        List<File> testCompile = new LinkedList<File>();
+        List<File> runtime = new LinkedList<File>();
+        List<File> testRuntime = new LinkedList<File>();
+
+        runtime.add(mainModule.getProperties().getOutput().getBuildDir());
+        testRuntime.add(mainModule.getProperties().getOutput().getTestBuildDir());
+
+        addDependencies(mainModule, NbDependencyType.COMPILE, compile, runtime);
+        addDependencies(mainModule, NbDependencyType.RUNTIME, runtime, runtime);
+        addDependencies(mainModule, NbDependencyType.TEST_COMPILE, testCompile, testRuntime);
+        addDependencies(mainModule, NbDependencyType.TEST_RUNTIME, testRuntime, testRuntime);
+
+        Set<File> missing = new HashSet<File>();
+        List<PathResourceImplementation> compilePaths
+                = GradleClassPathProvider.getPathResources(missing, compile);
+        List<PathResourceImplementation> testCompilePaths
+                = GradleClassPathProvider.getPathResources(missing, compile, testCompile);
+        List<PathResourceImplementation> runtimePaths
+                = GradleClassPathProvider.getPathResources(missing, compile, runtime);
+        List<PathResourceImplementation> testRuntimePaths
+                = GradleClassPathProvider.getPathResources(missing, compile, testCompile, runtime, testRuntime);
+
+        return compilePaths.size() + testCompilePaths.size()
+                + runtimePaths.size() + testRuntimePaths.size();
+    }
+}
@@ -0,0 +1,259 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.netbeans.gradle.project.newproject.SyntheticBuildGenerator;
+import org.netbeans.gradle.project.properties.GlobalGradleSettings;
+import org.netbeans.gradle.project.query.GradleClassPathProvider;
+import org.netbeans.spi.java.classpath.PathResourceImplementation;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+/**
+ * Measures how loading the model of a multi-project build, building the
+ * class paths of its subprojects and looking up its subprojects scale with
+ * the number of subprojects. The builds are generated by
+ * {@link SyntheticBuildGenerator} and are loaded by the local Gradle
+ * distribution set in the "gradle.home" system property, without network
+ * access. The test is skipped if "gradle.home" is not set.
+ * <P>
+ * The size of the generated builds can be adjusted by the following system
+ * properties: "scaling.module-counts" (comma separated list, "10,100" by
+ * default), "scaling.fan-out" (3 by default), "scaling.classes-per-module"
+ * and "scaling.methods-per-class" (10 by default).
+ */
+public class ModelLoadScalingTest {
+    private static final Logger LOGGER = Logger.getLogger(ModelLoadScalingTest.class.getName());
+
+    private static final String GRADLE_HOME_PROPERTY = "gradle.home";
+    private static final long MODEL_LOAD_TIMEOUT_MINUTES = 30;
+
+    @Rule
+    public final TemporaryFolder tmpDir = new TemporaryFolder();
+
+    private boolean gradleHomeChanged = false;
+    private FileObject prevGradleHome = null;
+
+    @Before
+    public void setUp() {
+        String gradleHomeStr = System.getProperty(GRADLE_HOME_PROPERTY, "").trim();
+        assumeTrue(!gradleHomeStr.isEmpty());
+
+        FileObject gradleHome = FileUtil.toFileObject(FileUtil.normalizeFile(new File(gradleHomeStr)));
+        assertNotNull("Missing Gradle distribution: " + gradleHomeStr, gradleHome);
+
+        prevGradleHome = GlobalGradleSettings.getGradleHome().getValue();
+        GlobalGradleSettings.getGradleHome().setValue(gradleHome);
+        gradleHomeChanged = true;
+    }
+
+    @After
+    public void tearDown() {
+        if (gradleHomeChanged) {
+            GlobalGradleSettings.getGradleHome().setValue(prevGradleHome);
+        }
+    }
+
+    private static int getIntProperty(String name, int defaultValue) {
+        String value = System.getProperty(name, "").trim();
+        return value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static List<Integer> getModuleCounts() {
+        String value = System.getProperty("scaling.module-counts", "10,100");
+        List<Integer> result = new ArrayList<Integer>();
+        for (String count: value.split(",")) {
+            count = count.trim();
+            if (!count.isEmpty()) {
+                result.add(Integer.parseInt(count));
+            }
+        }
+        return result;
+    }
+
+    private static NbGradleModel loadModel(FileObject projectDir) throws Exception {
+        final CountDownLatch doneSignal = new CountDownLatch(1);
+        final AtomicReference<NbGradleModel> modelRef = new AtomicReference<NbGradleModel>(null);
+        final AtomicReference<Throwable> errorRef = new AtomicReference<Throwable>(null);
+
+        GradleModelLoader.fetchModel(projectDir, false, new ModelRetrievedListener() {
+            @Override
+            public void onComplete(NbGradleModel model, Throwable error) {
+                modelRef.set(model);
+                errorRef.set(error);
+                doneSignal.countDown();
+            }
+        });
+
+        if (!doneSignal.await(MODEL_LOAD_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Timeout while loading " + projectDir);
+        }
+
+        Throwable error = errorRef.get();
+        if (error instanceof Exception) {
+            throw (Exception)error;
+        }
+        if (error != null) {
+            throw (Error)error;
+        }
+        return modelRef.get();
+    }
+
+    private static void createOutputDirs(NbGradleModule module) throws IOException {
+        // The class path entries must exist, like in a project already built.
+        NbOutput output = module.getProperties().getOutput();
+        FileUtil.createFolder(output.getBuildDir());
+        FileUtil.createFolder(output.getTestBuildDir());
+    }
+
+    private static void addDependencies(
+            NbGradleModule module,
+            NbDependencyType type,
+            List<File> paths,
+            List<File> modulePaths) {
+        for (NbDependency dependency: NbModelUtils.getAllDependencies(module, type)) {
+            if (dependency instanceof NbUriDependency) {
+                File file = ((NbUriDependency)dependency).tryGetAsFile();
+                if (file != null) {
+                    paths.add(file);
+                }
+            }
+            else if (dependency instanceof NbModuleDependency) {
+                NbGradleModule dependencyModule = ((NbModuleDependency)dependency).getModule();
+                modulePaths.add(dependencyModule.getProperties().getOutput().getBuildDir());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int loadClassPaths(NbGradleModule module) {
+        // The same steps as GradleClassPathProvider.loadPathResources, which
+        // cannot be used without an opened project.
+        List<File> compile = new LinkedList<File>();
+        List<File> testCompile = new LinkedList<File>();
+        List<File> runtime = new LinkedList<File>();
+        List<File> testRuntime = new LinkedList<File>();
+
+        runtime.add(module.getProperties().getOutput().getBuildDir());
+        testRuntime.add(module.getProperties().getOutput().getTestBuildDir());
+
+        addDependencies(module, NbDependencyType.COMPILE, compile, runtime);
+        addDependencies(module, NbDependencyType.RUNTIME, runtime, runtime);
+        addDependencies(module, NbDependencyType.TEST_COMPILE, testCompile, testRuntime);
+        addDependencies(module, NbDependencyType.TEST_RUNTIME, testRuntime, testRuntime);
+
+        Set<File> missing = new HashSet<File>();
+        List<PathResourceImplementation> compilePaths
+                = GradleClassPathProvider.getPathResources(missing, compile);
+        List<PathResourceImplementation> testRuntimePaths
+                = GradleClassPathProvider.getPathResources(missing, compile, testCompile, runtime, testRuntime);
+        assertTrue("Missing class path entries: " + missing, missing.isEmpty());
+
+        return compilePaths.size() + testRuntimePaths.size();
+    }
+
+    private static void checkDependencies(SyntheticBuildGenerator generator, NbGradleModule module, int moduleIndex) {
+        Set<String> expected = new HashSet<String>();
+        for (Integer dependency: generator.getDependencies(moduleIndex)) {
+            expected.add(SyntheticBuildGenerator.getModuleName(dependency));
+        }
+
+        Set<String> actual = new HashSet<String>();
+        for (NbModuleDependency dependency: module.getDependencies(NbDependencyType.COMPILE).getModuleDependencies()) {
+            actual.add(dependency.getModule().getName());
+        }
+
+        assertEquals("Dependencies of " + module.getUniqueName(), expected, actual);
+    }
+
+    private static String toMillisStr(long nanos) {
+        return Long.toString(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    private void measure(int moduleCount, int fanOut, int classesPerModule, int methodsPerClass) throws Exception {
+        SyntheticBuildGenerator generator = new SyntheticBuildGenerator(
+                tmpDir.newFolder("build" + moduleCount));
+        generator.setModuleCount(moduleCount);
+        generator.setFanOut(fanOut);
+        generator.setSourceSize(classesPerModule, methodsPerClass);
+        generator.generate();
+
+        FileObject projectDir = FileUtil.toFileObject(FileUtil.normalizeFile(generator.getRootDir()));
+        assertNotNull(projectDir);
+
+        // The first load also includes starting the daemon of Gradle.
+        long coldLoadStart = System.nanoTime();
+        loadModel(projectDir);
+        long coldLoadNanos = System.nanoTime() - coldLoadStart;
+
+        long warmLoadStart = System.nanoTime();
+        NbGradleModel model = loadModel(projectDir);
+        long warmLoadNanos = System.nanoTime() - warmLoadStart;
+
+        NbGradleModule mainModule = model.getMainModule();
+        List<NbGradleModule> modules = new ArrayList<NbGradleModule>(moduleCount);
+        for (int i = 0; i < moduleCount; i++) {
+            String name = ":" + SyntheticBuildGenerator.getModuleName(i);
+            NbGradleModule module = NbModelUtils.lookupModuleByName(mainModule, name);
+            assertNotNull("Missing subproject: " + name, module);
+            checkDependencies(generator, module, i);
+            createOutputDirs(module);
+            modules.add(module);
+        }
+
+        long classPathStart = System.nanoTime();
+        for (NbGradleModule module: modules) {
+            loadClassPaths(module);
+        }
+        long classPathNanos = System.nanoTime() - classPathStart;
+
+        long queryStart = System.nanoTime();
+        for (int i = 0; i < moduleCount; i++) {
+            String name = ":" + SyntheticBuildGenerator.getModuleName(i);
+            NbGradleModule module = NbModelUtils.lookupModuleByName(mainModule, name);
+            NbModelUtils.getAllModuleDependencies(module);
+        }
+        long queryNanos = System.nanoTime() - queryStart;
+
+        LOGGER.log(Level.INFO,
+                "Scaling: modules={0}, fanOut={1}, classesPerModule={2}, methodsPerClass={3}, coldLoadMs={4}, warmLoadMs={5}, classPathMs={6}, queryMs={7}",
+                new Object[]{
+                    moduleCount,
+                    fanOut,
+                    classesPerModule,
+                    methodsPerClass,
+                    toMillisStr(coldLoadNanos),
+                    toMillisStr(warmLoadNanos),
+                    toMillisStr(classPathNanos),
+                    toMillisStr(queryNanos)});
+    }
+
+    @Test
+    public void testScaling() throws Exception {
+        int fanOut = getIntProperty("scaling.fan-out", 3);
+        int classesPerModule = getIntProperty("scaling.classes-per-module", 10);
+        int methodsPerClass = getIntProperty("scaling.methods-per-class", 10);
+
+        for (int moduleCount: getModuleCounts()) {
+            measure(moduleCount, fanOut, classesPerModule, methodsPerClass);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.netbeans.gradle.project;
+
+import java.beans.PropertyChangeListener;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.netbeans.api.java.classpath.ClassPath;
+import org.netbeans.api.java.platform.JavaPlatform;
+import org.netbeans.api.java.platform.Specification;
+import org.netbeans.modules.java.platform.JavaPlatformProvider;
+import org.netbeans.spi.java.classpath.support.ClassPathSupport;
+import org.openide.filesystems.FileObject;
+import org.openide.modules.SpecificationVersion;
+
+/**
+ * Provides two Java platforms for tests requiring installed platforms. Tests
+ * must register this class through {@code MockServices.setServices}.
+ * {@link #JDK6} is the default platform.
+ */
+public final class TestJavaPlatformProvider implements JavaPlatformProvider {
+    public static final JavaPlatform JDK6 = new TestPlatform("1.6");
+    public static final JavaPlatform JDK7 = new TestPlatform("1.7");
+
+    @Override
+    public JavaPlatform[] getInstalledPlatforms() {
+        return new JavaPlatform[]{JDK6, JDK7};
+    }
+
+    @Override
+    public JavaPlatform getDefaultPlatform() {
+        return JDK6;
+    }
+
+    @Override
+    public void addPropertyChangeListener(PropertyChangeListener listener) {
+    }
+
+    @Override
+    public void removePropertyChangeListener(PropertyChangeListener listener) {
+    }
+
+    private static final class TestPlatform extends JavaPlatform {
+        private final Specification specification;
+
+        public TestPlatform(String version) {
+            this.specification = new Specification("j2se", new SpecificationVersion(version));
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "JDK " + specification.getVersion();
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return new HashMap<String, String>();
+        }
+
+        @Override
+        public ClassPath getBootstrapLibraries() {
+            return ClassPathSupport.createClassPath(new FileObject[0]);
+        }
+
+        @Override
+        public ClassPath getStandardLibraries() {
+            return ClassPathSupport.createClassPath(new FileObject[0]);
+        }
+
+        @Override
+        public String getVendor() {
+            return "Test";
+        }
+
+        @Override
+        public Specification getSpecification() {
+            return specification;
+        }
+
+        @Override
+        public Collection<FileObject> getInstallFolders() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public FileObject findTool(String toolName) {
+            return null;
+        }
+
+        @Override
+        public ClassPath getSourceFolders() {
+            return ClassPathSupport.createClassPath(new FileObject[0]);
+        }
+
+        @Override
+        public List<URL> getJavadocFolders() {
+            return Collections.emptyList();
+        }
+    }
+}
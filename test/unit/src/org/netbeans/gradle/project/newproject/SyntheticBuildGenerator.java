@@ -0,0 +1,244 @@
+package org.netbeans.gradle.project.newproject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.netbeans.gradle.project.GradleProjectConstants;
+import org.netbeans.gradle.project.StringUtils;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+
+/**
+ * Writes a synthetic multi-project Gradle build to the disk, so that the
+ * scaling of loading and querying large builds can be measured. The root
+ * project is created from the same templates as the projects created by
+ * {@link GradleMultiProjectWizardIterator} and the subprojects are created
+ * from the template used by {@link GradleSubProjectWizardIterator}.
+ * <P>
+ * Unlike the template, the generated "parent.gradle" does not declare any
+ * repository or external dependency, so the generated build can be loaded
+ * without network access. Every subproject depends on
+ * {@link #setFanOut(int) a few} of the subprojects before it (so there are
+ * no circular dependencies) and the classes of the subprojects reference
+ * the classes of their dependencies, so the build also compiles. The same
+ * settings (including the seed) always generate the same build.
+ */
+public final class SyntheticBuildGenerator {
+    private static final String MULTI_PROJECT_BUILD_GRADLE = "org/netbeans/gradle/project/resources/newproject/multi-project-root.gradle";
+    private static final String MULTI_PROJECT_SETTINGS_GRADLE = "org/netbeans/gradle/project/resources/newproject/multi-project-settings.gradle";
+    private static final String SUBPROJECT_BUILD_GRADLE = "org/netbeans/gradle/project/resources/newproject/subproject.gradle";
+
+    private static final String PARENT_GRADLE = "parent.gradle";
+    private static final String BASE_PACKAGE = "org.example";
+
+    private final File rootDir;
+    private int moduleCount;
+    private int fanOut;
+    private int classesPerModule;
+    private int methodsPerClass;
+    private long seed;
+
+    public SyntheticBuildGenerator(File rootDir) {
+        if (rootDir == null) throw new NullPointerException("rootDir");
+
+        this.rootDir = rootDir;
+        this.moduleCount = 10;
+        this.fanOut = 3;
+        this.classesPerModule = 10;
+        this.methodsPerClass = 10;
+        this.seed = 1;
+    }
+
+    public void setModuleCount(int moduleCount) {
+        if (moduleCount <= 0) throw new IllegalArgumentException("moduleCount must be positive: " + moduleCount);
+        this.moduleCount = moduleCount;
+    }
+
+    /**
+     * Sets the number of subprojects each subproject depends on directly
+     * (less for the first few subprojects).
+     */
+    public void setFanOut(int fanOut) {
+        if (fanOut < 0) throw new IllegalArgumentException("fanOut must not be negative: " + fanOut);
+        this.fanOut = fanOut;
+    }
+
+    /**
+     * Sets the size of the sources of a subproject: the number of classes
+     * (besides the main class) and the number of methods in each of them.
+     */
+    public void setSourceSize(int classesPerModule, int methodsPerClass) {
+        if (classesPerModule < 0) throw new IllegalArgumentException("classesPerModule must not be negative: " + classesPerModule);
+        if (methodsPerClass < 0) throw new IllegalArgumentException("methodsPerClass must not be negative: " + methodsPerClass);
+
+        this.classesPerModule = classesPerModule;
+        this.methodsPerClass = methodsPerClass;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public File getRootDir() {
+        return rootDir;
+    }
+
+    public int getModuleCount() {
+        return moduleCount;
+    }
+
+    public static String getModuleName(int index) {
+        return String.format("module%04d", index);
+    }
+
+    public File getModuleDir(int index) {
+        return new File(rootDir, getModuleName(index));
+    }
+
+    private static String getPackageName(int moduleIndex) {
+        return BASE_PACKAGE + "." + getModuleName(moduleIndex);
+    }
+
+    private static String getMainClassName(int moduleIndex) {
+        return getPackageName(moduleIndex) + ".Main";
+    }
+
+    /**
+     * Returns the indexes of the subprojects the given subproject depends on
+     * directly, in ascending order.
+     */
+    public List<Integer> getDependencies(int moduleIndex) {
+        if (moduleIndex < 0 || moduleIndex >= moduleCount) {
+            throw new IndexOutOfBoundsException("Illegal module index: " + moduleIndex);
+        }
+
+        int dependencyCount = Math.min(fanOut, moduleIndex);
+        List<Integer> candidates = new ArrayList<Integer>(moduleIndex);
+        for (int i = 0; i < moduleIndex; i++) {
+            candidates.add(i);
+        }
+        Collections.shuffle(candidates, new Random(seed * 31 + moduleIndex));
+
+        List<Integer> result = new ArrayList<Integer>(candidates.subList(0, dependencyCount));
+        Collections.sort(result);
+        return result;
+    }
+
+    public void generate() throws IOException {
+        FileUtil.createFolder(rootDir);
+
+        copyResource(MULTI_PROJECT_BUILD_GRADLE, new File(rootDir, GradleProjectConstants.BUILD_FILE_NAME));
+        copyResource(MULTI_PROJECT_SETTINGS_GRADLE, new File(rootDir, GradleProjectConstants.SETTINGS_FILE_NAME));
+        writeFile(createParentGradle(), new File(rootDir, PARENT_GRADLE));
+
+        for (int i = 0; i < moduleCount; i++) {
+            generateModule(i);
+        }
+    }
+
+    private static String createParentGradle() {
+        StringBuilder content = new StringBuilder(256);
+        content.append("apply plugin: 'java';\n");
+        content.append("\n");
+        content.append("sourceCompatibility = '1.6';\n");
+        content.append("[compileJava, compileTestJava]*.options*.encoding = 'UTF-8';\n");
+        return content.toString();
+    }
+
+    private void generateModule(int moduleIndex) throws IOException {
+        File moduleDirAsFile = getModuleDir(moduleIndex);
+        FileObject moduleDir = FileUtil.createFolder(moduleDirAsFile);
+        NewProjectUtils.createDefaultSourceDirs(moduleDir);
+
+        List<Integer> dependencies = getDependencies(moduleIndex);
+
+        String buildGradleContent = StringUtils.getResourceAsString(
+                SUBPROJECT_BUILD_GRADLE,
+                NewProjectUtils.DEFAULT_FILE_ENCODING);
+        buildGradleContent = buildGradleContent.replace("${MAIN_CLASS}", getMainClassName(moduleIndex));
+
+        StringBuilder buildGradle = new StringBuilder(buildGradleContent);
+        if (!dependencies.isEmpty()) {
+            buildGradle.append("\ndependencies {\n");
+            for (Integer dependency: dependencies) {
+                buildGradle.append("    compile project(':");
+                buildGradle.append(getModuleName(dependency));
+                buildGradle.append("');\n");
+            }
+            buildGradle.append("}\n");
+        }
+        writeFile(buildGradle.toString(), new File(moduleDirAsFile, GradleProjectConstants.BUILD_FILE_NAME));
+
+        NewProjectUtils.createMainClass(moduleDirAsFile, getMainClassName(moduleIndex));
+
+        File packageDir = new File(moduleDirAsFile, "src");
+        packageDir = new File(packageDir, "main");
+        packageDir = new File(packageDir, "java");
+        packageDir = new File(packageDir, getPackageName(moduleIndex).replace(".", File.separator));
+
+        for (int i = 0; i < classesPerModule; i++) {
+            // Only the first class references the dependencies, so that the
+            // size of the sources does not depend on the fan-out.
+            List<Integer> referenced = i == 0
+                    ? dependencies
+                    : Collections.<Integer>emptyList();
+            String content = createClass(moduleIndex, i, referenced);
+            writeFile(content, new File(packageDir, "Class" + i + ".java"));
+        }
+    }
+
+    private String createClass(int moduleIndex, int classIndex, List<Integer> referencedModules) {
+        StringBuilder content = new StringBuilder(256 + 100 * methodsPerClass);
+        content.append("package ");
+        content.append(getPackageName(moduleIndex));
+        content.append(";\n\n");
+
+        content.append("public class Class");
+        content.append(classIndex);
+        content.append(" {\n");
+
+        for (Integer referenced: referencedModules) {
+            String referencedClass = getPackageName(referenced) + ".Class0";
+            content.append("    private final ");
+            content.append(referencedClass);
+            content.append(" dependency");
+            content.append(referenced);
+            content.append(" = new ");
+            content.append(referencedClass);
+            content.append("();\n");
+        }
+        if (!referencedModules.isEmpty()) {
+            content.append("\n");
+        }
+
+        for (int i = 0; i < methodsPerClass; i++) {
+            if (i > 0) {
+                content.append("\n");
+            }
+            content.append("    public int method");
+            content.append(i);
+            content.append("(int value) {\n");
+            content.append("        return value * 31 + ");
+            content.append(i);
+            content.append(";\n");
+            content.append("    }\n");
+        }
+
+        content.append("}\n");
+        return content.toString();
+    }
+
+    private static void copyResource(String resourcePath, File file) throws IOException {
+        String content = StringUtils.getResourceAsString(
+                resourcePath,
+                NewProjectUtils.DEFAULT_FILE_ENCODING);
+        writeFile(content, file);
+    }
+
+    private static void writeFile(String content, File file) throws IOException {
+        StringUtils.writeStringToFile(content, NewProjectUtils.DEFAULT_FILE_ENCODING, file);
+    }
+}
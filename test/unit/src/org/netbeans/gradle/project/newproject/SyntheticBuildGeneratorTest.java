@@ -0,0 +1,141 @@
+package org.netbeans.gradle.project.newproject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.netbeans.gradle.project.GradleProjectConstants;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+public class SyntheticBuildGeneratorTest {
+    @Rule
+    public final TemporaryFolder tmpDir = new TemporaryFolder();
+
+    private static String readFile(File file) throws IOException {
+        InputStream input = new FileInputStream(file);
+        try {
+            byte[] content = new byte[(int)file.length()];
+            int offset = 0;
+            while (offset < content.length) {
+                int readCount = input.read(content, offset, content.length - offset);
+                if (readCount <= 0) {
+                    break;
+                }
+                offset += readCount;
+            }
+            return new String(content, 0, offset, NewProjectUtils.DEFAULT_FILE_ENCODING);
+        } finally {
+            input.close();
+        }
+    }
+
+    private static void collectSources(File dir, List<String> result) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file: files) {
+            if (file.isDirectory()) {
+                collectSources(file, result);
+            }
+            else if (file.getName().endsWith(".java")) {
+                result.add(file.getPath());
+            }
+        }
+    }
+
+    private SyntheticBuildGenerator createGenerator(String dirName) throws IOException {
+        SyntheticBuildGenerator generator = new SyntheticBuildGenerator(tmpDir.newFolder(dirName));
+        generator.setModuleCount(20);
+        generator.setFanOut(3);
+        generator.setSourceSize(2, 3);
+        return generator;
+    }
+
+    @Test
+    public void testDependencies() throws IOException {
+        SyntheticBuildGenerator generator = createGenerator("build");
+
+        for (int i = 0; i < generator.getModuleCount(); i++) {
+            List<Integer> dependencies = generator.getDependencies(i);
+            assertEquals(Math.min(3, i), dependencies.size());
+
+            int prevDependency = -1;
+            for (Integer dependency: dependencies) {
+                assertTrue(dependency > prevDependency);
+                assertTrue(dependency < i);
+                prevDependency = dependency;
+            }
+        }
+    }
+
+    @Test
+    public void testSameSeedGeneratesSameDependencies() throws IOException {
+        SyntheticBuildGenerator generator1 = createGenerator("build1");
+        SyntheticBuildGenerator generator2 = createGenerator("build2");
+
+        for (int i = 0; i < generator1.getModuleCount(); i++) {
+            assertEquals(generator1.getDependencies(i), generator2.getDependencies(i));
+        }
+    }
+
+    @Test
+    public void testGeneratedFiles() throws IOException {
+        SyntheticBuildGenerator generator = createGenerator("build");
+        generator.generate();
+
+        File rootDir = generator.getRootDir();
+        assertTrue(new File(rootDir, GradleProjectConstants.BUILD_FILE_NAME).isFile());
+        assertTrue(new File(rootDir, GradleProjectConstants.SETTINGS_FILE_NAME).isFile());
+
+        String parentGradle = readFile(new File(rootDir, "parent.gradle"));
+        assertFalse(parentGradle.contains("repositories"));
+
+        for (int i = 0; i < generator.getModuleCount(); i++) {
+            File moduleDir = generator.getModuleDir(i);
+            String buildGradle = readFile(new File(moduleDir, GradleProjectConstants.BUILD_FILE_NAME));
+            for (Integer dependency: generator.getDependencies(i)) {
+                String expected = "compile project(':" + SyntheticBuildGenerator.getModuleName(dependency) + "')";
+                assertTrue(buildGradle.contains(expected));
+            }
+
+            List<String> sources = new ArrayList<String>();
+            collectSources(new File(moduleDir, "src"), sources);
+            // The main class and the generated classes.
+            assertEquals(3, sources.size());
+            assertTrue(new File(moduleDir, "src" + File.separator + "test" + File.separator + "java").isDirectory());
+        }
+    }
+
+    @Test
+    public void testGeneratedSourcesCompile() throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assumeNotNull(compiler);
+
+        SyntheticBuildGenerator generator = createGenerator("build");
+        generator.generate();
+
+        List<String> sources = new ArrayList<String>();
+        collectSources(generator.getRootDir(), sources);
+        Collections.sort(sources);
+
+        List<String> args = new ArrayList<String>();
+        args.addAll(Arrays.asList("-proc:none", "-d", tmpDir.newFolder("classes").getPath()));
+        args.addAll(sources);
+
+        int result = compiler.run(null, null, null, args.toArray(new String[args.size()]));
+        assertEquals(0, result);
+    }
+}
@@ -0,0 +1,205 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BuildEventStreamTest {
+    private BuildEventStream stream;
+    private List<BuildEvent> events;
+
+    @Before
+    public void setUp() {
+        stream = new BuildEventStream();
+        events = new ArrayList<BuildEvent>();
+        stream.addListener(new BuildEventListener() {
+            @Override
+            public void onBuildEvent(BuildEvent event) {
+                if (event.getKind() != BuildEvent.Kind.PROGRESS) {
+                    events.add(event);
+                }
+            }
+        });
+    }
+
+    private List<String> describeEvents() {
+        List<String> result = new ArrayList<String>(events.size());
+        for (BuildEvent event: events) {
+            result.add(event.toString());
+        }
+        return result;
+    }
+
+    @Test
+    public void testTaskLines() {
+        stream.visitLine(":compileJava");
+        stream.visitLine(":processResources UP-TO-DATE");
+        stream.visitLine(":sub:project:test");
+        stream.visitLine("BUILD SUCCESSFUL");
+
+        assertEquals(Arrays.asList(
+                "TASK_STARTED :compileJava",
+                "TASK_FINISHED :compileJava",
+                "TASK_STARTED :processResources",
+                "TASK_FINISHED :processResources UP-TO-DATE",
+                "TASK_STARTED :sub:project:test",
+                "TASK_FINISHED :sub:project:test"),
+                describeEvents());
+    }
+
+    @Test
+    public void testProgressStartsTasks() {
+        stream.progress("Execute :compileJava");
+        stream.progress(":jar");
+        stream.progress("Resolve dependencies 'runtime'");
+        stream.finish(null);
+
+        assertEquals(Arrays.asList(
+                "TASK_STARTED :compileJava",
+                "TASK_FINISHED :compileJava",
+                "TASK_STARTED :jar",
+                "TASK_FINISHED :jar",
+                "BUILD_FINISHED"),
+                describeEvents());
+    }
+
+    @Test
+    public void testOutcomePrintedWhileRunning() {
+        stream.progress("Execute :compileJava");
+        stream.visitLine(":compileJava UP-TO-DATE");
+        stream.progress("Execute :jar");
+
+        assertEquals(Arrays.asList(
+                "TASK_STARTED :compileJava",
+                "TASK_FINISHED :compileJava UP-TO-DATE",
+                "TASK_STARTED :jar"),
+                describeEvents());
+    }
+
+    @Test
+    public void testLateOutcomeIsAppliedToFinishedTask() {
+        stream.progress("Execute :compileJava");
+        stream.progress("Execute :jar");
+        stream.visitLine(":compileJava UP-TO-DATE");
+        stream.visitLine(":compileJava UP-TO-DATE");
+
+        assertEquals(Arrays.asList(
+                "TASK_STARTED :compileJava",
+                "TASK_FINISHED :compileJava",
+                "TASK_STARTED :jar",
+                "TASK_OUTCOME :compileJava UP-TO-DATE"),
+                describeEvents());
+    }
+
+    @Test
+    public void testEventsAfterFinishAreIgnored() {
+        stream.progress("Execute :compileJava");
+        stream.finish("failure");
+        stream.visitLine(":jar");
+        stream.finish(null);
+
+        assertEquals(Arrays.asList(
+                "TASK_STARTED :compileJava",
+                "TASK_FINISHED :compileJava",
+                "BUILD_FINISHED failure"),
+                describeEvents());
+    }
+
+    @Test(timeout = 30000)
+    public void testEventsOfDifferentThreadsAreOrdered() throws InterruptedException {
+        final int taskCount = 500;
+        final BuildEventStream concurrentStream = new BuildEventStream();
+        final List<BuildEvent> concurrentEvents
+                = Collections.synchronizedList(new ArrayList<BuildEvent>());
+        concurrentStream.addListener(new BuildEventListener() {
+            @Override
+            public void onBuildEvent(BuildEvent event) {
+                if (event.getKind() != BuildEvent.Kind.PROGRESS) {
+                    concurrentEvents.add(event);
+                }
+            }
+        });
+        BuildProfiler profiler = new BuildProfiler("gradle build", concurrentStream.getStartTime());
+        concurrentStream.addListener(profiler);
+
+        // The progress of a task is reported before its line is printed but
+        // on a different thread, just like when running a build.
+        final Semaphore startedTasks = new Semaphore(0);
+        Thread progressThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < taskCount; i++) {
+                    concurrentStream.progress("Execute :task" + i);
+                    startedTasks.release();
+                }
+            }
+        });
+        Thread outputThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < taskCount; i++) {
+                    startedTasks.acquireUninterruptibly();
+                    concurrentStream.visitLine(":task" + i + " UP-TO-DATE");
+                }
+            }
+        });
+
+        progressThread.start();
+        outputThread.start();
+        progressThread.join();
+        outputThread.join();
+        concurrentStream.finish(null);
+
+        Map<String, BuildEvent.Kind> lastKinds = new HashMap<String, BuildEvent.Kind>();
+        for (int i = 0; i < concurrentEvents.size(); i++) {
+            BuildEvent event = concurrentEvents.get(i);
+            if (event.getKind() == BuildEvent.Kind.BUILD_FINISHED) {
+                assertEquals("BUILD_FINISHED must be the last event.", concurrentEvents.size() - 1, i);
+                continue;
+            }
+
+            BuildEvent.Kind lastKind = lastKinds.put(event.getTaskPath(), event.getKind());
+            switch (event.getKind()) {
+                case TASK_STARTED:
+                    assertNull(event.toString(), lastKind);
+                    break;
+                case TASK_FINISHED:
+                    assertEquals(event.toString(), BuildEvent.Kind.TASK_STARTED, lastKind);
+                    break;
+                case TASK_OUTCOME:
+                    assertEquals(event.toString(), BuildEvent.Kind.TASK_FINISHED, lastKind);
+                    break;
+                default:
+                    fail("Unexpected event: " + event);
+            }
+        }
+
+        BuildProfile profile = profiler.getProfile();
+        assertNotNull(profile);
+        assertEquals(taskCount, profile.getTasks().size());
+        assertEquals(taskCount, profile.getUpToDateCount());
+    }
+
+    @Test
+    public void testUninterestingLines() {
+        stream.visitLine("");
+        stream.visitLine("   ");
+        stream.visitLine("Download http://repo1.maven.org/maven2/junit/junit/4.10/junit-4.10.pom");
+        stream.visitLine(": not a task");
+        stream.visitLine("Total time: 1.234 secs");
+        // Errors are recognized by the consumers of the output.
+        stream.visitLine(new File("Source.java").getAbsolutePath() + ":12: error: cannot find symbol");
+        stream.visitLine("Test testSomething(org.example.MyTest) FAILED");
+
+        assertEquals(0, events.size());
+    }
+}
@@ -0,0 +1,74 @@
+package org.netbeans.gradle.project.output;
+
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BuildProfilerTest {
+    @Test
+    public void testProfileBeforeFinish() {
+        BuildEventStream stream = new BuildEventStream();
+        BuildProfiler profiler = new BuildProfiler("gradle build", stream.getStartTime());
+        stream.addListener(profiler);
+
+        stream.progress("Execute :compileJava");
+        assertNull(profiler.getProfile());
+    }
+
+    @Test
+    public void testOutcomes() {
+        BuildEventStream stream = new BuildEventStream();
+        BuildProfiler profiler = new BuildProfiler("gradle build", stream.getStartTime());
+        stream.addListener(profiler);
+
+        stream.progress("Execute :compileJava");
+        stream.visitLine(":compileJava UP-TO-DATE");
+        stream.progress("Execute :processResources");
+        stream.progress("Execute :classes");
+        // Printed after the next task has been started.
+        stream.visitLine(":processResources UP-TO-DATE");
+        stream.progress("Execute :jar");
+        stream.finish(null);
+
+        BuildProfile profile = profiler.getProfile();
+        assertNotNull(profile);
+        assertEquals("gradle build", profile.getCommand());
+        assertNull(profile.getFailure());
+
+        List<BuildProfile.TaskTiming> tasks = profile.getTasks();
+        assertEquals(4, tasks.size());
+        assertEquals(":compileJava", tasks.get(0).getPath());
+        assertEquals(BuildProfile.OUTCOME_UP_TO_DATE, tasks.get(0).getOutcome());
+        assertEquals(":processResources", tasks.get(1).getPath());
+        assertEquals(BuildProfile.OUTCOME_UP_TO_DATE, tasks.get(1).getOutcome());
+        assertEquals(":classes", tasks.get(2).getPath());
+        assertNull(tasks.get(2).getOutcome());
+        assertEquals(":jar", tasks.get(3).getPath());
+        assertNull(tasks.get(3).getOutcome());
+
+        assertEquals(2, profile.getUpToDateCount());
+        assertEquals(0.5, profile.getUpToDateRatio(), 0.0);
+
+        for (BuildProfile.TaskTiming task: tasks) {
+            assertTrue(task.getDurationNanos() >= 0);
+        }
+        assertTrue(profile.getConfigurationNanos() >= 0);
+        assertTrue(profile.getExecutionNanos() >= 0);
+    }
+
+    @Test
+    public void testFailure() {
+        BuildEventStream stream = new BuildEventStream();
+        BuildProfiler profiler = new BuildProfiler("gradle test", stream.getStartTime());
+        stream.addListener(profiler);
+
+        stream.progress("Execute :test");
+        stream.finish("Tests failed");
+
+        BuildProfile profile = profiler.getProfile();
+        assertEquals("Tests failed", profile.getFailure());
+        assertEquals(1, profile.getTasks().size());
+        assertEquals(0.0, profile.getUpToDateRatio(), 0.0);
+    }
+}
@@ -0,0 +1,95 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LineOutputWriterTest {
+    private static List<String> writeAll(String... parts) throws IOException {
+        CollectingHandler handler = new CollectingHandler();
+        LineOutputWriter writer = new LineOutputWriter(handler);
+        for (String part: parts) {
+            writer.write(part);
+        }
+        writer.close();
+        return handler.lines;
+    }
+
+    @Test
+    public void testSplitsAllLineSeparators() throws IOException {
+        assertEquals(Arrays.asList("a", "b", "c", "d"), writeAll("a\nb\r\nc\rd"));
+    }
+
+    @Test
+    public void testEmptyLines() throws IOException {
+        // The (empty) unterminated last line is forwarded when closing.
+        assertEquals(Arrays.asList("", "a", "", "", ""), writeAll("\na\n\r\n\r\n"));
+    }
+
+    @Test
+    public void testCrLfSplitBetweenWrites() throws IOException {
+        assertEquals(Arrays.asList("a", "b", ""), writeAll("a\r", "\nb\r", "\n"));
+    }
+
+    @Test
+    public void testCrFollowedByCrIsTwoLines() throws IOException {
+        assertEquals(Arrays.asList("a", "", "b"), writeAll("a\r", "\r", "b"));
+    }
+
+    @Test
+    public void testLineSplitBetweenWrites() throws IOException {
+        assertEquals(Arrays.asList("abc", "de", "f"), writeAll("a", "b", "c\nd", "e\n", "f"));
+    }
+
+    @Test
+    public void testEmptyWriteKeepsPendingCr() throws IOException {
+        assertEquals(Arrays.asList("a", "b"), writeAll("a\r", "", "\nb"));
+    }
+
+    @Test
+    public void testOffsetAndLengthAreRespected() throws IOException {
+        CollectingHandler handler = new CollectingHandler();
+        LineOutputWriter writer = new LineOutputWriter(handler);
+
+        char[] chars = "xx\na\nbyy".toCharArray();
+        writer.write(chars, 2, 4);
+        writer.close();
+
+        assertEquals(Arrays.asList("", "a", "b"), handler.lines);
+    }
+
+    @Test
+    public void testCloseForwardsUnterminatedLineOnce() throws IOException {
+        CollectingHandler handler = new CollectingHandler();
+        LineOutputWriter writer = new LineOutputWriter(handler);
+        writer.write("a\nb");
+        writer.close();
+        writer.close();
+
+        assertEquals(Arrays.asList("a", "b"), handler.lines);
+        assertEquals(1, handler.closeCount);
+    }
+
+    private static final class CollectingHandler implements LineOutputWriter.Handler {
+        public final List<String> lines = new ArrayList<String>();
+        public int closeCount = 0;
+
+        @Override
+        public void writeLine(String line) {
+            lines.add(line);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            closeCount++;
+        }
+    }
+}
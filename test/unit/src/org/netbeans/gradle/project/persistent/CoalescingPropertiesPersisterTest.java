@@ -0,0 +1,69 @@
+package org.netbeans.gradle.project.persistent;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.netbeans.gradle.project.TestJavaPlatformProvider;
+import org.netbeans.gradle.project.properties.MemProjectProperties;
+import org.netbeans.gradle.project.properties.PropertiesSnapshot;
+import org.netbeans.junit.MockServices;
+
+import static org.junit.Assert.*;
+
+public class CoalescingPropertiesPersisterTest {
+    @Rule
+    public final TemporaryFolder tmpDir = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUpClass() {
+        MockServices.setServices(TestJavaPlatformProvider.class);
+    }
+
+    private static void saveOnEdt(
+            final CoalescingPropertiesPersister persister,
+            final MemProjectProperties properties,
+            final Runnable onDone) throws Exception {
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                persister.save(properties, onDone);
+            }
+        });
+    }
+
+    @Test
+    public void testFailedSaveIsRetried() throws Exception {
+        File dir = new File(tmpDir.getRoot(), "project");
+        File file = new File(dir, ".nb-gradle-properties");
+        CoalescingPropertiesPersister persister
+                = new CoalescingPropertiesPersister(new XmlPropertiesPersister(file));
+
+        MemProjectProperties properties = new MemProjectProperties();
+        properties.getSourceLevel().setValue("1.5");
+
+        final AtomicInteger doneCount = new AtomicInteger(0);
+        saveOnEdt(persister, properties, new Runnable() {
+            @Override
+            public void run() {
+                doneCount.incrementAndGet();
+            }
+        });
+
+        // The directory does not exist, so the save must fail.
+        CoalescingPropertiesPersister.flushAll();
+        assertFalse(file.exists());
+        assertEquals(0, doneCount.get());
+
+        assertTrue(dir.mkdir());
+        CoalescingPropertiesPersister.flushAll();
+
+        assertTrue(file.exists());
+        PropertiesSnapshot saved = XmlPropertyFormat.readFromXml(file);
+        assertEquals("1.5", saved.getSourceLevel());
+        assertEquals(1, doneCount.get());
+    }
+}
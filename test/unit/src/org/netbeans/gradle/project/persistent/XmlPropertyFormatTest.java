@@ -0,0 +1,208 @@
+package org.netbeans.gradle.project.persistent;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.netbeans.api.java.platform.JavaPlatform;
+import org.netbeans.gradle.project.TestJavaPlatformProvider;
+import org.netbeans.gradle.project.properties.PredefinedTask;
+import org.netbeans.gradle.project.properties.PropertiesSnapshot;
+import org.netbeans.junit.MockServices;
+
+import static org.junit.Assert.*;
+
+public class XmlPropertyFormatTest {
+    private static final JavaPlatform JDK6 = TestJavaPlatformProvider.JDK6;
+    private static final JavaPlatform JDK7 = TestJavaPlatformProvider.JDK7;
+
+    @Rule
+    public final TemporaryFolder tmpDir = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUpClass() {
+        MockServices.setServices(TestJavaPlatformProvider.class);
+    }
+
+    private File getPropertiesFile() {
+        return new File(tmpDir.getRoot(), ".nb-gradle-properties");
+    }
+
+    private static PredefinedTask createTask(String displayName, int index) {
+        return new PredefinedTask(
+                displayName,
+                Arrays.asList(
+                        new PredefinedTask.Name("clean", false),
+                        new PredefinedTask.Name(":sub" + index + ":build", true)),
+                Arrays.asList("-Pindex=" + index, "-Dvalue=\"quoted\""),
+                Arrays.asList("-Xmx" + (index + 256) + "m"),
+                index % 2 == 0);
+    }
+
+    private static PropertiesSnapshot createSnapshot(int taskCount) {
+        List<PredefinedTask> tasks = new ArrayList<PredefinedTask>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(createTask("Task " + i, i));
+        }
+
+        PropertiesSnapshot.Builder builder = new PropertiesSnapshot.Builder();
+        builder.setSourceLevel("1.6");
+        builder.setPlatform(JDK7);
+        builder.setSourceEncoding(Charset.forName("ISO-8859-1"));
+        builder.setCommonTasks(tasks);
+        return builder.create();
+    }
+
+    private void assertNoTemporaryFiles() {
+        File[] files = tmpDir.getRoot().listFiles();
+        assertEquals(Arrays.asList(getPropertiesFile()), Arrays.asList(files));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        PropertiesSnapshot snapshot = createSnapshot(3);
+
+        File file = getPropertiesFile();
+        assertTrue(XmlPropertyFormat.saveToXml(file, snapshot));
+        assertEquals(snapshot, XmlPropertyFormat.readFromXml(file));
+        assertNoTemporaryFiles();
+    }
+
+    @Test
+    public void testRoundTripManyTasks() {
+        PropertiesSnapshot snapshot = createSnapshot(300);
+
+        File file = getPropertiesFile();
+        XmlPropertyFormat.saveToXml(file, snapshot);
+        assertEquals(snapshot, XmlPropertyFormat.readFromXml(file));
+    }
+
+    @Test
+    public void testRoundTripSpecialCharacters() {
+        PredefinedTask task = new PredefinedTask(
+                "<Build> & \"run\" árvíztűrő",
+                Arrays.asList(new PredefinedTask.Name("run", false)),
+                Arrays.asList("-Pa=<b>&c", "-Pb='x' y"),
+                Collections.<String>emptyList(),
+                false);
+
+        PropertiesSnapshot.Builder builder = new PropertiesSnapshot.Builder();
+        builder.setSourceLevel("1.7");
+        builder.setPlatform(JDK7);
+        builder.setSourceEncoding(Charset.forName("UTF-8"));
+        builder.setCommonTasks(Arrays.asList(task));
+        PropertiesSnapshot snapshot = builder.create();
+
+        File file = getPropertiesFile();
+        XmlPropertyFormat.saveToXml(file, snapshot);
+        assertEquals(snapshot, XmlPropertyFormat.readFromXml(file));
+    }
+
+    @Test
+    public void testValuesAreTrimmed() throws IOException {
+        File file = getPropertiesFile();
+        writeFile(file, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<gradle-project-properties>\n"
+                + "  <source-level>\n    1.5\n  </source-level>\n"
+                + "  <common-tasks>\n"
+                + "    <task>\n"
+                + "      <display-name>  Build  </display-name>\n"
+                + "      <task-names><name must-exist=\"no\"> build </name></task-names>\n"
+                + "      <task-args><arg> -Pa=b </arg></task-args>\n"
+                + "    </task>\n"
+                + "  </common-tasks>\n"
+                + "</gradle-project-properties>\n");
+
+        PropertiesSnapshot snapshot = XmlPropertyFormat.readFromXml(file);
+        assertEquals("1.5", snapshot.getSourceLevel());
+        assertEquals(1, snapshot.getCommonTasks().size());
+
+        PredefinedTask task = snapshot.getCommonTasks().get(0);
+        assertEquals("Build", task.getDisplayName());
+        assertEquals("build", task.getTaskNames().get(0).getName());
+        assertEquals(Arrays.asList("-Pa=b"), task.getArguments());
+    }
+
+    @Test
+    public void testSaveReplacesExistingFile() {
+        File file = getPropertiesFile();
+        XmlPropertyFormat.saveToXml(file, createSnapshot(10));
+
+        PropertiesSnapshot snapshot = createSnapshot(1);
+        XmlPropertyFormat.saveToXml(file, snapshot);
+
+        assertEquals(snapshot, XmlPropertyFormat.readFromXml(file));
+        assertNoTemporaryFiles();
+    }
+
+    @Test
+    public void testMissingFileReturnsDefaults() {
+        PropertiesSnapshot snapshot = XmlPropertyFormat.readFromXml(getPropertiesFile());
+        assertEquals(new PropertiesSnapshot.Builder().create(), snapshot);
+    }
+
+    @Test
+    public void testMalformedFileReturnsDefaults() throws IOException {
+        File file = getPropertiesFile();
+        writeFile(file, "<gradle-project-properties><source-level>1.5</source-level>");
+
+        PropertiesSnapshot snapshot = XmlPropertyFormat.readFromXml(file);
+        assertEquals(new PropertiesSnapshot.Builder().create(), snapshot);
+    }
+
+    @Test
+    public void testUnknownElementsAreSkipped() throws IOException {
+        File file = getPropertiesFile();
+        writeFile(file, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<gradle-project-properties>\n"
+                + "  <unknown><nested>value</nested></unknown>\n"
+                + "  <source-level>1.5</source-level>\n"
+                + "  <target-platform>1.6</target-platform>\n"
+                + "</gradle-project-properties>\n");
+
+        PropertiesSnapshot snapshot = XmlPropertyFormat.readFromXml(file);
+        assertEquals("1.5", snapshot.getSourceLevel());
+        assertSame(JDK6, snapshot.getPlatform());
+    }
+
+    @Test
+    public void testClosestPlatformIsChosen() throws IOException {
+        File file = getPropertiesFile();
+        writeFile(file, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<gradle-project-properties>\n"
+                + "  <target-platform>1.8</target-platform>\n"
+                + "</gradle-project-properties>\n");
+        assertSame(JDK7, XmlPropertyFormat.readFromXml(file).getPlatform());
+
+        writeFile(file, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<gradle-project-properties>\n"
+                + "  <target-platform>1.5</target-platform>\n"
+                + "</gradle-project-properties>\n");
+        assertSame(JDK6, XmlPropertyFormat.readFromXml(file).getPlatform());
+    }
+
+    @Test
+    public void testSaveFailureIsReported() {
+        File file = new File(new File(tmpDir.getRoot(), "missing-dir"), ".nb-gradle-properties");
+        assertFalse(XmlPropertyFormat.saveToXml(file, createSnapshot(1)));
+        assertFalse(file.exists());
+    }
+
+    private static void writeFile(File file, String content) throws IOException {
+        OutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content.getBytes("UTF-8"));
+        } finally {
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.netbeans.gradle.project.properties;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentWeakValueMapTest {
+    private static final int THREAD_COUNT = 8;
+    private static final long TIMEOUT_MS = 10000;
+
+    private static void collectGarbage(WeakReference<?> ref) throws InterruptedException {
+        long endTime = System.currentTimeMillis() + TIMEOUT_MS;
+        while (ref.get() != null) {
+            assertTrue("The value was not garbage collected.", System.currentTimeMillis() < endTime);
+            System.gc();
+            Thread.sleep(10);
+        }
+    }
+
+    private static void waitForSize(ConcurrentWeakValueMap<?, ?> map, int expectedSize) throws InterruptedException {
+        long endTime = System.currentTimeMillis() + TIMEOUT_MS;
+        while (map.size() != expectedSize) {
+            assertTrue("Unexpected size: " + map.size(), System.currentTimeMillis() < endTime);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Calls {@code putIfAbsent} for the same key with a different value from
+     * multiple threads at once, and returns the values passed to the map.
+     * The results are stored in {@code results} in the same order.
+     */
+    private static List<Object> putConcurrently(
+            final ConcurrentWeakValueMap<String, Object> map,
+            final String key,
+            List<Object> results) throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            final CountDownLatch startLatch = new CountDownLatch(1);
+            List<Object> values = new ArrayList<Object>(THREAD_COUNT);
+            List<Future<Object>> futures = new ArrayList<Future<Object>>(THREAD_COUNT);
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                final Object value = new Object();
+                values.add(value);
+                futures.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        startLatch.await();
+                        return map.putIfAbsent(key, value);
+                    }
+                }));
+            }
+
+            startLatch.countDown();
+            for (Future<Object> future: futures) {
+                results.add(future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            }
+            return values;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Verifies that exactly one of the concurrent {@code putIfAbsent} calls
+     * added its value and every other call returned the added value.
+     */
+    private static Object checkSingleWinner(List<Object> values, List<Object> results) {
+        Object winner = null;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                assertNull("Multiple values were added.", winner);
+                winner = values.get(i);
+            }
+        }
+        assertNotNull("No value was added.", winner);
+
+        for (Object result: results) {
+            if (result != null) {
+                assertSame(winner, result);
+            }
+        }
+        return winner;
+    }
+
+    @Test
+    public void testSimpleOperations() {
+        ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<String, Object>();
+        Object value1 = new Object();
+        Object value2 = new Object();
+
+        assertNull(map.get("key"));
+        assertNull(map.putIfAbsent("key", value1));
+        assertSame(value1, map.putIfAbsent("key", value2));
+        assertSame(value1, map.get("key"));
+        assertEquals(1, map.size());
+
+        assertSame(value1, map.remove("key"));
+        assertNull(map.get("key"));
+        assertNull(map.remove("key"));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testConcurrentPutIfAbsent() throws Exception {
+        ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<String, Object>();
+
+        // The values must be strongly referenced to remain in the map.
+        List<Object> winners = new ArrayList<Object>();
+        for (int i = 0; i < 100; i++) {
+            String key = "key" + i;
+            List<Object> results = new ArrayList<Object>();
+            List<Object> values = putConcurrently(map, key, results);
+
+            Object winner = checkSingleWinner(values, results);
+            winners.add(winner);
+            assertSame(winner, map.get(key));
+        }
+        assertEquals(winners.size(), map.size());
+    }
+
+    @Test
+    public void testCollectedValueIsRemoved() throws Exception {
+        ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<String, Object>();
+
+        Object value = new Object();
+        WeakReference<Object> valueRef = new WeakReference<Object>(value);
+        assertNull(map.putIfAbsent("key", value));
+
+        value = null;
+        collectGarbage(valueRef);
+
+        assertNull(map.get("key"));
+        waitForSize(map, 0);
+    }
+
+    @Test
+    public void testConcurrentPutIfAbsentReplacesCollectedValues() throws Exception {
+        ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<String, Object>();
+        int keyCount = 20;
+
+        List<WeakReference<Object>> oldRefs = new ArrayList<WeakReference<Object>>();
+        for (int i = 0; i < keyCount; i++) {
+            Object value = new Object();
+            oldRefs.add(new WeakReference<Object>(value));
+            assertNull(map.putIfAbsent("key" + i, value));
+        }
+
+        for (WeakReference<Object> oldRef: oldRefs) {
+            collectGarbage(oldRef);
+        }
+
+        // Replace the collected values of the even keys. The entries of the
+        // collected values might not have been removed yet, or might be
+        // removed concurrently by the reference queue thread.
+        List<Object> winners = new ArrayList<Object>();
+        for (int i = 0; i < keyCount; i += 2) {
+            String key = "key" + i;
+            List<Object> results = new ArrayList<Object>();
+            List<Object> values = putConcurrently(map, key, results);
+            winners.add(checkSingleWinner(values, results));
+        }
+
+        // Removing the entries of the collected values must not remove the
+        // entries which were replaced.
+        waitForSize(map, keyCount / 2);
+        for (int i = 0; i < keyCount; i++) {
+            String key = "key" + i;
+            if (i % 2 == 0) {
+                assertSame(winners.get(i / 2), map.get(key));
+            }
+            else {
+                assertNull(map.get(key));
+            }
+        }
+    }
+}
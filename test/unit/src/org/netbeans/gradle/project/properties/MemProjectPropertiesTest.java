@@ -0,0 +1,117 @@
+package org.netbeans.gradle.project.properties;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.netbeans.gradle.project.TestJavaPlatformProvider;
+import org.netbeans.junit.MockServices;
+
+import static org.junit.Assert.*;
+
+public class MemProjectPropertiesTest {
+    @BeforeClass
+    public static void setUpClass() {
+        MockServices.setServices(TestJavaPlatformProvider.class);
+    }
+
+    private static PredefinedTask createTask(String name) {
+        return new PredefinedTask(name,
+                Arrays.asList(new PredefinedTask.Name(name, false)),
+                Collections.<String>emptyList(),
+                Collections.<String>emptyList(),
+                false);
+    }
+
+    private static PropertiesSnapshot createSnapshot() {
+        PropertiesSnapshot.Builder builder = new PropertiesSnapshot.Builder();
+        builder.setSourceLevel("1.5");
+        builder.setPlatform(TestJavaPlatformProvider.JDK7);
+        builder.setSourceEncoding(Charset.forName("ISO-8859-1"));
+        builder.setCommonTasks(Arrays.asList(createTask("build")));
+        return builder.create();
+    }
+
+    @Test
+    public void testDefaults() {
+        MemProjectProperties properties = new MemProjectProperties();
+        PropertiesSnapshot snapshot = properties.getSnapshot();
+
+        assertSame(TestJavaPlatformProvider.JDK6, snapshot.getPlatform());
+        assertEquals("1.6", snapshot.getSourceLevel());
+        assertEquals(AbstractProjectProperties.DEFAULT_SOURCE_ENCODING, snapshot.getSourceEncoding());
+        assertTrue(snapshot.getCommonTasks().isEmpty());
+    }
+
+    @Test
+    public void testSetValueUpdatesSnapshotBeforeNotifying() {
+        final MemProjectProperties properties = new MemProjectProperties();
+        final List<String> seenSourceLevels = new ArrayList<String>();
+        properties.getSourceLevel().addChangeListener(new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                seenSourceLevels.add(properties.getSnapshot().getSourceLevel());
+            }
+        });
+
+        properties.getSourceLevel().setValue("1.5");
+        assertEquals(Arrays.asList("1.5"), seenSourceLevels);
+        assertEquals("1.5", properties.getSourceLevel().getValue());
+        assertEquals("1.5", properties.getSnapshot().getSourceLevel());
+    }
+
+    @Test
+    public void testApplySnapshotPublishesEveryValueBeforeNotifying() {
+        final MemProjectProperties properties = new MemProjectProperties();
+        final PropertiesSnapshot newSnapshot = createSnapshot();
+        final List<PropertiesSnapshot> seenSnapshots = new ArrayList<PropertiesSnapshot>();
+
+        ChangeListener listener = new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                seenSnapshots.add(properties.getSnapshot());
+            }
+        };
+        for (MutableProperty<?> property: properties.getAllProperties()) {
+            property.addChangeListener(listener);
+        }
+
+        properties.applySnapshot(newSnapshot);
+
+        assertEquals(4, seenSnapshots.size());
+        for (PropertiesSnapshot snapshot: seenSnapshots) {
+            assertSame(newSnapshot, snapshot);
+        }
+        assertEquals("1.5", properties.getSourceLevel().getValue());
+        assertSame(TestJavaPlatformProvider.JDK7, properties.getPlatform().getValue());
+        assertEquals(Charset.forName("ISO-8859-1"), properties.getSourceEncoding().getValue());
+        assertEquals(newSnapshot.getCommonTasks(), properties.getCommonTasks().getValue());
+    }
+
+    @Test
+    public void testApplySnapshotNotifiesOnlyChangedProperties() {
+        MemProjectProperties properties = new MemProjectProperties();
+
+        PropertiesSnapshot.Builder builder = new PropertiesSnapshot.Builder(properties.getSnapshot());
+        builder.setSourceLevel("1.5");
+
+        final List<Object> changed = new ArrayList<Object>();
+        ChangeListener listener = new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                changed.add(e.getSource());
+            }
+        };
+        for (MutableProperty<?> property: properties.getAllProperties()) {
+            property.addChangeListener(listener);
+        }
+
+        properties.applySnapshot(builder.create());
+        assertEquals(Arrays.<Object>asList(properties.getSourceLevel()), changed);
+    }
+}